@@ -0,0 +1,112 @@
+package com.grelobites.oric.dsk.benchmark;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import com.grelobites.oric.dsk.util.DskUtil;
+import com.grelobites.oric.dsk.util.TapWriter;
+import com.grelobites.oric.dsk.util.Util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * Images shared by the benchmarks: the ones bundled with the core tests, loaded
+ * from the classpath, and synthetic ones built from seeded random archives
+ */
+final class BenchmarkImages {
+    static final String SYNTHETIC_MFM = "synthetic-mfm";
+    static final String SYNTHETIC_PLAIN = "synthetic-plain";
+
+    private static final long SEED = 0x0D5C;
+    private static final int SYNTHETIC_ARCHIVES = 48;
+    private static final int MAX_ARCHIVE_SIZE = 8192;
+    private static final int LOAD_ADDRESS = 0x501;
+
+    private BenchmarkImages() {
+    }
+
+    static byte[] load(String image) throws IOException {
+        switch (image) {
+            case SYNTHETIC_MFM:
+                return syntheticMfmImage();
+            case SYNTHETIC_PLAIN:
+                return syntheticPlainImage();
+            default:
+                try (InputStream stream = BenchmarkImages.class.getResourceAsStream("/" + image)) {
+                    if (stream == null) {
+                        throw new IOException("Benchmark image not found: " + image);
+                    }
+                    return Util.fromInputStream(stream);
+                }
+        }
+    }
+
+    static Disk loadDisk(String image) throws IOException {
+        return DskUtil.diskFromDskBuffer(ByteBuffer.wrap(load(image))).toFlatDisk();
+    }
+
+    static List<SedoricArchive> syntheticArchives() {
+        Random random = new Random(SEED);
+        List<SedoricArchive> archives = new ArrayList<>(SYNTHETIC_ARCHIVES);
+        for (int i = 0; i < SYNTHETIC_ARCHIVES; i++) {
+            byte[] data = new byte[1 + random.nextInt(MAX_ARCHIVE_SIZE)];
+            random.nextBytes(data);
+            SedoricArchive archive = new SedoricArchive(String.format("FILE%02d", i), "BIN", data);
+            archive.setLoadAddress(LOAD_ADDRESS);
+            archive.setBlockAttribute(true);
+            archives.add(archive);
+        }
+        return archives;
+    }
+
+    static SedoricFileSystem syntheticFileSystem() {
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        fileSystem.setName("SYNTHETIC");
+        fileSystem.addArchives(syntheticArchives());
+        return fileSystem;
+    }
+
+    static byte[] syntheticMfmImage() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        syntheticFileSystem().exportFileSystem(output);
+        return output.toByteArray();
+    }
+
+    //Plain images only hold the first side
+    static byte[] syntheticPlainImage() throws IOException {
+        Disk disk = syntheticFileSystem().toDisk();
+        DiskGeometry geometry = disk.getGeometry();
+        int sectorCount = geometry.getTrackGeometry(0).getSectorCount();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DskHeader.newBuilder()
+                .withSignature(Constants.PLAIN_DSK_SIGNATURE)
+                .withSides(1)
+                .withTracks(geometry.getTrackCount())
+                .withSectors(sectorCount)
+                .build().dump(output);
+        for (int track = 0; track < geometry.getTrackCount(); track++) {
+            for (int sector = 1; sector <= sectorCount; sector++) {
+                output.write(disk.copySector(track, sector));
+            }
+        }
+        return output.toByteArray();
+    }
+
+    static byte[] syntheticTap() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TapWriter writer = new TapWriter(output);
+        for (SedoricArchive archive : syntheticArchives()) {
+            writer.write(archive);
+        }
+        return output.toByteArray();
+    }
+}
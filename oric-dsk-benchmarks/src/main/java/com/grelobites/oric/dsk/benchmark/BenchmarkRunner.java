@@ -0,0 +1,31 @@
+package com.grelobites.oric.dsk.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * JMH entry point that always adds the GC profiler, so that results include
+ * allocation rates. Any other JMH option is passed along
+ */
+public class BenchmarkRunner {
+    private static final String PROFILER_OPTION = "-prof";
+    private static final String GC_PROFILER = "gc";
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        boolean gcProfiler = false;
+        for (int i = 0; i < arguments.size() - 1; i++) {
+            if (PROFILER_OPTION.equals(arguments.get(i)) && arguments.get(i + 1).startsWith(GC_PROFILER)) {
+                gcProfiler = true;
+            }
+        }
+        if (!gcProfiler) {
+            arguments.add(0, PROFILER_OPTION);
+            arguments.add(1, GC_PROFILER);
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,66 @@
+package com.grelobites.oric.dsk.benchmark;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.util.TapReader;
+import com.grelobites.oric.dsk.util.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * CRC16 over a sector and over a whole MFM track, and TAP decoding of the
+ * synthetic archive set
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    private ByteBuffer track;
+    private byte[] tap;
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] data = new byte[Constants.MFM_TRACK_SIZE];
+        new Random(Constants.MFM_TRACK_SIZE).nextBytes(data);
+        track = ByteBuffer.wrap(data);
+        tap = BenchmarkImages.syntheticTap();
+    }
+
+    @Benchmark
+    public short crc16Sector() {
+        ((Buffer) track).position(Constants.SECTOR_SIZE);
+        return Util.crc16(track, Constants.SECTOR_SIZE);
+    }
+
+    @Benchmark
+    public short crc16Track() {
+        ((Buffer) track).position(Constants.MFM_TRACK_SIZE);
+        return Util.crc16(track, Constants.MFM_TRACK_SIZE);
+    }
+
+    @Benchmark
+    public void readTap(Blackhole blackhole) throws IOException {
+        TapReader reader = new TapReader(new ByteArrayInputStream(tap));
+        while (reader.hasNext()) {
+            blackhole.consume(reader.getNext());
+        }
+    }
+}
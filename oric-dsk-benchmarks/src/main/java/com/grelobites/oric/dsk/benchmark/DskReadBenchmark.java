@@ -0,0 +1,69 @@
+package com.grelobites.oric.dsk.benchmark;
+
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DskReaderFactory;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import com.grelobites.oric.dsk.util.DskUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Reads whole images through MfmDskReader or PlainDskReader, as chosen by the
+ * header signature. Every sector is accessed, so that lazily decoded tracks count
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DskReadBenchmark {
+
+    @Param({"BuggyBoy.dsk", "barbitoric.dsk", "oricdos.dsk", "xenon1.new.dsk", "xenon1.old.dsk",
+            BenchmarkImages.SYNTHETIC_MFM, BenchmarkImages.SYNTHETIC_PLAIN})
+    public String image;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() throws IOException {
+        data = BenchmarkImages.load(image);
+    }
+
+    private static void consumeSectors(Disk disk, Blackhole blackhole) {
+        for (int track = 0; track < disk.getTrackCount(); track++) {
+            int sectorCount = disk.getGeometry().getTrackGeometry(track).getSectorCount();
+            for (int sector = 1; sector <= sectorCount; sector++) {
+                blackhole.consume(disk.getSectorBuffer(track, sector));
+            }
+        }
+    }
+
+    @Benchmark
+    public void readFromBuffer(Blackhole blackhole) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        DskHeader header = DskHeader.fromByteBuffer(buffer);
+        consumeSectors(DskReaderFactory.getDskReader(header.getFileType())
+                .fromDsk(buffer, header), blackhole);
+    }
+
+    @Benchmark
+    public void readFromStream(Blackhole blackhole) throws IOException {
+        consumeSectors(DskUtil.diskFromDskStream(new ByteArrayInputStream(data)), blackhole);
+    }
+}
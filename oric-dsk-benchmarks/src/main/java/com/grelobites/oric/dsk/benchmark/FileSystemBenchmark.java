@@ -0,0 +1,72 @@
+package com.grelobites.oric.dsk.benchmark;
+
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.sedoric.SedoricDirectory;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import com.grelobites.oric.dsk.util.DskUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Sedoric directory walks on decoded disks, and the write side: laying out a
+ * file system and encoding a disk as MFM. barbitoric.dsk is left out, as its
+ * directory is damaged
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileSystemBenchmark {
+
+    @Param({"BuggyBoy.dsk", "xenon1.new.dsk", BenchmarkImages.SYNTHETIC_MFM})
+    public String image;
+
+    private Disk disk;
+    private SedoricFileSystem fileSystem;
+    private ByteArrayOutputStream output;
+
+    @Setup
+    public void setup() throws IOException {
+        byte[] data = BenchmarkImages.load(image);
+        disk = BenchmarkImages.loadDisk(image);
+        fileSystem = new SedoricFileSystem();
+        fileSystem.openDsk(new ByteArrayInputStream(data));
+        output = new ByteArrayOutputStream(data.length);
+    }
+
+    @Benchmark
+    public void readDirectory(Blackhole blackhole) {
+        for (SedoricDirectory directory : SedoricDirectory.fromDisk(disk)) {
+            blackhole.consume(directory.getArchive(disk));
+        }
+    }
+
+    @Benchmark
+    public void exportFileSystem(Blackhole blackhole) throws IOException {
+        output.reset();
+        blackhole.consume(fileSystem.exportFileSystem(output));
+    }
+
+    @Benchmark
+    public void dumpAsMfm() throws IOException {
+        output.reset();
+        DskUtil.dumpAsMfm(disk, output);
+    }
+}
@@ -0,0 +1,80 @@
+package com.grelobites.oric.dsk.benchmark;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.util.LegacyMfmTrackParser;
+import com.grelobites.oric.dsk.util.MfmTrackParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Decodes every track of an MFM image with the legacy state machine parser
+ * and with MfmTrackParser
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MfmTrackParserBenchmark {
+    private static final int DSK_HEADER_SIZE = 256;
+
+    @Param({"BuggyBoy.dsk", "xenon1.new.dsk"})
+    public String image;
+
+    private ByteBuffer[] tracks;
+    private LegacyMfmTrackParser legacyParser;
+    private MfmTrackParser parser;
+
+    static ByteBuffer[] loadTracks(String image) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(BenchmarkImages.load(image));
+        int trackCount = (buffer.capacity() - DSK_HEADER_SIZE) / Constants.MFM_TRACK_SIZE;
+        ByteBuffer[] tracks = new ByteBuffer[trackCount];
+        for (int i = 0; i < trackCount; i++) {
+            int offset = DSK_HEADER_SIZE + i * Constants.MFM_TRACK_SIZE;
+            ByteBuffer track = buffer.duplicate();
+            ((Buffer) track).position(offset);
+            ((Buffer) track).limit(offset + Constants.MFM_TRACK_SIZE);
+            tracks[i] = track.slice();
+        }
+        return tracks;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        tracks = loadTracks(image);
+        legacyParser = new LegacyMfmTrackParser();
+        parser = new MfmTrackParser();
+    }
+
+    @Benchmark
+    public void legacyParser(Blackhole blackhole) {
+        for (ByteBuffer track : tracks) {
+            blackhole.consume(legacyParser.parse(track));
+            blackhole.consume(legacyParser.getSectors());
+        }
+    }
+
+    @Benchmark
+    public void syncMarkParser(Blackhole blackhole) {
+        for (ByteBuffer track : tracks) {
+            blackhole.consume(parser.parse(track));
+            blackhole.consume(parser.getSectors());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.grelobites.oric.dsk.benchmark;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.sedoric.SedoricBitmap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Allocates every sector of an empty default disk, one at a time
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SedoricBitmapBenchmark {
+
+    @Benchmark
+    public void getFreeSector(Blackhole blackhole) {
+        SedoricBitmap bitmap = new SedoricBitmap(Constants.DEFAULT_DISK_GEOMETRY);
+        for (int i = bitmap.freeSectors(); i > 0; i--) {
+            blackhole.consume(bitmap.getFreeSector());
+        }
+    }
+
+    @Benchmark
+    public void getPackedFreeSector(Blackhole blackhole) {
+        SedoricBitmap bitmap = new SedoricBitmap(Constants.DEFAULT_DISK_GEOMETRY);
+        for (int i = bitmap.freeSectors(); i > 0; i--) {
+            blackhole.consume(bitmap.getPackedFreeSector());
+        }
+    }
+}
@@ -23,13 +23,6 @@ public class Constants {
     public static final String FILE_EXTENSION_SEPARATOR = ".";
 	public static final String EMPTY_STRING = "";
 	public static final String NO_VALUE = "-";
-	public static final String TEXT_ERROR_STYLE = "red-text";
-	public static final String RED_BACKGROUND_STYLE = "red-background";
-	public static final String NORMAL_BACKGROUND_STYLE = "normal-background";
-    public static final String RED_BAR_STYLE = "red-bar";
-    public static final String BLUE_BAR_STYLE = "blue-bar";
-
-    private static final String THEME_RESOURCE = "view/theme.css";
     public static final int SIGNATURE_SIZE = 8;
 
     public static final String PLAIN_DSK_SIGNATURE = "ORICDISK";
@@ -46,8 +39,6 @@ public class Constants {
     public static final int DEFAULT_PAPER_COLOR = -1;
     public static final int DEFAULT_PEN_COLOR = -1;
 
-    private static String THEME_RESOURCE_URL;
-
     private static String SEDORIC_BOOTSTRAP_RESOURCE = "/sedoric-boot.bin";
     private static byte[] SEDORIC_BOOTSTRAP;
 
@@ -105,14 +96,6 @@ public class Constants {
         return version;
     }
 
-    public static String getThemeResourceUrl() {
-        if (THEME_RESOURCE_URL == null) {
-            THEME_RESOURCE_URL = Constants.class.getResource(THEME_RESOURCE)
-                    .toExternalForm();
-        }
-        return THEME_RESOURCE_URL;
-    }
-
     public static byte[] getSedoricBootStrap() throws IOException {
         if (SEDORIC_BOOTSTRAP == null) {
             SEDORIC_BOOTSTRAP = Util.fromInputStream(
@@ -0,0 +1,27 @@
+package com.grelobites.oric.dsk.cli;
+
+public enum BatchCommand {
+    LIST("list"),
+    CONVERT("convert"),
+    VERIFY("verify"),
+    GENERATE("generate");
+
+    private final String name;
+
+    BatchCommand(String name) {
+        this.name = name;
+    }
+
+    public String commandName() {
+        return name;
+    }
+
+    public static BatchCommand byName(String name) {
+        for (BatchCommand command : BatchCommand.values()) {
+            if (command.name.equals(name)) {
+                return command;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.grelobites.oric.dsk.cli;
+
+import java.nio.file.Path;
+
+public class BatchInput {
+    private final Path path;
+    private final Path relativePath;
+
+    public BatchInput(Path path, Path relativePath) {
+        this.path = path;
+        this.relativePath = relativePath;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    //Path relative to the directory or glob base where the input was found
+    public Path getRelativePath() {
+        return relativePath;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchInput{" +
+                "path=" + path +
+                ", relativePath=" + relativePath +
+                '}';
+    }
+}
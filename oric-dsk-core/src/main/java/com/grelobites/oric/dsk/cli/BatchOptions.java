@@ -0,0 +1,212 @@
+package com.grelobites.oric.dsk.cli;
+
+import com.grelobites.oric.dsk.sedoric.FirstFreeAllocationStrategy;
+import com.grelobites.oric.dsk.util.MfmDskReader;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchOptions {
+    public static final int DEFAULT_COUNT = 100;
+
+    private BatchCommand command;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Path outputDirectory;
+    private int parallelTrackThreshold = MfmDskReader.NO_PARALLEL_DECODING;
+    private boolean verifyCrc;
+    private String layout = FirstFreeAllocationStrategy.NAME;
+    private boolean layoutReport;
+    //Null keeps the interleave of the source image
+    private String interleave;
+    private Integer skew;
+    private int count = DEFAULT_COUNT;
+    private long seed;
+    private List<String> inputs = new ArrayList<>();
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private BatchOptions options = new BatchOptions();
+
+        public Builder withCommand(BatchCommand command) {
+            options.setCommand(command);
+            return this;
+        }
+
+        public Builder withThreads(int threads) {
+            options.setThreads(threads);
+            return this;
+        }
+
+        public Builder withOutputDirectory(Path outputDirectory) {
+            options.setOutputDirectory(outputDirectory);
+            return this;
+        }
+
+        public Builder withParallelTrackThreshold(int parallelTrackThreshold) {
+            options.setParallelTrackThreshold(parallelTrackThreshold);
+            return this;
+        }
+
+        public Builder withVerifyCrc(boolean verifyCrc) {
+            options.setVerifyCrc(verifyCrc);
+            return this;
+        }
+
+        public Builder withLayout(String layout) {
+            options.setLayout(layout);
+            return this;
+        }
+
+        public Builder withLayoutReport(boolean layoutReport) {
+            options.setLayoutReport(layoutReport);
+            return this;
+        }
+
+        public Builder withInterleave(String interleave) {
+            options.setInterleave(interleave);
+            return this;
+        }
+
+        public Builder withSkew(int skew) {
+            options.setSkew(skew);
+            return this;
+        }
+
+        public Builder withCount(int count) {
+            options.setCount(count);
+            return this;
+        }
+
+        public Builder withSeed(long seed) {
+            options.setSeed(seed);
+            return this;
+        }
+
+        public Builder withInput(String input) {
+            options.getInputs().add(input);
+            return this;
+        }
+
+        public BatchOptions build() {
+            return options;
+        }
+    }
+
+    public BatchCommand getCommand() {
+        return command;
+    }
+
+    public void setCommand(BatchCommand command) {
+        this.command = command;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public Path getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public void setOutputDirectory(Path outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    public int getParallelTrackThreshold() {
+        return parallelTrackThreshold;
+    }
+
+    public void setParallelTrackThreshold(int parallelTrackThreshold) {
+        this.parallelTrackThreshold = parallelTrackThreshold;
+    }
+
+    public boolean isVerifyCrc() {
+        return verifyCrc;
+    }
+
+    public void setVerifyCrc(boolean verifyCrc) {
+        this.verifyCrc = verifyCrc;
+    }
+
+    public String getLayout() {
+        return layout;
+    }
+
+    public void setLayout(String layout) {
+        this.layout = layout;
+    }
+
+    public boolean isLayoutReport() {
+        return layoutReport;
+    }
+
+    public void setLayoutReport(boolean layoutReport) {
+        this.layoutReport = layoutReport;
+    }
+
+    public String getInterleave() {
+        return interleave;
+    }
+
+    public void setInterleave(String interleave) {
+        this.interleave = interleave;
+    }
+
+    public Integer getSkew() {
+        return skew;
+    }
+
+    public void setSkew(Integer skew) {
+        this.skew = skew;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public List<String> getInputs() {
+        return inputs;
+    }
+
+    public void setInputs(List<String> inputs) {
+        this.inputs = inputs;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchOptions{" +
+                "command=" + command +
+                ", threads=" + threads +
+                ", outputDirectory=" + outputDirectory +
+                ", parallelTrackThreshold=" + parallelTrackThreshold +
+                ", verifyCrc=" + verifyCrc +
+                ", layout=" + layout +
+                ", layoutReport=" + layoutReport +
+                ", interleave=" + interleave +
+                ", skew=" + skew +
+                ", count=" + count +
+                ", seed=" + seed +
+                ", inputs=" + inputs +
+                '}';
+    }
+}
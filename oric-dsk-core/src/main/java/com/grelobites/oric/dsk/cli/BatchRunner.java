@@ -0,0 +1,252 @@
+package com.grelobites.oric.dsk.cli;
+
+import com.grelobites.oric.dsk.model.CatalogEntry;
+import com.grelobites.oric.dsk.model.DiskCatalog;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.DiskIntegrityReport;
+import com.grelobites.oric.dsk.model.IntegrityException;
+import com.grelobites.oric.dsk.model.SectorIntegrity;
+import com.grelobites.oric.dsk.model.TrackIntegrity;
+import com.grelobites.oric.dsk.sedoric.AllocationStrategy;
+import com.grelobites.oric.dsk.sedoric.FileLayout;
+import com.grelobites.oric.dsk.sedoric.FirstFreeAllocationStrategy;
+import com.grelobites.oric.dsk.sedoric.InterleaveEstimate;
+import com.grelobites.oric.dsk.sedoric.LayoutReport;
+import com.grelobites.oric.dsk.sedoric.LoadTimeModel;
+import com.grelobites.oric.dsk.sedoric.NearDirectoryAllocationStrategy;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import com.grelobites.oric.dsk.util.DskUtil;
+import com.grelobites.oric.dsk.util.MfmDskReader;
+import com.grelobites.oric.dsk.util.ProgressMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatchRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchRunner.class);
+    public static final String FASTEST_LAYOUT = "fastest";
+    public static final String AUTO_INTERLEAVE = "auto";
+
+    private final BatchOptions options;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final BatchStats stats = new BatchStats();
+    //Shared by the workers. Decoding state is kept per disk
+    private final MfmDskReader mfmDskReader;
+
+    public BatchRunner(BatchOptions options, PrintStream out, PrintStream err) {
+        this.options = options;
+        this.out = out;
+        this.err = err;
+        this.mfmDskReader = new MfmDskReader(options.getParallelTrackThreshold(), options.isVerifyCrc());
+    }
+
+    static ExecutorService newExecutorService(int threads) {
+        final AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName("Batch worker " + counter.incrementAndGet());
+            return t;
+        });
+    }
+
+    private static String describeGeometry(DiskGeometry geometry) {
+        return String.format("%d tracks, %d sides", geometry.getTrackCount(), geometry.getSideCount());
+    }
+
+    private static String describeEntry(CatalogEntry entry) {
+        return String.format("  %-9s.%-3s %6d load=0x%04x exec=0x%04x %s%s%s",
+                entry.getName(), entry.getExtension(), entry.getSize(),
+                entry.getLoadAddress(), entry.getExecAddress(),
+                entry.isExecutableAttribute() ? "E" : "-",
+                entry.isBlockAttribute() ? "B" : "-",
+                entry.isProtectedAttribute() ? "P" : "-");
+    }
+
+    private long list(BatchInput input) throws IOException {
+        DiskCatalog catalog = DiskCatalog.fromDisk(
+                DskUtil.diskFromDskFile(input.getPath().toFile(), mfmDskReader));
+        StringBuilder report = new StringBuilder()
+                .append(input.getPath()).append(": ")
+                .append(catalog.getFormat().name).append(", ")
+                .append(describeGeometry(catalog.getGeometry())).append(", ")
+                .append(catalog.getEntries().size()).append(" files");
+        for (CatalogEntry entry : catalog.getEntries()) {
+            report.append(System.lineSeparator()).append(describeEntry(entry));
+        }
+        synchronized (out) {
+            out.println(report);
+        }
+        return 0;
+    }
+
+    private long verify(BatchInput input) throws IOException {
+        DiskIntegrityReport report = DskUtil.integrityReportFromDskFile(input.getPath().toFile(),
+                mfmDskReader);
+        StringBuilder line = new StringBuilder().append(input.getPath()).append(": ");
+        if (!report.isChecked()) {
+            line.append("no CRCs in plain image");
+        } else {
+            line.append(report.getTracks().size()).append(" tracks, ")
+                    .append(report.getSectorCount()).append(" sectors, ")
+                    .append(report.getUncheckedCount()).append(" without CRC, ")
+                    .append(report.getErrorCount()).append(" errors");
+            for (TrackIntegrity track : report.getInvalidTracks()) {
+                for (SectorIntegrity sector : track.getSectors()) {
+                    if (!sector.isValid()) {
+                        line.append(System.lineSeparator())
+                                .append(String.format("  track %d sector %d: id %s, data %s",
+                                        track.getTrack(), sector.getSectorId(),
+                                        sector.getIdStatus(), sector.getDataStatus()));
+                    }
+                }
+            }
+        }
+        synchronized (out) {
+            out.println(line);
+        }
+        if (!report.isValid()) {
+            throw new IntegrityException(report);
+        }
+        return 0;
+    }
+
+    private static AllocationStrategy allocationStrategy(SedoricFileSystem fileSystem,
+                                                         String layout) throws IOException {
+        if (FASTEST_LAYOUT.equals(layout)) {
+            return fileSystem.fastestAllocationStrategy(Arrays.asList(
+                    new FirstFreeAllocationStrategy(),
+                    new NearDirectoryAllocationStrategy(fileSystem.getLoadTimeModel())));
+        } else {
+            return AllocationStrategy.byName(layout, fileSystem.getLoadTimeModel());
+        }
+    }
+
+    private static void appendLayoutReport(StringBuilder line, LayoutReport report,
+                                           Integer interleave, Integer skew) {
+        line.append(String.format(" (%s layout, %.1f ms)",
+                report.getStrategy().getName(), report.getTotalLoadTime()));
+        if (interleave != null || skew != null) {
+            line.append(String.format(" interleave %s, skew %s",
+                    interleave != null ? interleave : "-", skew != null ? skew : "-"));
+        }
+        for (FileLayout file : report.getFiles()) {
+            line.append(System.lineSeparator())
+                    .append(String.format("  %-9s.%-3s %4d sectors %3d tracks %8.1f ms",
+                            file.getName(), file.getExtension(), file.getSectors().size(),
+                            file.getTrackCount(), file.getLoadTime()));
+        }
+    }
+
+    private long convert(BatchInput input) throws IOException {
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        fileSystem.openDsk(DskUtil.diskFromDskFile(input.getPath().toFile(), mfmDskReader),
+                ProgressMonitor.NONE);
+        fileSystem.setLoadTimeModel(LoadTimeModel.DEFAULT);
+        fileSystem.setAllocationStrategy(allocationStrategy(fileSystem, options.getLayout()));
+        if (AUTO_INTERLEAVE.equals(options.getInterleave())) {
+            InterleaveEstimate fastest = fileSystem.fastestInterleave();
+            fileSystem.setInterleave(fastest.getInterleave());
+            fileSystem.setSkew(options.getSkew() != null ? options.getSkew() : fastest.getSkew());
+        } else {
+            fileSystem.setInterleave(options.getInterleave() != null ?
+                    Integer.valueOf(options.getInterleave()) : null);
+            fileSystem.setSkew(options.getSkew());
+        }
+        Path target = options.getOutputDirectory().resolve(input.getRelativePath());
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        LayoutReport report;
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            report = fileSystem.exportFileSystem(channel);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        StringBuilder line = new StringBuilder()
+                .append(input.getPath()).append(" -> ").append(target);
+        if (options.isLayoutReport()) {
+            appendLayoutReport(line, report, fileSystem.getInterleave(), fileSystem.getSkew());
+        }
+        synchronized (out) {
+            out.println(line);
+        }
+        return Files.size(target);
+    }
+
+    private void process(BatchInput input) {
+        try {
+            long size = Files.size(input.getPath());
+            long written;
+            switch (options.getCommand()) {
+                case LIST:
+                    written = list(input);
+                    break;
+                case CONVERT:
+                    written = convert(input);
+                    break;
+                case VERIFY:
+                    written = verify(input);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported command " + options.getCommand());
+            }
+            stats.addProcessed(size, written);
+        } catch (Exception e) {
+            LOGGER.debug("Processing " + input, e);
+            stats.addFailed();
+            synchronized (err) {
+                err.println(input.getPath() + ": " + e);
+            }
+        }
+    }
+
+    //Inputs found in different directories or globs may share their relative path, and
+    //would overwrite each other's output
+    static void checkOutputClashes(List<BatchInput> inputs) {
+        Map<Path, BatchInput> targets = new HashMap<>();
+        for (BatchInput input : inputs) {
+            BatchInput previous = targets.putIfAbsent(input.getRelativePath().normalize(), input);
+            if (previous != null) {
+                throw new IllegalArgumentException("Both " + previous.getPath() + " and " + input.getPath()
+                        + " would be converted to " + input.getRelativePath());
+            }
+        }
+    }
+
+    public BatchStats run(List<BatchInput> inputs) throws InterruptedException {
+        if (options.getCommand() == BatchCommand.CONVERT) {
+            checkOutputClashes(inputs);
+        }
+        ExecutorService executor = newExecutorService(options.getThreads());
+        stats.start();
+        try {
+            for (BatchInput input : inputs) {
+                executor.submit(() -> process(input));
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            executor.shutdownNow();
+            stats.stop();
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,70 @@
+package com.grelobites.oric.dsk.cli;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BatchStats {
+    private static final double MEGABYTE = 1024.0 * 1024.0;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private long startTime;
+    private long endTime;
+
+    public void start() {
+        startTime = System.nanoTime();
+    }
+
+    public void stop() {
+        endTime = System.nanoTime();
+    }
+
+    public void addProcessed(long read, long written) {
+        processed.incrementAndGet();
+        bytesRead.addAndGet(read);
+        bytesWritten.addAndGet(written);
+    }
+
+    public void addFailed() {
+        failed.incrementAndGet();
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    public double getElapsedSeconds() {
+        return (endTime - startTime) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public double getDisksPerSecond() {
+        double elapsed = getElapsedSeconds();
+        return elapsed > 0 ? processed.get() / elapsed : 0;
+    }
+
+    public double getMegabytesPerSecond() {
+        double elapsed = getElapsedSeconds();
+        return elapsed > 0 ? bytesRead.get() / MEGABYTE / elapsed : 0;
+    }
+
+    public String summary() {
+        return String.format("%d disks processed, %d failed in %.2f s. %.1f disks/s, %.2f MB/s read, %.2f MB written",
+                processed.get(), failed.get(), getElapsedSeconds(),
+                getDisksPerSecond(), getMegabytesPerSecond(),
+                bytesWritten.get() / MEGABYTE);
+    }
+}
@@ -0,0 +1,467 @@
+package com.grelobites.oric.dsk.cli;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskEncodingInfo;
+import com.grelobites.oric.dsk.model.DiskFormat;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.SimpleDiskGeometry;
+import com.grelobites.oric.dsk.model.TrackGeometry;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import com.grelobites.oric.dsk.sedoric.NearDirectoryAllocationStrategy;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import com.grelobites.oric.dsk.util.FileType;
+import com.grelobites.oric.dsk.util.MfmDskWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32;
+
+/*
+ * Writes a reproducible corpus of synthetic images, each one derived from the seed and
+ * its index only, along with a manifest of the files they hold. Images cover 40 and 80
+ * tracks, one or two sides and 15 to 19 sectors per track, as SEDORIC MFM, SEDORIC
+ * plain (one side) and Oric DOS MFM disks
+ */
+public class CorpusGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CorpusGenerator.class);
+    private static final int[] TRACK_COUNTS = {40, 80};
+    private static final int MIN_SECTORS = 15;
+    private static final int MAX_SECTORS = 19;
+    //DiskEncodingInfo gaps include the sync zeroes, written apart by MfmDskWriter
+    private static final int SYNC_ZEROES = 12;
+    private static final String[] EXTENSIONS = {"BIN", "COM", "BAS", "DAT"};
+    private static final int LOAD_ADDRESS = 0x0501;
+    private static final int MAX_FILE_SIZE = 0xB000;
+    //Over 121 sectors, SEDORIC descriptors take more than one sector
+    private static final int MULTI_DESCRIPTOR_SIZE = 122 * Constants.SECTOR_SIZE;
+    private static final int SEDORIC_RESERVED_SECTORS = 110;
+    private static final int SEDORIC_DIRECTORY_ENTRIES = 15;
+
+    private static final int ORICDOS_DIRECTORY_OFFSET = 3;
+    private static final int ORICDOS_DIRECTORY_ENTRY_SIZE = 16;
+    private static final int ORICDOS_DIRECTORY_ENTRIES = 15;
+    private static final int ORICDOS_HEADER_OFFSET = 11;
+    private static final int ORICDOS_DATA_OFFSET = 3;
+    private static final int ORICDOS_FORMAT_OFFSET = 0x40;
+
+    enum Profile {
+        //A few small files
+        SPARSE,
+        //Small files up to the disk capacity, with long directory chains
+        FULL,
+        //Files needing multi-sector descriptors
+        LARGE,
+        //Near directory allocation with interleave and skew, so directory, descriptor and
+        //data sectors get mixed on the tracks around the directory
+        FRAGMENTED;
+
+        String profileName() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final BatchOptions options;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final BatchStats stats = new BatchStats();
+
+    public CorpusGenerator(BatchOptions options, PrintStream out, PrintStream err) {
+        this.options = options;
+        this.out = out;
+        this.err = err;
+    }
+
+    static DiskGeometry geometry(int tracks, int sides, int sectors) {
+        DiskEncodingInfo encoding = DiskEncodingInfo.forSectorCount(sectors);
+        return SimpleDiskGeometry.newBuilder()
+                .withTrackCount(tracks)
+                .withSideCount(sides)
+                .withTrackGeometry(TrackGeometry.newBuilder()
+                        .withSectorSize(Constants.SECTOR_SIZE)
+                        .withSectorCount(sectors)
+                        .withTrackLead(encoding.gap1())
+                        .withGap2(encoding.gap2() - SYNC_ZEROES)
+                        .withGap3(encoding.gap3() - SYNC_ZEROES)
+                        .build())
+                .build();
+    }
+
+    private static int sectorsFor(int size) {
+        return (size + Constants.SECTOR_SIZE - 1) / Constants.SECTOR_SIZE;
+    }
+
+    private static long crc32(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return crc.getValue();
+    }
+
+    private static byte[] randomData(Random random, int size) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        //Some runs, as found in real programs and screens
+        if (size > 16) {
+            int from = random.nextInt(size / 2);
+            for (int i = from; i < from + random.nextInt(size / 4); i++) {
+                data[i] = 0;
+            }
+        }
+        return data;
+    }
+
+    private static String fileName(Random random, int index, int length) {
+        return String.format("%c%0" + (length - 1) + "d", (char) ('A' + random.nextInt(26)), index);
+    }
+
+    //File sizes for the profile, fitting in the given number of sectors
+    private static List<Integer> fileSizes(Random random, Profile profile, int budget) {
+        List<Integer> sizes = new ArrayList<>();
+        int used = 0;
+        int limit = profile == Profile.SPARSE ? 1 + random.nextInt(8) : Integer.MAX_VALUE;
+        while (sizes.size() < limit) {
+            int size;
+            switch (profile) {
+                case FULL:
+                    size = 1 + random.nextInt(1024);
+                    break;
+                case LARGE:
+                    size = MULTI_DESCRIPTOR_SIZE + random.nextInt(MAX_FILE_SIZE - MULTI_DESCRIPTOR_SIZE);
+                    break;
+                case FRAGMENTED:
+                    size = Constants.SECTOR_SIZE + random.nextInt(16 * 1024);
+                    break;
+                default:
+                    size = 1 + random.nextInt(4096);
+            }
+            int sectors = sectorsFor(size);
+            //Descriptors and directory sectors
+            int cost = sectors + 1 + sectors / 100 + (sizes.size() % SEDORIC_DIRECTORY_ENTRIES == 0 ? 1 : 0);
+            if (used + cost > budget) {
+                if (sizes.isEmpty() && budget > 3) {
+                    sizes.add((budget - 3) * Constants.SECTOR_SIZE);
+                }
+                break;
+            }
+            sizes.add(size);
+            used += cost;
+        }
+        return sizes;
+    }
+
+    private static SedoricArchive randomArchive(Random random, int index, int size) {
+        String name = fileName(random, index, Constants.SEDORIC_FILENAME_MAXLENGTH - 3);
+        SedoricArchive archive = new SedoricArchive(name, EXTENSIONS[random.nextInt(EXTENSIONS.length)],
+                randomData(random, size));
+        archive.setLoadAddress(LOAD_ADDRESS);
+        archive.setBlockAttribute(random.nextInt(4) != 0);
+        if (archive.isBlockAttribute() && random.nextBoolean()) {
+            archive.setExecutableAttribute(true);
+            archive.setExecAddress(LOAD_ADDRESS);
+        }
+        return archive;
+    }
+
+    private static CorpusManifest.Entry.Builder entryBuilder(String image, DiskFormat format, FileType encoding,
+                                                             DiskGeometry geometry, Profile profile) {
+        return CorpusManifest.Entry.newBuilder()
+                .withImage(image)
+                .withFormat(format.name())
+                .withEncoding(encoding.name())
+                .withTracks(geometry.getTrackCount())
+                .withSides(geometry.getSideCount())
+                .withSectors(geometry.getTrackGeometry(0).getSectorCount())
+                .withProfile(profile.profileName());
+    }
+
+    private static List<CorpusManifest.Entry> writeSedoric(Path target, String image, Random random,
+                                                           DiskGeometry geometry, Profile profile,
+                                                           boolean plain) throws IOException {
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        fileSystem.setDiskGeometry(geometry);
+        fileSystem.setName(image.length() > 20 ? image.substring(0, 20) : image);
+        int sectors = geometry.getTrackGeometry(0).getSectorCount();
+        if (profile == Profile.FRAGMENTED) {
+            fileSystem.setAllocationStrategy(new NearDirectoryAllocationStrategy(fileSystem.getLoadTimeModel()));
+            fileSystem.setInterleave(1 + random.nextInt(sectors - 1));
+            fileSystem.setSkew(random.nextInt(sectors));
+        }
+        int budget = (geometry.getTrackCount() * geometry.getSideCount() * sectors - SEDORIC_RESERVED_SECTORS)
+                * 9 / 10;
+        List<SedoricArchive> archives = new ArrayList<>();
+        for (int size : fileSizes(random, profile, profile == Profile.FRAGMENTED ? budget * 2 / 3 : budget)) {
+            archives.add(randomArchive(random, archives.size(), size));
+        }
+        fileSystem.addArchives(archives);
+
+        if (plain) {
+            writePlain(target, fileSystem.toDisk());
+        } else {
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                fileSystem.exportFileSystem(channel);
+            }
+        }
+
+        List<CorpusManifest.Entry> entries = new ArrayList<>();
+        for (SedoricArchive archive : fileSystem.getArchiveList()) {
+            entries.add(entryBuilder(image, DiskFormat.SEDORIC, plain ? FileType.PLAINDSK : FileType.MFMDSK,
+                    geometry, profile)
+                    .withName(archive.getName())
+                    .withExtension(archive.getExtension())
+                    .withSize(archive.getData().length)
+                    .withLoadAddress(archive.getLoadAddress())
+                    .withExecAddress(archive.getExecAddress())
+                    .withBlockAttribute(archive.isBlockAttribute())
+                    .withExecutableAttribute(archive.isExecutableAttribute())
+                    .withCrc32(crc32(archive.getData()))
+                    .build());
+        }
+        return entries;
+    }
+
+    //Plain images hold the sectors of the first side, one track after another
+    private static void writePlain(Path target, Disk disk) throws IOException {
+        DiskGeometry geometry = disk.getGeometry();
+        int sectors = geometry.getTrackGeometry(0).getSectorCount();
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(target))) {
+            DskHeader.newBuilder()
+                    .withSignature(Constants.PLAIN_DSK_SIGNATURE)
+                    .withSides(1)
+                    .withTracks(geometry.getTrackCount())
+                    .withSectors(sectors)
+                    .build().dump(os);
+            for (int track = 0; track < geometry.getTrackCount(); track++) {
+                for (int sector = 1; sector <= sectors; sector++) {
+                    os.write(disk.copySector(track, sector));
+                }
+            }
+        }
+    }
+
+    /*
+     * Minimal Oric DOS layout: system sector and first directory sector on track 0,
+     * then file and further directory sectors in order from track 1. Every file starts
+     * with a header sector, and the last sector of its chain points to sector 0
+     */
+    private static class OricDosWriter {
+        private final Disk disk;
+        private final DiskGeometry geometry;
+        private final int sectorCount;
+        private int nextTrack = 1;
+        private int nextSector = 1;
+        private ByteBuffer directory;
+        private int directoryOffset;
+
+        OricDosWriter(DiskGeometry geometry, String name) {
+            this.disk = Disk.newFlatDisk(geometry);
+            this.geometry = geometry;
+            this.sectorCount = geometry.getTrackGeometry(0).getSectorCount();
+            ByteBuffer system = disk.getSectorBuffer(0, 1);
+            ((Buffer) system).position(18);
+            system.put((byte) 2).put((byte) 0);
+            byte[] nameBytes = String.format("%-21s", name).substring(0, 21).getBytes();
+            ((Buffer) system).position(24);
+            system.put(nameBytes);
+            ((Buffer) system).position(ORICDOS_FORMAT_OFFSET);
+            system.put(DiskFormat.ORICDOS.name.getBytes());
+            directory = disk.getSectorBuffer(0, 2);
+            directoryOffset = ORICDOS_DIRECTORY_OFFSET;
+        }
+
+        //Linear track and sector, packed as in SectorList
+        private int allocate() {
+            if (nextTrack >= geometry.getTrackCount() * geometry.getSideCount()) {
+                throw new IllegalStateException("Disk full");
+            }
+            int allocated = (nextTrack << 8) | nextSector;
+            if (++nextSector > sectorCount) {
+                nextSector = 1;
+                nextTrack++;
+            }
+            return allocated;
+        }
+
+        private void putPointer(ByteBuffer buffer, int index, int packed) {
+            buffer.put(index, (byte) (packed == 0 ? 0 : geometry.encodeTrack(packed >>> 8)));
+            buffer.put(index + 1, (byte) (packed & 0xff));
+        }
+
+        private ByteBuffer sector(int packed) {
+            return disk.getSectorBuffer(packed >>> 8, packed & 0xff);
+        }
+
+        void write(String name, String extension, byte[] data, int loadAddress) {
+            if (directoryOffset + ORICDOS_DIRECTORY_ENTRY_SIZE > Constants.SECTOR_SIZE) {
+                int next = allocate();
+                putPointer(directory, 0, next);
+                directory = sector(next);
+                directoryOffset = ORICDOS_DIRECTORY_OFFSET;
+            }
+            List<Integer> chain = new ArrayList<>();
+            int first = allocate();
+            chain.add(first);
+            ByteBuffer header = sector(first).order(ByteOrder.LITTLE_ENDIAN);
+            int count = Math.min(data.length, Constants.SECTOR_SIZE - ORICDOS_HEADER_OFFSET);
+            header.put(2, (byte) 0xff);
+            header.putShort(4, (short) loadAddress);
+            header.putShort(6, (short) (loadAddress + data.length - 1));
+            header.putShort(8, (short) loadAddress);
+            header.put(10, (byte) count);
+            ((Buffer) header).position(ORICDOS_HEADER_OFFSET);
+            header.put(data, 0, count);
+            int position = count;
+            ByteBuffer previous = header;
+            while (position < data.length) {
+                int current = allocate();
+                chain.add(current);
+                putPointer(previous, 0, current);
+                previous = sector(current);
+                count = Math.min(data.length - position, Constants.SECTOR_SIZE - ORICDOS_DATA_OFFSET);
+                previous.put(2, (byte) count);
+                ((Buffer) previous).position(ORICDOS_DATA_OFFSET);
+                previous.put(data, position, count);
+                position += count;
+            }
+
+            ByteBuffer entry = directory.duplicate();
+            ((Buffer) entry).position(directoryOffset);
+            entry.put(String.format("%-6s", name).getBytes(), 0, 6);
+            entry.put(String.format("%-3s", extension).getBytes(), 0, 3);
+            entry.putShort((short) chain.size());
+            int last = chain.get(chain.size() - 1);
+            entry.put((byte) (first & 0xff)).put((byte) geometry.encodeTrack(first >>> 8));
+            entry.put((byte) (last & 0xff)).put((byte) geometry.encodeTrack(last >>> 8));
+            entry.put((byte) 0);
+            directoryOffset += ORICDOS_DIRECTORY_ENTRY_SIZE;
+        }
+
+        int freeSectors() {
+            return (geometry.getTrackCount() * geometry.getSideCount() - nextTrack) * sectorCount
+                    - nextSector + 1;
+        }
+    }
+
+    private static List<CorpusManifest.Entry> writeOricDos(Path target, String image, Random random,
+                                                           DiskGeometry geometry, Profile profile)
+            throws IOException {
+        OricDosWriter writer = new OricDosWriter(geometry, image);
+        List<CorpusManifest.Entry> entries = new ArrayList<>();
+        int limit = profile == Profile.SPARSE ? 1 + random.nextInt(8) : Integer.MAX_VALUE;
+        while (entries.size() < limit) {
+            int size = 1 + random.nextInt(profile == Profile.SPARSE ? 4096 : 1024);
+            //Header and data sectors, plus a possible directory sector
+            if (writer.freeSectors() < sectorsFor(size) + 2) {
+                break;
+            }
+            String name = fileName(random, entries.size(), 6);
+            String extension = EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+            byte[] data = randomData(random, size);
+            writer.write(name, extension, data, LOAD_ADDRESS);
+            entries.add(entryBuilder(image, DiskFormat.ORICDOS, FileType.MFMDSK, geometry, profile)
+                    .withName(name)
+                    .withExtension(extension)
+                    .withSize(size)
+                    .withLoadAddress(LOAD_ADDRESS)
+                    .withExecAddress(LOAD_ADDRESS)
+                    .withCrc32(crc32(data))
+                    .build());
+        }
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(target))) {
+            new MfmDskWriter().write(writer.disk, os);
+        }
+        return entries;
+    }
+
+    //Same seed and index, same image. Returns the written image, adding its files to entries
+    Path generateImage(Path directory, int index, List<CorpusManifest.Entry> entries) throws IOException {
+        Random random = new Random(options.getSeed() ^ (index * 0x9E3779B97F4A7C15L));
+        int variant = random.nextInt(10);
+        DiskFormat format = variant == 0 ? DiskFormat.ORICDOS : DiskFormat.SEDORIC;
+        boolean plain = variant == 1;
+        int tracks = TRACK_COUNTS[random.nextInt(TRACK_COUNTS.length)];
+        int sides = plain ? 1 : 1 + random.nextInt(2);
+        int sectors = MIN_SECTORS + random.nextInt(MAX_SECTORS - MIN_SECTORS + 1);
+        Profile profile = format == DiskFormat.ORICDOS ?
+                (random.nextBoolean() ? Profile.SPARSE : Profile.FULL) :
+                Profile.values()[random.nextInt(Profile.values().length)];
+        DiskGeometry geometry = geometry(tracks, sides, sectors);
+
+        String image = String.format("%05d-%s-%s-%dt%ds%d-%s.dsk", index, format.name().toLowerCase(),
+                plain ? "plain" : "mfm", tracks, sides, sectors, profile.profileName());
+        Path target = directory.resolve(image);
+        try {
+            entries.addAll(format == DiskFormat.ORICDOS ?
+                    writeOricDos(target, image, random, geometry, profile) :
+                    writeSedoric(target, image, random, geometry, profile, plain));
+            return target;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    private void generate(Path directory, int index, AtomicReferenceArray<List<CorpusManifest.Entry>> results) {
+        try {
+            List<CorpusManifest.Entry> entries = new ArrayList<>();
+            Path image = generateImage(directory, index, entries);
+            results.set(index, entries);
+            stats.addProcessed(0, Files.size(image));
+            synchronized (out) {
+                out.println(image + ": " + entries.size() + " files");
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Generating image " + index, e);
+            stats.addFailed();
+            synchronized (err) {
+                err.println("Image " + index + ": " + e);
+            }
+        }
+    }
+
+    public BatchStats run() throws IOException, InterruptedException {
+        Path directory = options.getOutputDirectory();
+        Files.createDirectories(directory);
+        int count = options.getCount();
+        AtomicReferenceArray<List<CorpusManifest.Entry>> results = new AtomicReferenceArray<>(count);
+        ExecutorService executor = BatchRunner.newExecutorService(options.getThreads());
+        stats.start();
+        try {
+            for (int i = 0; i < count; i++) {
+                final int index = i;
+                executor.submit(() -> generate(directory, index, results));
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            executor.shutdownNow();
+            stats.stop();
+        }
+        CorpusManifest manifest = new CorpusManifest();
+        for (int i = 0; i < count; i++) {
+            if (results.get(i) != null) {
+                manifest.addAll(results.get(i));
+            }
+        }
+        manifest.write(directory.resolve(CorpusManifest.FILE_NAME));
+        return stats;
+    }
+}
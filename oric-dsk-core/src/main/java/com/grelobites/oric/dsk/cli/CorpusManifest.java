@@ -0,0 +1,285 @@
+package com.grelobites.oric.dsk.cli;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Expected contents of a generated corpus, one tab separated line per file.
+ * Images are given relative to the manifest directory
+ */
+public class CorpusManifest {
+    public static final String FILE_NAME = "manifest.tsv";
+    private static final String COMMENT = "#";
+    private static final String SEPARATOR = "\t";
+    private static final String HEADER = String.join(SEPARATOR, "image", "format", "encoding",
+            "tracks", "sides", "sectors", "profile", "name", "extension", "size", "load", "exec",
+            "block", "executable", "crc32");
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    public static class Entry {
+        private String image;
+        private String format;
+        private String encoding;
+        private int tracks;
+        private int sides;
+        private int sectors;
+        private String profile;
+        private String name;
+        private String extension;
+        private int size;
+        private int loadAddress;
+        private int execAddress;
+        private boolean blockAttribute;
+        private boolean executableAttribute;
+        private long crc32;
+
+        public static Builder newBuilder() {
+            return new Builder();
+        }
+
+        public static class Builder {
+            private Entry entry = new Entry();
+
+            public Builder withImage(String image) {
+                entry.image = image;
+                return this;
+            }
+
+            public Builder withFormat(String format) {
+                entry.format = format;
+                return this;
+            }
+
+            public Builder withEncoding(String encoding) {
+                entry.encoding = encoding;
+                return this;
+            }
+
+            public Builder withTracks(int tracks) {
+                entry.tracks = tracks;
+                return this;
+            }
+
+            public Builder withSides(int sides) {
+                entry.sides = sides;
+                return this;
+            }
+
+            public Builder withSectors(int sectors) {
+                entry.sectors = sectors;
+                return this;
+            }
+
+            public Builder withProfile(String profile) {
+                entry.profile = profile;
+                return this;
+            }
+
+            public Builder withName(String name) {
+                entry.name = name;
+                return this;
+            }
+
+            public Builder withExtension(String extension) {
+                entry.extension = extension;
+                return this;
+            }
+
+            public Builder withSize(int size) {
+                entry.size = size;
+                return this;
+            }
+
+            public Builder withLoadAddress(int loadAddress) {
+                entry.loadAddress = loadAddress;
+                return this;
+            }
+
+            public Builder withExecAddress(int execAddress) {
+                entry.execAddress = execAddress;
+                return this;
+            }
+
+            public Builder withBlockAttribute(boolean blockAttribute) {
+                entry.blockAttribute = blockAttribute;
+                return this;
+            }
+
+            public Builder withExecutableAttribute(boolean executableAttribute) {
+                entry.executableAttribute = executableAttribute;
+                return this;
+            }
+
+            public Builder withCrc32(long crc32) {
+                entry.crc32 = crc32;
+                return this;
+            }
+
+            public Entry build() {
+                return entry;
+            }
+        }
+
+        public String getImage() {
+            return image;
+        }
+
+        public String getFormat() {
+            return format;
+        }
+
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public int getTracks() {
+            return tracks;
+        }
+
+        public int getSides() {
+            return sides;
+        }
+
+        public int getSectors() {
+            return sectors;
+        }
+
+        public String getProfile() {
+            return profile;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        //Bytes written. Readers may report a longer size (Sedoric counts the end address)
+        public int getSize() {
+            return size;
+        }
+
+        public int getLoadAddress() {
+            return loadAddress;
+        }
+
+        public int getExecAddress() {
+            return execAddress;
+        }
+
+        public boolean isBlockAttribute() {
+            return blockAttribute;
+        }
+
+        public boolean isExecutableAttribute() {
+            return executableAttribute;
+        }
+
+        //Of the first size bytes of the file
+        public long getCrc32() {
+            return crc32;
+        }
+
+        String toLine() {
+            return String.join(SEPARATOR, image, format, encoding,
+                    Integer.toString(tracks), Integer.toString(sides), Integer.toString(sectors),
+                    profile, name, extension, Integer.toString(size),
+                    String.format("%04x", loadAddress), String.format("%04x", execAddress),
+                    Boolean.toString(blockAttribute), Boolean.toString(executableAttribute),
+                    String.format("%08x", crc32));
+        }
+
+        static Entry fromLine(String line) {
+            String[] fields = line.split(SEPARATOR, -1);
+            if (fields.length != 15) {
+                throw new IllegalArgumentException("Invalid manifest line: " + line);
+            }
+            return newBuilder()
+                    .withImage(fields[0])
+                    .withFormat(fields[1])
+                    .withEncoding(fields[2])
+                    .withTracks(Integer.parseInt(fields[3]))
+                    .withSides(Integer.parseInt(fields[4]))
+                    .withSectors(Integer.parseInt(fields[5]))
+                    .withProfile(fields[6])
+                    .withName(fields[7])
+                    .withExtension(fields[8])
+                    .withSize(Integer.parseInt(fields[9]))
+                    .withLoadAddress(Integer.parseInt(fields[10], 16))
+                    .withExecAddress(Integer.parseInt(fields[11], 16))
+                    .withBlockAttribute(Boolean.parseBoolean(fields[12]))
+                    .withExecutableAttribute(Boolean.parseBoolean(fields[13]))
+                    .withCrc32(Long.parseLong(fields[14], 16))
+                    .build();
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "image='" + image + '\'' +
+                    ", format=" + format +
+                    ", encoding=" + encoding +
+                    ", tracks=" + tracks +
+                    ", sides=" + sides +
+                    ", sectors=" + sectors +
+                    ", profile=" + profile +
+                    ", name='" + name + '\'' +
+                    ", extension='" + extension + '\'' +
+                    ", size=" + size +
+                    ", crc32=" + String.format("%08x", crc32) +
+                    '}';
+        }
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public void addAll(List<Entry> entries) {
+        this.entries.addAll(entries);
+    }
+
+    //Entries of the given image, in directory order
+    public List<Entry> getEntries(String image) {
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.getImage().equals(image)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    public void write(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(COMMENT + HEADER);
+            writer.newLine();
+            for (Entry entry : entries) {
+                writer.write(entry.toLine());
+                writer.newLine();
+            }
+        }
+    }
+
+    public static CorpusManifest read(Path path) throws IOException {
+        CorpusManifest manifest = new CorpusManifest();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && !line.startsWith(COMMENT)) {
+                    manifest.entries.add(Entry.fromLine(line));
+                }
+            }
+        }
+        return manifest;
+    }
+}
@@ -0,0 +1,207 @@
+package com.grelobites.oric.dsk.cli;
+
+import com.grelobites.oric.dsk.metrics.DskMetrics;
+import com.grelobites.oric.dsk.sedoric.AllocationStrategy;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Headless command line front end to inspect and convert DSK images in bulk.
+ * It never starts the JavaFX toolkit
+ */
+public class DskBatch {
+    private static final String LOG_LEVEL_PROPERTY = "org.slf4j.simpleLogger.defaultLogLevel";
+    private static final int EXIT_OK = 0;
+    private static final int EXIT_FAILURES = 1;
+    private static final int EXIT_USAGE = 2;
+
+    static {
+        //Keep the per sector traces out of batch runs unless explicitly asked for
+        if (System.getProperty(LOG_LEVEL_PROPERTY) == null) {
+            System.setProperty(LOG_LEVEL_PROPERTY, "error");
+        }
+    }
+
+    private static void usage(PrintStream stream) {
+        stream.println("Usage: DskBatch <list|convert|verify> [options] <file|directory|glob>...");
+        stream.println("       DskBatch generate -o <dir> [-n <count>] [--seed <n>] [-j <n>]");
+        stream.println("  list                  Show format, geometry and catalog of each image");
+        stream.println("  convert               Rewrite each image as a SEDORIC MFM disk");
+        stream.println("  verify                Check the ID and data field CRCs of each MFM image");
+        stream.println("  generate              Write a seeded synthetic corpus and its " + CorpusManifest.FILE_NAME);
+        stream.println("Options:");
+        stream.println("  -j, --threads <n>     Number of worker threads (defaults to available processors)");
+        stream.println("  -o, --output <dir>    Output directory for converted images");
+        stream.println("  -p, --parallel-tracks <n>");
+        stream.println("                        Decode MFM images with at least n tracks in parallel");
+        stream.println("  -c, --verify-crc      Fail on MFM images with CRC errors when listing or converting");
+        stream.println("  -l, --layout <first-free|near-directory|fastest>");
+        stream.println("                        Sector allocation of converted images (defaults to first-free)");
+        stream.println("  -r, --layout-report   Show the modeled load time of each converted file");
+        stream.println("  -i, --interleave <n|auto>");
+        stream.println("                        Sector interleave of converted images, auto picks the fastest");
+        stream.println("  -s, --skew <n>        Sector skew between cylinders of converted images");
+        stream.println("  -n, --count <n>       Number of images to generate (defaults to " +
+                BatchOptions.DEFAULT_COUNT + ")");
+        stream.println("      --seed <n>        Seed of the generated corpus (defaults to 0)");
+        stream.println("Directories are scanned recursively for .dsk files");
+    }
+
+    private static String argumentValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    static BatchOptions parseArguments(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("No command given");
+        }
+        BatchCommand command = BatchCommand.byName(args[0]);
+        if (command == null) {
+            throw new IllegalArgumentException("Unknown command " + args[0]);
+        }
+        BatchOptions.Builder builder = BatchOptions.newBuilder().withCommand(command);
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "-j":
+                case "--threads":
+                    int threads = Integer.parseInt(argumentValue(args, ++i));
+                    if (threads < 1) {
+                        throw new IllegalArgumentException("Invalid number of threads " + threads);
+                    }
+                    builder.withThreads(threads);
+                    break;
+                case "-o":
+                case "--output":
+                    builder.withOutputDirectory(Paths.get(argumentValue(args, ++i)));
+                    break;
+                case "-p":
+                case "--parallel-tracks":
+                    int tracks = Integer.parseInt(argumentValue(args, ++i));
+                    if (tracks < 1) {
+                        throw new IllegalArgumentException("Invalid parallel track threshold " + tracks);
+                    }
+                    builder.withParallelTrackThreshold(tracks);
+                    break;
+                case "-c":
+                case "--verify-crc":
+                    builder.withVerifyCrc(true);
+                    break;
+                case "-l":
+                case "--layout":
+                    String layout = argumentValue(args, ++i);
+                    if (!BatchRunner.FASTEST_LAYOUT.equals(layout) &&
+                            !AllocationStrategy.NAMES.contains(layout)) {
+                        throw new IllegalArgumentException("Unknown layout " + layout + ". Valid layouts are " +
+                                BatchRunner.FASTEST_LAYOUT + ", " + String.join(", ", AllocationStrategy.NAMES));
+                    }
+                    builder.withLayout(layout);
+                    break;
+                case "-r":
+                case "--layout-report":
+                    builder.withLayoutReport(true);
+                    break;
+                case "-i":
+                case "--interleave":
+                    String interleave = argumentValue(args, ++i);
+                    if (!BatchRunner.AUTO_INTERLEAVE.equals(interleave) && Integer.parseInt(interleave) < 1) {
+                        throw new IllegalArgumentException("Invalid interleave " + interleave);
+                    }
+                    builder.withInterleave(interleave);
+                    break;
+                case "-s":
+                case "--skew":
+                    int skew = Integer.parseInt(argumentValue(args, ++i));
+                    if (skew < 0) {
+                        throw new IllegalArgumentException("Invalid skew " + skew);
+                    }
+                    builder.withSkew(skew);
+                    break;
+                case "-n":
+                case "--count":
+                    int count = Integer.parseInt(argumentValue(args, ++i));
+                    if (count < 1) {
+                        throw new IllegalArgumentException("Invalid image count " + count);
+                    }
+                    builder.withCount(count);
+                    break;
+                case "--seed":
+                    builder.withSeed(Long.parseLong(argumentValue(args, ++i)));
+                    break;
+                default:
+                    builder.withInput(args[i]);
+            }
+        }
+        BatchOptions options = builder.build();
+        if (command == BatchCommand.GENERATE) {
+            if (options.getOutputDirectory() == null) {
+                throw new IllegalArgumentException("An output directory is required to generate");
+            }
+            return options;
+        }
+        if (options.getInputs().isEmpty()) {
+            throw new IllegalArgumentException("No input files given");
+        }
+        if (command == BatchCommand.CONVERT && options.getOutputDirectory() == null) {
+            throw new IllegalArgumentException("An output directory is required to convert");
+        }
+        return options;
+    }
+
+    public static int run(String[] args, PrintStream out, PrintStream err) throws InterruptedException {
+        BatchOptions options;
+        try {
+            options = parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            usage(err);
+            return EXIT_USAGE;
+        }
+        if (options.getCommand() == BatchCommand.GENERATE) {
+            return generate(options, out, err);
+        }
+        InputCollector collector = new InputCollector();
+        try {
+            for (String input : options.getInputs()) {
+                collector.addArgument(input);
+            }
+        } catch (IOException ioe) {
+            err.println(ioe.getMessage());
+            return EXIT_USAGE;
+        }
+        List<BatchInput> inputs = collector.getInputs();
+        BatchStats stats;
+        try {
+            stats = new BatchRunner(options, out, err).run(inputs);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        }
+        err.println(stats.summary());
+        return stats.getFailed() > 0 ? EXIT_FAILURES : EXIT_OK;
+    }
+
+    private static int generate(BatchOptions options, PrintStream out, PrintStream err)
+            throws InterruptedException {
+        BatchStats stats;
+        try {
+            stats = new CorpusGenerator(options, out, err).run();
+        } catch (IOException ioe) {
+            err.println(ioe.getMessage());
+            return EXIT_FAILURES;
+        }
+        err.println(stats.summary());
+        return stats.getFailed() > 0 ? EXIT_FAILURES : EXIT_OK;
+    }
+
+    public static void main(String[] args) throws Exception {
+        //Registers the metrics MBean before the run starts, when enabled
+        DskMetrics.get();
+        System.exit(run(args, System.out, System.err));
+    }
+}
@@ -0,0 +1,99 @@
+package com.grelobites.oric.dsk.cli;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class InputCollector {
+    private static final String DSK_EXTENSION = ".dsk";
+    private static final String GLOB_CHARACTERS = "*?[{";
+
+    private final Map<Path, BatchInput> inputs = new LinkedHashMap<>();
+
+    private static boolean isGlob(String argument) {
+        for (char c : GLOB_CHARACTERS.toCharArray()) {
+            if (argument.indexOf(c) > -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDskFile(Path path) {
+        return Files.isRegularFile(path) &&
+                path.getFileName().toString().toLowerCase().endsWith(DSK_EXTENSION);
+    }
+
+    //Position of the separator ending the longest leading path of the glob with no wildcards
+    private static int globBaseSeparator(String glob) {
+        int wildcard = glob.length();
+        for (char c : GLOB_CHARACTERS.toCharArray()) {
+            int index = glob.indexOf(c);
+            if (index > -1) {
+                wildcard = Math.min(wildcard, index);
+            }
+        }
+        return glob.lastIndexOf('/', wildcard);
+    }
+
+    private void add(Path path, Path relativePath) {
+        Path key = path.toAbsolutePath().normalize();
+        inputs.putIfAbsent(key, new BatchInput(path, relativePath));
+    }
+
+    private void addDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.filter(InputCollector::isDskFile)
+                    .sorted().collect(Collectors.toList())) {
+                add(path, directory.relativize(path));
+            }
+        }
+    }
+
+    private void addGlob(String glob) throws IOException {
+        String normalized = glob.replace('\\', '/');
+        int separator = globBaseSeparator(normalized);
+        Path base = separator < 0 ? Paths.get(".") :
+                Paths.get(separator == 0 ? "/" : normalized.substring(0, separator));
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" +
+                normalized.substring(separator + 1));
+        if (Files.isDirectory(base)) {
+            try (Stream<Path> files = Files.walk(base)) {
+                for (Path path : files.filter(Files::isRegularFile)
+                        .filter(p -> matcher.matches(base.relativize(p)))
+                        .sorted().collect(Collectors.toList())) {
+                    add(path, base.relativize(path));
+                }
+            }
+        }
+    }
+
+    public InputCollector addArgument(String argument) throws IOException {
+        if (isGlob(argument)) {
+            addGlob(argument);
+        } else {
+            Path path = Paths.get(argument);
+            if (Files.isDirectory(path)) {
+                addDirectory(path);
+            } else if (Files.isRegularFile(path)) {
+                add(path, path.getFileName());
+            } else {
+                throw new IOException("No such file or directory: " + argument);
+            }
+        }
+        return this;
+    }
+
+    public List<BatchInput> getInputs() {
+        return new ArrayList<>(inputs.values());
+    }
+}
@@ -0,0 +1,46 @@
+package com.grelobites.oric.dsk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("com.grelobites.oric.dsk.ArchiveRead")
+@Label("Archive Read")
+@Category(JfrSupport.CATEGORY)
+@Description("File located on a disk from its directory entry. Its data stays on the disk sectors")
+//One per file: only slow ones are recorded by default
+@Threshold("1 ms")
+public class ArchiveReadEvent extends Event {
+    @Label("Format")
+    String format;
+
+    @Label("File")
+    String fileName;
+
+    @Label("Sectors")
+    int sectors;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    public static ArchiveReadEvent start(String format) {
+        ArchiveReadEvent event = new ArchiveReadEvent();
+        event.format = format;
+        event.begin();
+        return event;
+    }
+
+    public void complete(String name, String extension, int sectors, long bytes) {
+        if (shouldCommit()) {
+            this.fileName = name + "." + extension;
+            this.sectors = sectors;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.grelobites.oric.dsk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.grelobites.oric.dsk.Catalog")
+@Label("Directory Read")
+@Category(JfrSupport.CATEGORY)
+@Description("Directory entries read from a disk, following the directory sector chain")
+public class CatalogEvent extends Event {
+    @Label("Format")
+    String format;
+
+    @Label("Files")
+    int files;
+
+    @Label("Directory Sectors")
+    int directorySectors;
+
+    public static CatalogEvent start(String format) {
+        CatalogEvent event = new CatalogEvent();
+        event.format = format;
+        event.begin();
+        return event;
+    }
+
+    public void complete(int files, int directorySectors) {
+        if (shouldCommit()) {
+            this.files = files;
+            this.directorySectors = directorySectors;
+            commit();
+        }
+    }
+}
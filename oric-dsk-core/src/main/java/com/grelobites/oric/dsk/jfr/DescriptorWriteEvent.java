@@ -0,0 +1,48 @@
+package com.grelobites.oric.dsk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.grelobites.oric.dsk.DescriptorWrite")
+@Label("Descriptor Write")
+@Category(JfrSupport.CATEGORY)
+@Description("Sectors of a SEDORIC file allocated and its descriptors written")
+@StackTrace(false)
+//One per file: only slow ones are recorded by default
+@Threshold("1 ms")
+public class DescriptorWriteEvent extends Event {
+    @Label("File")
+    String fileName;
+
+    @Label("Data Sectors")
+    int dataSectors;
+
+    @Label("Descriptor Sectors")
+    int descriptorSectors;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    public static DescriptorWriteEvent start() {
+        DescriptorWriteEvent event = new DescriptorWriteEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(String name, String extension, int dataSectors, int totalSectors, long bytes) {
+        if (shouldCommit()) {
+            this.fileName = name + "." + extension;
+            this.dataSectors = dataSectors;
+            this.descriptorSectors = totalSectors - dataSectors;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.grelobites.oric.dsk.jfr;
+
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.grelobites.oric.dsk.DskOpen")
+@Label("DSK Open")
+@Category(JfrSupport.CATEGORY)
+@Description("DSK image read from a file, stream or buffer. MFM tracks may still be decoded later, on first access")
+public class DskOpenEvent extends Event {
+    @Label("File")
+    String fileName;
+
+    @Label("Type")
+    String fileType;
+
+    @Label("Tracks")
+    int tracks;
+
+    @Label("Sides")
+    int sides;
+
+    @Label("Image Size")
+    @Description("Track data read after the header. Plain images only hold the first side")
+    @DataAmount
+    long bytes;
+
+    public static DskOpenEvent start(String fileName) {
+        DskOpenEvent event = new DskOpenEvent();
+        event.fileName = fileName;
+        event.begin();
+        return event;
+    }
+
+    public void complete(DskHeader header) {
+        if (shouldCommit()) {
+            fileType = header.getFileType().name();
+            tracks = header.getTracks();
+            sides = header.getSides();
+            bytes = header.getImageSize();
+            commit();
+        }
+    }
+}
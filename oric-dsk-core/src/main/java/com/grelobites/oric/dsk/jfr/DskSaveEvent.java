@@ -0,0 +1,43 @@
+package com.grelobites.oric.dsk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.grelobites.oric.dsk.DskSave")
+@Label("MFM Write")
+@Category(JfrSupport.CATEGORY)
+@Description("Disk encoded and written as an MFM image. Also recorded when cancelled or failed")
+public class DskSaveEvent extends Event {
+    @Label("Tracks")
+    int tracks;
+
+    @Label("Sides")
+    int sides;
+
+    @Label("Tracks Written")
+    int tracksWritten;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+
+    public static DskSaveEvent start(int tracks, int sides) {
+        DskSaveEvent event = new DskSaveEvent();
+        event.tracks = tracks;
+        event.sides = sides;
+        event.begin();
+        return event;
+    }
+
+    public void complete(int tracksWritten, long bytes) {
+        if (shouldCommit()) {
+            this.tracksWritten = tracksWritten;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
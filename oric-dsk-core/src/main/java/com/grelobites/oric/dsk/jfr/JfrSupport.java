@@ -0,0 +1,28 @@
+package com.grelobites.oric.dsk.jfr;
+
+/*
+ * Flight recorder events are only created when jdk.jfr is there (Java 11, 8u262 and newer),
+ * so the core keeps running on older Java 8 runtimes. Call sites check AVAILABLE before
+ * touching any event class. Setting oric.dsk.jfr=false leaves them out altogether
+ */
+public final class JfrSupport {
+    public static final String CATEGORY = "Oric DSK";
+    private static final String ENABLED_PROPERTY = "oric.dsk.jfr";
+
+    public static final boolean AVAILABLE = isAvailable();
+
+    private JfrSupport() {
+    }
+
+    private static boolean isAvailable() {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return false;
+        }
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.grelobites.oric.dsk.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.grelobites.oric.dsk.SectorAllocation")
+@Label("Sector Allocation")
+@Category(JfrSupport.CATEGORY)
+@Description("SEDORIC image laid out on a new bitmap: system area, directory, descriptors and data of every file")
+public class SectorAllocationEvent extends Event {
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Tracks")
+    int tracks;
+
+    @Label("Sides")
+    int sides;
+
+    @Label("Files")
+    int files;
+
+    @Label("Free Sectors")
+    @Description("Sectors left in the bitmap once all the files are placed")
+    int freeSectors;
+
+    public static SectorAllocationEvent start() {
+        SectorAllocationEvent event = new SectorAllocationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(String strategy, int tracks, int sides, int files, int freeSectors) {
+        if (shouldCommit()) {
+            this.strategy = strategy;
+            this.tracks = tracks;
+            this.sides = sides;
+            this.files = files;
+            this.freeSectors = freeSectors;
+            commit();
+        }
+    }
+}
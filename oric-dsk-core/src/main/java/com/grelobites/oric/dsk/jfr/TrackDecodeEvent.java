@@ -0,0 +1,50 @@
+package com.grelobites.oric.dsk.jfr;
+
+import com.grelobites.oric.dsk.model.TrackGeometry;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.grelobites.oric.dsk.TrackDecode")
+@Label("MFM Track Decode")
+@Category(JfrSupport.CATEGORY)
+@Description("MFM track parsed into its sectors")
+@StackTrace(false)
+//One per track: only slow ones are recorded by default
+@Threshold("1 ms")
+public class TrackDecodeEvent extends Event {
+    @Label("Track")
+    @Description("Linear track number, counting both sides")
+    int track;
+
+    @Label("Sectors")
+    int sectors;
+
+    @Label("CRC Errors")
+    int crcErrors;
+
+    @Label("Encoded Size")
+    @DataAmount
+    long bytes;
+
+    public static TrackDecodeEvent start() {
+        TrackDecodeEvent event = new TrackDecodeEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(int track, TrackGeometry geometry, int crcErrors, int bytes) {
+        if (shouldCommit()) {
+            this.track = track;
+            this.sectors = geometry.getSectorCount();
+            this.crcErrors = crcErrors;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
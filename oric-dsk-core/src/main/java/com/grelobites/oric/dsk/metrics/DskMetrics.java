@@ -0,0 +1,74 @@
+package com.grelobites.oric.dsk.metrics;
+
+/*
+ * Counters and latencies of disk operations, for long running batch or server use.
+ * The instance in use is chosen once: NONE, which does nothing, unless oric.dsk.metrics
+ * is true. Then they are recorded and published as an MBean (see JmxDskMetrics).
+ * Timed operations take the value returned by startTime() when they began.
+ */
+public interface DskMetrics {
+    String ENABLED_PROPERTY = "oric.dsk.metrics";
+
+    DskMetrics NONE = new DskMetrics() {
+        @Override
+        public long startTime() {
+            return 0;
+        }
+
+        @Override
+        public void diskOpened(long decodedBytes, long startTime) {
+        }
+
+        @Override
+        public void trackDecoded(long encodedBytes, long decodedBytes, int crcErrors, long startTime) {
+        }
+
+        @Override
+        public void catalogRead(long startTime) {
+        }
+
+        @Override
+        public void sectorsAllocated(long startTime) {
+        }
+
+        @Override
+        public void diskSaved(long bytes, long startTime) {
+        }
+
+        @Override
+        public void backgroundTaskQueued() {
+        }
+
+        @Override
+        public void backgroundTaskFinished() {
+        }
+
+        @Override
+        public void archiveListChanged(int size) {
+        }
+    };
+
+    static DskMetrics get() {
+        return MetricsHolder.INSTANCE;
+    }
+
+    long startTime();
+
+    //Decoded bytes are the sector bytes available once the image is read, as with plain images
+    void diskOpened(long decodedBytes, long startTime);
+
+    //Encoded bytes are the ones of the MFM track, decoded bytes the ones of its sectors
+    void trackDecoded(long encodedBytes, long decodedBytes, int crcErrors, long startTime);
+
+    void catalogRead(long startTime);
+
+    void sectorsAllocated(long startTime);
+
+    void diskSaved(long bytes, long startTime);
+
+    void backgroundTaskQueued();
+
+    void backgroundTaskFinished();
+
+    void archiveListChanged(int size);
+}
@@ -0,0 +1,31 @@
+package com.grelobites.oric.dsk.metrics;
+
+public interface DskMetricsMXBean {
+    long getDisksOpened();
+
+    long getDisksSaved();
+
+    long getBytesDecoded();
+
+    long getMfmBytesParsed();
+
+    long getBytesEncoded();
+
+    long getCrcFailures();
+
+    int getBackgroundQueueDepth();
+
+    int getArchiveListSize();
+
+    LatencySummary getOpenLatency();
+
+    LatencySummary getDecodeLatency();
+
+    LatencySummary getCatalogLatency();
+
+    LatencySummary getAllocateLatency();
+
+    LatencySummary getSaveLatency();
+
+    void reset();
+}
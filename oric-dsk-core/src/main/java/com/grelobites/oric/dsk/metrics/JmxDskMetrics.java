@@ -0,0 +1,161 @@
+package com.grelobites.oric.dsk.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Recording metrics, readable from any JMX client (jconsole, VisualVM...) under OBJECT_NAME.
+ * Gauges and counters are cumulative since start or the last reset. The archive list size
+ * is the one of the last file system changed. Decoded bytes are sector data, from plain
+ * images or from decoded MFM tracks, and parsed bytes the MFM track data read for them
+ */
+public class JmxDskMetrics implements DskMetrics, DskMetricsMXBean {
+    public static final String OBJECT_NAME = "com.grelobites.oric.dsk:type=DskMetrics";
+
+    private final LongAdder disksOpened = new LongAdder();
+    private final LongAdder disksSaved = new LongAdder();
+    private final LongAdder bytesDecoded = new LongAdder();
+    private final LongAdder mfmBytesParsed = new LongAdder();
+    private final LongAdder bytesEncoded = new LongAdder();
+    private final LongAdder crcFailures = new LongAdder();
+    private final AtomicInteger backgroundQueueDepth = new AtomicInteger();
+    private volatile int archiveListSize;
+    private final LatencyHistogram openLatency = new LatencyHistogram();
+    private final LatencyHistogram decodeLatency = new LatencyHistogram();
+    private final LatencyHistogram catalogLatency = new LatencyHistogram();
+    private final LatencyHistogram allocateLatency = new LatencyHistogram();
+    private final LatencyHistogram saveLatency = new LatencyHistogram();
+
+    @Override
+    public long startTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void diskOpened(long decodedBytes, long startTime) {
+        openLatency.record(System.nanoTime() - startTime);
+        disksOpened.increment();
+        bytesDecoded.add(decodedBytes);
+    }
+
+    @Override
+    public void trackDecoded(long encodedBytes, long decodedBytes, int crcErrors, long startTime) {
+        decodeLatency.record(System.nanoTime() - startTime);
+        mfmBytesParsed.add(encodedBytes);
+        bytesDecoded.add(decodedBytes);
+        crcFailures.add(crcErrors);
+    }
+
+    @Override
+    public void catalogRead(long startTime) {
+        catalogLatency.record(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public void sectorsAllocated(long startTime) {
+        allocateLatency.record(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public void diskSaved(long bytes, long startTime) {
+        saveLatency.record(System.nanoTime() - startTime);
+        disksSaved.increment();
+        bytesEncoded.add(bytes);
+    }
+
+    @Override
+    public void backgroundTaskQueued() {
+        backgroundQueueDepth.incrementAndGet();
+    }
+
+    @Override
+    public void backgroundTaskFinished() {
+        backgroundQueueDepth.decrementAndGet();
+    }
+
+    @Override
+    public void archiveListChanged(int size) {
+        archiveListSize = size;
+    }
+
+    @Override
+    public long getDisksOpened() {
+        return disksOpened.sum();
+    }
+
+    @Override
+    public long getDisksSaved() {
+        return disksSaved.sum();
+    }
+
+    @Override
+    public long getBytesDecoded() {
+        return bytesDecoded.sum();
+    }
+
+    @Override
+    public long getMfmBytesParsed() {
+        return mfmBytesParsed.sum();
+    }
+
+    @Override
+    public long getBytesEncoded() {
+        return bytesEncoded.sum();
+    }
+
+    @Override
+    public long getCrcFailures() {
+        return crcFailures.sum();
+    }
+
+    @Override
+    public int getBackgroundQueueDepth() {
+        return backgroundQueueDepth.get();
+    }
+
+    @Override
+    public int getArchiveListSize() {
+        return archiveListSize;
+    }
+
+    @Override
+    public LatencySummary getOpenLatency() {
+        return openLatency.summary();
+    }
+
+    @Override
+    public LatencySummary getDecodeLatency() {
+        return decodeLatency.summary();
+    }
+
+    @Override
+    public LatencySummary getCatalogLatency() {
+        return catalogLatency.summary();
+    }
+
+    @Override
+    public LatencySummary getAllocateLatency() {
+        return allocateLatency.summary();
+    }
+
+    @Override
+    public LatencySummary getSaveLatency() {
+        return saveLatency.summary();
+    }
+
+    //Counters and latencies only. Gauges keep tracking the current state
+    @Override
+    public void reset() {
+        disksOpened.reset();
+        disksSaved.reset();
+        bytesDecoded.reset();
+        mfmBytesParsed.reset();
+        bytesEncoded.reset();
+        crcFailures.reset();
+        openLatency.reset();
+        decodeLatency.reset();
+        catalogLatency.reset();
+        allocateLatency.reset();
+        saveLatency.reset();
+    }
+}
@@ -0,0 +1,78 @@
+package com.grelobites.oric.dsk.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Lock free latency histogram with power of two buckets in microseconds, from under
+ * 1 us up to about 36 minutes. Safe to record from any thread
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 32;
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    //Bucket i holds latencies under 2^i us
+    private static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    private static double bucketLimitMillis(int bucket) {
+        return (1L << bucket) / 1000.0;
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucket(value));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    private double percentile(long[] counts, long total, double fraction) {
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return bucketLimitMillis(i);
+            }
+        }
+        return bucketLimitMillis(counts.length - 1);
+    }
+
+    //Figures may be slightly off while being recorded
+    public LatencySummary summary() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return new LatencySummary(0, 0, 0, 0, 0, 0);
+        }
+        return new LatencySummary(total,
+                totalNanos.sum() / NANOS_PER_MILLI / count.sum(),
+                maxNanos.get() / NANOS_PER_MILLI,
+                percentile(counts, total, 0.5),
+                percentile(counts, total, 0.9),
+                percentile(counts, total, 0.99));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+}
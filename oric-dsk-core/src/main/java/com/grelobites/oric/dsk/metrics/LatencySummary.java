@@ -0,0 +1,62 @@
+package com.grelobites.oric.dsk.metrics;
+
+import java.beans.ConstructorProperties;
+
+/*
+ * Snapshot of a LatencyHistogram. Percentiles are the upper bounds of their buckets
+ */
+public class LatencySummary {
+    private final long count;
+    private final double meanMillis;
+    private final double maxMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+
+    @ConstructorProperties({"count", "meanMillis", "maxMillis", "p50Millis", "p90Millis", "p99Millis"})
+    public LatencySummary(long count, double meanMillis, double maxMillis,
+                          double p50Millis, double p90Millis, double p99Millis) {
+        this.count = count;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySummary{" +
+                "count=" + count +
+                ", meanMillis=" + meanMillis +
+                ", maxMillis=" + maxMillis +
+                ", p50Millis=" + p50Millis +
+                ", p90Millis=" + p90Millis +
+                ", p99Millis=" + p99Millis +
+                '}';
+    }
+}
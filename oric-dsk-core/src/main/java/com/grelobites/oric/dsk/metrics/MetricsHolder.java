@@ -0,0 +1,28 @@
+package com.grelobites.oric.dsk.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+//Constant after class loading, so calls on NONE get inlined away
+final class MetricsHolder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsHolder.class);
+
+    static final DskMetrics INSTANCE = Boolean.getBoolean(DskMetrics.ENABLED_PROPERTY) ?
+            register(new JmxDskMetrics()) : DskMetrics.NONE;
+
+    private MetricsHolder() {
+    }
+
+    private static DskMetrics register(JmxDskMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+                    new ObjectName(JmxDskMetrics.OBJECT_NAME));
+        } catch (Exception e) {
+            LOGGER.warn("Unable to register the metrics MBean", e);
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,95 @@
+package com.grelobites.oric.dsk.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Archive {
+    private static AtomicLong ID_GENERATOR = new AtomicLong(0);
+    private final long id;
+    private String name;
+    private String extension;
+    private int size;
+    private byte[] data;
+    private SectorDataView dataView;
+
+    public Archive(String name, String extension, byte[] data) {
+        this.id = ID_GENERATOR.getAndIncrement();
+        this.name = name;
+        this.extension = extension;
+        this.size = data.length;
+        this.data = data;
+    }
+
+    //Contents read from the view, only copied to an array if getData gets called
+    public Archive(String name, String extension, SectorDataView dataView) {
+        this.id = ID_GENERATOR.getAndIncrement();
+        this.name = name;
+        this.extension = extension;
+        this.size = dataView.length();
+        this.dataView = dataView;
+    }
+
+    protected Archive(Archive source) {
+        this.id = source.getId();
+        this.name = source.getName();
+        this.extension = source.getExtension();
+        this.size = source.getSize();
+        this.data = source.data;
+        this.dataView = source.dataView;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+
+    //The view gets released once copied, so that the source disk can be collected
+    public byte[] getData() {
+        if (data == null && dataView != null) {
+            data = dataView.toByteArray();
+            dataView = null;
+        }
+        return data;
+    }
+
+    public SectorDataView getDataView() {
+        if (dataView == null) {
+            dataView = SectorDataView.wrap(data);
+        }
+        return dataView;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        return "Archive{" +
+                "id=" + id +
+                ", name=" + getName() +
+                ", extension=" + getExtension() +
+                ", size=" + getSize() +
+                ", data.length=" + (data != null ? data.length :
+                dataView != null ? dataView.length() : 0) +
+                '}';
+    }
+}
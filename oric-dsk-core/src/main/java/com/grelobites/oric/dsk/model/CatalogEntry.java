@@ -0,0 +1,157 @@
+package com.grelobites.oric.dsk.model;
+
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+
+import java.util.function.Supplier;
+
+public class CatalogEntry {
+    private String name;
+    private String extension;
+    private int size;
+    private int loadAddress;
+    private int execAddress;
+    private boolean executableAttribute;
+    private boolean blockAttribute;
+    private boolean protectedAttribute;
+    private Supplier<SedoricArchive> archiveLoader;
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private CatalogEntry entry = new CatalogEntry();
+
+        public Builder withName(String name) {
+            entry.setName(name);
+            return this;
+        }
+
+        public Builder withExtension(String extension) {
+            entry.setExtension(extension);
+            return this;
+        }
+
+        public Builder withSize(int size) {
+            entry.setSize(size);
+            return this;
+        }
+
+        public Builder withLoadAddress(int loadAddress) {
+            entry.setLoadAddress(loadAddress);
+            return this;
+        }
+
+        public Builder withExecAddress(int execAddress) {
+            entry.setExecAddress(execAddress);
+            return this;
+        }
+
+        public Builder withExecutableAttribute(boolean executableAttribute) {
+            entry.setExecutableAttribute(executableAttribute);
+            return this;
+        }
+
+        public Builder withBlockAttribute(boolean blockAttribute) {
+            entry.setBlockAttribute(blockAttribute);
+            return this;
+        }
+
+        public Builder withProtectedAttribute(boolean protectedAttribute) {
+            entry.setProtectedAttribute(protectedAttribute);
+            return this;
+        }
+
+        public Builder withArchiveLoader(Supplier<SedoricArchive> archiveLoader) {
+            entry.archiveLoader = archiveLoader;
+            return this;
+        }
+
+        public CatalogEntry build() {
+            return entry;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public void setExtension(String extension) {
+        this.extension = extension;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getLoadAddress() {
+        return loadAddress;
+    }
+
+    public void setLoadAddress(int loadAddress) {
+        this.loadAddress = loadAddress;
+    }
+
+    public int getExecAddress() {
+        return execAddress;
+    }
+
+    public void setExecAddress(int execAddress) {
+        this.execAddress = execAddress;
+    }
+
+    public boolean isExecutableAttribute() {
+        return executableAttribute;
+    }
+
+    public void setExecutableAttribute(boolean executableAttribute) {
+        this.executableAttribute = executableAttribute;
+    }
+
+    public boolean isBlockAttribute() {
+        return blockAttribute;
+    }
+
+    public void setBlockAttribute(boolean blockAttribute) {
+        this.blockAttribute = blockAttribute;
+    }
+
+    public boolean isProtectedAttribute() {
+        return protectedAttribute;
+    }
+
+    public void setProtectedAttribute(boolean protectedAttribute) {
+        this.protectedAttribute = protectedAttribute;
+    }
+
+    //Reads the archive data sectors from the disk
+    public SedoricArchive getArchive() {
+        return archiveLoader.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CatalogEntry{" +
+                "name='" + name + '\'' +
+                ", extension='" + extension + '\'' +
+                ", size=" + size +
+                ", loadAddress=" + loadAddress +
+                ", execAddress=" + execAddress +
+                ", executableAttribute=" + executableAttribute +
+                ", blockAttribute=" + blockAttribute +
+                ", protectedAttribute=" + protectedAttribute +
+                '}';
+    }
+}
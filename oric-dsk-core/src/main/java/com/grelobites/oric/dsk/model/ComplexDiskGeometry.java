@@ -1,23 +1,21 @@
 package com.grelobites.oric.dsk.model;
 
-import javafx.beans.binding.Bindings;
-import javafx.beans.binding.IntegerBinding;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
 
 public class ComplexDiskGeometry implements DiskGeometry {
     private static final Logger LOGGER = LoggerFactory.getLogger(ComplexDiskGeometry.class);
 
-    private IntegerProperty trackCount;
-    private IntegerProperty sideCount;
-    private IntegerBinding capacityBinding;
+    private int trackCount;
+    private int sideCount;
     private int geometryId;
-    private Map<Integer, TrackGeometry> trackGeometries = new HashMap<>();
+    private Map<Integer, TrackGeometry> trackGeometries = new ConcurrentHashMap<>();
+    //Provides the geometry of the tracks not yet known, i.e. in lazily decoded images
+    private IntFunction<TrackGeometry> trackGeometryResolver;
 
     public static Builder newBuilder() {
         return new Builder();
@@ -45,40 +43,30 @@ public class ComplexDiskGeometry implements DiskGeometry {
             diskGeometry.setGeometryId(geometryId);
             return this;
         }
+
+        public Builder withTrackGeometryResolver(IntFunction<TrackGeometry> trackGeometryResolver) {
+            diskGeometry.setTrackGeometryResolver(trackGeometryResolver);
+            return this;
+        }
+
         public ComplexDiskGeometry build() {
             return diskGeometry;
         }
     }
 
-    public ComplexDiskGeometry() {
-        this.trackCount = new SimpleIntegerProperty();
-        this.sideCount = new SimpleIntegerProperty();
-        this.capacityBinding = Bindings.createIntegerBinding(() -> capacity(),
-                trackCount, sideCount);
-    }
-
-    @Override
-    public IntegerBinding capacityBinding() {
-        return capacityBinding;
-    }
-
     @Override
     public int getTrackCount() {
-        return trackCount.get();
-    }
-
-    @Override
-    public IntegerProperty trackCountProperty() {
         return trackCount;
     }
 
+    @Override
     public void setTrackCount(int trackCount) {
-        this.trackCount.set(trackCount);
+        this.trackCount = trackCount;
     }
 
     @Override
     public int getSideCount() {
-        return sideCount.get();
+        return sideCount;
     }
 
     @Override
@@ -87,17 +75,13 @@ public class ComplexDiskGeometry implements DiskGeometry {
     }
 
     @Override
-    public IntegerProperty sideCountProperty() {
-        return sideCount;
-    }
-
-    @Override
-    public IntegerProperty sectorCountProperty() {
+    public void setSectorCount(int sectorCount) {
         throw new IllegalArgumentException("Sector count not supported");
     }
 
+    @Override
     public void setSideCount(int sideCount) {
-        this.sideCount.set(sideCount);
+        this.sideCount = sideCount;
     }
 
     public int getGeometryId() {
@@ -109,6 +93,12 @@ public class ComplexDiskGeometry implements DiskGeometry {
     }
 
     public Map<Integer, TrackGeometry> getTrackGeometries() {
+        if (trackGeometryResolver != null) {
+            for (int track = 0; track < trackCount * sideCount; track++) {
+                getTrackGeometry(track);
+            }
+            trackGeometryResolver = null;
+        }
         return trackGeometries;
     }
 
@@ -116,7 +106,16 @@ public class ComplexDiskGeometry implements DiskGeometry {
         this.trackGeometries = trackGeometries;
     }
 
+    public void setTrackGeometryResolver(IntFunction<TrackGeometry> trackGeometryResolver) {
+        this.trackGeometryResolver = trackGeometryResolver;
+    }
+
+    @Override
     public TrackGeometry getTrackGeometry(int track) {
+        IntFunction<TrackGeometry> resolver = trackGeometryResolver;
+        if (resolver != null && track >= 0 && track < trackCount * sideCount) {
+            return trackGeometries.computeIfAbsent(track, resolver::apply);
+        }
         return trackGeometries.get(track);
     }
 
@@ -129,6 +128,7 @@ public class ComplexDiskGeometry implements DiskGeometry {
         trackGeometries.put(track, trackGeometry);
     }
 
+    @Override
     public int capacity() {
         return getTrackGeometries().values().stream()
                 .map(i -> i.getSectorCount() * i.getSectorSize())
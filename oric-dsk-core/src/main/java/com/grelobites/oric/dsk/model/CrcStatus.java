@@ -0,0 +1,12 @@
+package com.grelobites.oric.dsk.model;
+
+public enum CrcStatus {
+    VALID,
+    INVALID,
+    //Field stored with the F7 F7 write track placeholder instead of a CRC
+    UNCHECKED,
+    //ID field without a matching data field
+    MISSING,
+    //ID field with an unknown sector size code, so its data field cannot be located
+    DAMAGED
+}
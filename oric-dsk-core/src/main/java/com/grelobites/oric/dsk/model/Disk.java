@@ -0,0 +1,189 @@
+package com.grelobites.oric.dsk.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+public class Disk {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Disk.class);
+
+    private Track[] tracks;
+    private final DiskGeometry geometry;
+
+    //Flat storage. All the sectors in a single buffer, located through the track offsets
+    private ByteBuffer storage;
+    private int[] trackOffsets;
+    private int[] trackSectorSizes;
+    private int[] trackSectorCounts;
+
+    public Disk(Track[] tracks, DiskGeometry geometry) {
+        this.tracks = tracks;
+        this.geometry = geometry;
+    }
+
+    public Disk(DiskGeometry geometry) {
+        this.geometry = geometry;
+        tracks = new Track[geometry.getTrackCount() * geometry.getSideCount()];
+        for (int i = 0; i < tracks.length; i++) {
+            TrackGeometry trackGeometry = geometry.getTrackGeometry(i);
+            tracks[i] = new Track(trackGeometry.getSectorCount(),
+                    trackGeometry.getSectorSize());
+        }
+    }
+
+    private Disk(ByteBuffer storage, DiskGeometry geometry, int trackCount) {
+        this.geometry = geometry;
+        this.storage = storage;
+        trackOffsets = new int[trackCount];
+        trackSectorSizes = new int[trackCount];
+        trackSectorCounts = new int[trackCount];
+        int offset = 0;
+        for (int i = 0; i < trackCount; i++) {
+            TrackGeometry trackGeometry = geometry.getTrackGeometry(i);
+            trackOffsets[i] = offset;
+            trackSectorSizes[i] = trackGeometry.getSectorSize();
+            trackSectorCounts[i] = trackGeometry.getSectorCount();
+            offset += trackGeometry.getSectorSize() * trackGeometry.getSectorCount();
+        }
+        if (offset > storage.capacity()) {
+            throw new IllegalArgumentException("Storage too small for geometry. Required "
+                    + offset + " bytes");
+        }
+    }
+
+    private static int flatStorageSize(DiskGeometry geometry, int trackCount) {
+        int size = 0;
+        for (int i = 0; i < trackCount; i++) {
+            TrackGeometry trackGeometry = geometry.getTrackGeometry(i);
+            size += trackGeometry.getSectorSize() * trackGeometry.getSectorCount();
+        }
+        return size;
+    }
+
+    public static Disk newFlatDisk(DiskGeometry geometry) {
+        return newFlatDisk(geometry, false);
+    }
+
+    public static Disk newFlatDisk(DiskGeometry geometry, boolean direct) {
+        int trackCount = geometry.getTrackCount() * geometry.getSideCount();
+        int size = flatStorageSize(geometry, trackCount);
+        return new Disk(direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size),
+                geometry, trackCount);
+    }
+
+    //Flat disk on top of an existing buffer, with the sectors of each track laid out consecutively
+    public static Disk newFlatDisk(ByteBuffer storage, DiskGeometry geometry, int trackCount) {
+        return new Disk(storage.slice(), geometry, trackCount);
+    }
+
+    //Flat copy of this disk. Decodes every track of lazily read disks
+    public Disk toFlatDisk() {
+        int trackCount = getTrackCount();
+        Disk flat = new Disk(ByteBuffer.allocate(flatStorageSize(geometry, trackCount)),
+                geometry, trackCount);
+        for (int track = 0; track < trackCount; track++) {
+            for (int sector = 1; sector <= flat.trackSectorCounts[track]; sector++) {
+                flat.getSectorBuffer(track, sector).put(getSectorBuffer(track, sector));
+            }
+        }
+        return flat;
+    }
+
+    public boolean isFlat() {
+        return storage != null;
+    }
+
+    //False for lazily read tracks whose sectors were not requested yet
+    public boolean isTrackLoaded(int track) {
+        return tracks == null || tracks[track].isLoaded();
+    }
+
+    public int getTrackCount() {
+        return tracks != null ? tracks.length : trackOffsets.length;
+    }
+
+    //Copy of the sector contents. Use the buffer views to read or update sectors in place
+    public byte[] copySector(SectorCoordinates coordinates) {
+        return copySector(coordinates.getTrack(), coordinates.getSector());
+    }
+
+    public byte[] copySectorFromEncodedTrack(SectorCoordinates coordinates) {
+        return copySector(correctedTrack(coordinates.getTrack()), coordinates.getSector());
+    }
+
+    public void writeSector(SectorCoordinates coordinates, byte[] data) {
+        writeSector(coordinates.getTrack(), coordinates.getSector(), data);
+    }
+
+    //View on the sector contents, sharing the disk storage
+    public ByteBuffer getSectorBuffer(SectorCoordinates coordinates) {
+        return getSectorBuffer(coordinates.getTrack(), coordinates.getSector());
+    }
+
+    public ByteBuffer getSectorBufferFromEncodedTrack(SectorCoordinates coordinates) {
+        return getSectorBuffer(correctedTrack(coordinates.getTrack()), coordinates.getSector());
+    }
+
+    //Same accessors for packed or raw coordinates, with no intermediate objects
+    public byte[] copySectorFromEncodedTrack(int track, int sector) {
+        return copySector(correctedTrack(track), sector);
+    }
+
+    public ByteBuffer getSectorBufferFromEncodedTrack(int track, int sector) {
+        return getSectorBuffer(correctedTrack(track), sector);
+    }
+
+    private int correctedTrack(int track) {
+        return geometry.decodeTrack(track & 0xff);
+    }
+
+    private int correctedSector(int sector) {
+        return sector - 1;
+    }
+
+    private int flatSectorOffset(int track, int sector) {
+        int index = correctedSector(sector);
+        if (index < 0 || index >= trackSectorCounts[track]) {
+            throw new ArrayIndexOutOfBoundsException("Sector " + sector + " not in track " + track);
+        }
+        return trackOffsets[track] + index * trackSectorSizes[track];
+    }
+
+    //Null for sectors missing from a damaged track
+    public byte[] copySector(int track, int sector) {
+        ByteBuffer view = getSectorBuffer(track, sector);
+        if (view == null) {
+            return null;
+        }
+        byte[] copy = new byte[view.remaining()];
+        view.get(copy);
+        return copy;
+    }
+
+    //Null for sectors missing from a damaged track
+    public ByteBuffer getSectorBuffer(int track, int sector) {
+        if (storage != null) {
+            ByteBuffer view = storage.duplicate();
+            int offset = flatSectorOffset(track, sector);
+            ((Buffer) view).position(offset);
+            ((Buffer) view).limit(offset + trackSectorSizes[track]);
+            return view.slice();
+        } else {
+            byte[] data = tracks[track].getSector(correctedSector(sector));
+            return data != null ? ByteBuffer.wrap(data) : null;
+        }
+    }
+
+    //Copies the data into the sector, up to the sector size
+    public void writeSector(int track, int sector, byte[] data) {
+        ByteBuffer view = getSectorBuffer(track, sector);
+        view.put(data, 0, Math.min(data.length, view.remaining()));
+    }
+
+    public DiskGeometry getGeometry() {
+        return geometry;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.grelobites.oric.dsk.model;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.oricdos.OricDosDirectory;
+import com.grelobites.oric.dsk.oricdos.OricDosSystemSector;
+import com.grelobites.oric.dsk.sedoric.SedoricDirectory;
+import com.grelobites.oric.dsk.sedoric.SedoricSystemSector;
+import com.grelobites.oric.dsk.util.DskUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Directory listing of a disk image. Only the system sector, the directory chain
+ * and the file descriptor headers are read. Archive data is read on request
+ */
+public class DiskCatalog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskCatalog.class);
+
+    private final DiskFormat format;
+    private final DiskGeometry geometry;
+    private String name;
+    private final List<CatalogEntry> entries = new ArrayList<>();
+
+    private DiskCatalog(DiskFormat format, DiskGeometry geometry) {
+        this.format = format;
+        this.geometry = geometry;
+    }
+
+    public static DiskCatalog fromFile(File file) throws IOException {
+        return fromDisk(DskUtil.diskFromDskFile(file));
+    }
+
+    public static DiskCatalog fromDisk(Disk disk) throws IOException {
+        DiskCatalog catalog = new DiskCatalog(DskUtil.getDiskFormat(disk), disk.getGeometry());
+        switch (catalog.format) {
+            case UNKNOWN:
+            case SEDORIC:
+                SedoricSystemSector systemSector = SedoricSystemSector.fromInputStream(
+                        new ByteArrayInputStream(disk.copySector(
+                                new SectorCoordinates(Constants.SEDORIC_DIRECTORY_TRACK,
+                                        Constants.SEDORIC_SYSTEM_SECTOR))));
+                catalog.name = systemSector.getName().trim();
+                for (SedoricDirectory directory : SedoricDirectory.fromDisk(disk)) {
+                    directory.getCatalogEntry(disk).ifPresent(catalog.entries::add);
+                }
+                break;
+            case ORICDOS:
+                catalog.name = OricDosSystemSector.fromDisk(disk).getName();
+                for (OricDosDirectory directory : OricDosDirectory.fromDisk(disk)) {
+                    directory.getCatalogEntry(disk).ifPresent(catalog.entries::add);
+                }
+                break;
+        }
+        LOGGER.debug("Read catalog with {} entries", catalog.entries.size());
+        return catalog;
+    }
+
+    public DiskFormat getFormat() {
+        return format;
+    }
+
+    public DiskGeometry getGeometry() {
+        return geometry;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<CatalogEntry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return "DiskCatalog{" +
+                "format=" + format +
+                ", name='" + name + '\'' +
+                ", entries=" + entries.size() +
+                '}';
+    }
+}
@@ -1,7 +1,5 @@
 package com.grelobites.oric.dsk.model;
 
-import javafx.beans.binding.IntegerBinding;
-import javafx.beans.property.IntegerProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,12 +25,12 @@ public interface DiskGeometry {
     }
 
     int getTrackCount();
+    void setTrackCount(int trackCount);
     int getSideCount();
+    void setSideCount(int sideCount);
     int getSectorCount(); //Optional, only for homogeneous geometries
-    IntegerProperty trackCountProperty();
-    IntegerProperty sideCountProperty();
-    IntegerProperty sectorCountProperty();
+    void setSectorCount(int sectorCount); //Optional, only for homogeneous geometries
     TrackGeometry getTrackGeometry(int track);
     boolean hasSectorCount();
-    IntegerBinding capacityBinding();
+    int capacity();
 }
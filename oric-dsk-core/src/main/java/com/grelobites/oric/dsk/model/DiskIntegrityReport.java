@@ -0,0 +1,88 @@
+package com.grelobites.oric.dsk.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Result of checking the ID and data field CRCs of every track in an MFM image.
+ * Plain images carry no CRCs and get an empty, unchecked report
+ */
+public class DiskIntegrityReport {
+    private final boolean checked;
+    private final List<TrackIntegrity> tracks;
+
+    public DiskIntegrityReport(List<TrackIntegrity> tracks) {
+        this(true, tracks);
+    }
+
+    private DiskIntegrityReport(boolean checked, List<TrackIntegrity> tracks) {
+        this.checked = checked;
+        this.tracks = tracks;
+    }
+
+    public static DiskIntegrityReport unchecked() {
+        return new DiskIntegrityReport(false, Collections.emptyList());
+    }
+
+    public boolean isChecked() {
+        return checked;
+    }
+
+    public List<TrackIntegrity> getTracks() {
+        return tracks;
+    }
+
+    public List<TrackIntegrity> getInvalidTracks() {
+        List<TrackIntegrity> invalidTracks = new ArrayList<>();
+        for (TrackIntegrity track : tracks) {
+            if (!track.isValid()) {
+                invalidTracks.add(track);
+            }
+        }
+        return invalidTracks;
+    }
+
+    public int getSectorCount() {
+        int sectors = 0;
+        for (TrackIntegrity track : tracks) {
+            sectors += track.getSectors().size();
+        }
+        return sectors;
+    }
+
+    //Sectors with some field holding the CRC placeholder instead of a CRC
+    public int getUncheckedCount() {
+        int unchecked = 0;
+        for (TrackIntegrity track : tracks) {
+            for (SectorIntegrity sector : track.getSectors()) {
+                if (!sector.isChecked()) {
+                    unchecked++;
+                }
+            }
+        }
+        return unchecked;
+    }
+
+    public int getErrorCount() {
+        int errors = 0;
+        for (TrackIntegrity track : tracks) {
+            errors += track.getErrorCount();
+        }
+        return errors;
+    }
+
+    public boolean isValid() {
+        return getErrorCount() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "DiskIntegrityReport{" +
+                "checked=" + checked +
+                ", tracks=" + tracks.size() +
+                ", sectors=" + getSectorCount() +
+                ", errors=" + getErrorCount() +
+                '}';
+    }
+}
@@ -4,7 +4,9 @@ import com.grelobites.oric.dsk.sedoric.DskHeader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public interface DskReader {
     Disk fromDsk(InputStream stream, DskHeader header) throws IOException;
+    Disk fromDsk(ByteBuffer buffer, DskHeader header) throws IOException;
 }
@@ -8,7 +8,8 @@ public class DskReaderFactory {
     private static PlainDskReader plainDskReader;
     private static MfmDskReader mfmDskReader;
 
-    private static DskReader getMfmDskReader() {
+    //Sequential reader without CRC verification. Configured readers are passed to DskUtil instead
+    public static MfmDskReader getMfmDskReader() {
         if (mfmDskReader == null) {
             mfmDskReader = new MfmDskReader();
         }
@@ -23,11 +24,15 @@ public class DskReaderFactory {
     }
 
     public static DskReader getDskReader(FileType fileType) {
+        return getDskReader(fileType, getMfmDskReader());
+    }
+
+    public static DskReader getDskReader(FileType fileType, MfmDskReader mfmDskReader) {
         switch (fileType) {
             case PLAINDSK:
                 return getPlainDskReader();
             case MFMDSK:
-                return getMfmDskReader();
+                return mfmDskReader;
             default:
                 throw new IllegalArgumentException("Not a DSK type or not supported");
         }
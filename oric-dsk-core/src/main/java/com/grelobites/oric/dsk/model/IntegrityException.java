@@ -0,0 +1,17 @@
+package com.grelobites.oric.dsk.model;
+
+import java.io.IOException;
+
+public class IntegrityException extends IOException {
+    private final DiskIntegrityReport report;
+
+    public IntegrityException(DiskIntegrityReport report) {
+        super("CRC errors in " + report.getErrorCount() + " sectors of "
+                + report.getInvalidTracks().size() + " tracks");
+        this.report = report;
+    }
+
+    public DiskIntegrityReport getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,202 @@
+package com.grelobites.oric.dsk.model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+
+/*
+ * Read only view of archive contents scattered over disk sectors. Segments share
+ * the disk storage, so nothing gets copied until the contents are streamed or
+ * materialized. The disk must not be modified while the view is in use.
+ * A view keeps the whole disk storage reachable: on plain DSK images that is the
+ * array with the full image, even for a one sector archive. Archives release their
+ * view once the contents are copied with Archive.getData.
+ */
+public class SectorDataView {
+    private static final ByteBuffer[] NO_SEGMENTS = new ByteBuffer[0];
+    private final ByteBuffer[] segments;
+    private final int length;
+
+    public SectorDataView(List<ByteBuffer> segments) {
+        this(segments.toArray(NO_SEGMENTS));
+    }
+
+    public SectorDataView(ByteBuffer... segments) {
+        this.segments = new ByteBuffer[segments.length];
+        int length = 0;
+        for (int i = 0; i < segments.length; i++) {
+            this.segments[i] = segments[i].slice();
+            length += this.segments[i].remaining();
+        }
+        this.length = length;
+    }
+
+    public static SectorDataView wrap(byte[] data) {
+        return new SectorDataView(ByteBuffer.wrap(data));
+    }
+
+    //Whole sectors, with the tracks encoded as in the descriptors
+    public static SectorDataView fromEncodedSectors(Disk disk, SectorList sectors) {
+        ByteBuffer[] segments = new ByteBuffer[sectors.size()];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = disk.getSectorBufferFromEncodedTrack(sectors.getTrack(i), sectors.getSector(i));
+        }
+        return new SectorDataView(segments);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    //Independent read only buffers on the segments, positioned at their start
+    public ByteBuffer[] getBuffers() {
+        ByteBuffer[] buffers = new ByteBuffer[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            buffers[i] = segments[i].asReadOnlyBuffer();
+        }
+        return buffers;
+    }
+
+    public byte[] toByteArray() {
+        byte[] data = new byte[length];
+        int position = 0;
+        for (ByteBuffer segment : segments) {
+            int count = segment.remaining();
+            segment.duplicate().get(data, position, count);
+            position += count;
+        }
+        return data;
+    }
+
+    //Writes the first count bytes. Nothing is written if the view is shorter
+    public void writeTo(OutputStream stream, int count) throws IOException {
+        if (count < 0 || count > length) {
+            throw new IndexOutOfBoundsException("Requested " + count + " bytes from a view of " + length);
+        }
+        byte[] chunk = null;
+        for (int i = 0; i < segments.length && count > 0; i++) {
+            ByteBuffer segment = segments[i].duplicate();
+            int length = Math.min(count, segment.remaining());
+            if (segment.hasArray()) {
+                stream.write(segment.array(), segment.arrayOffset() + segment.position(), length);
+            } else {
+                if (chunk == null || chunk.length < length) {
+                    chunk = new byte[length];
+                }
+                segment.get(chunk, 0, length);
+                stream.write(chunk, 0, length);
+            }
+            count -= length;
+        }
+    }
+
+    public InputStream openStream() {
+        return new SegmentInputStream(getBuffers());
+    }
+
+    public ReadableByteChannel openChannel() {
+        return new SegmentChannel(getBuffers());
+    }
+
+    private static class SegmentInputStream extends InputStream {
+        private final ByteBuffer[] buffers;
+        private int current;
+
+        SegmentInputStream(ByteBuffer[] buffers) {
+            this.buffers = buffers;
+        }
+
+        //Current buffer with data left, or null at the end of the view
+        private ByteBuffer buffer() {
+            while (current < buffers.length && !buffers[current].hasRemaining()) {
+                current++;
+            }
+            return current < buffers.length ? buffers[current] : null;
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer buffer = buffer();
+            return buffer != null ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int count = 0;
+            ByteBuffer buffer;
+            while (count < len && (buffer = buffer()) != null) {
+                int chunk = Math.min(len - count, buffer.remaining());
+                buffer.get(b, off + count, chunk);
+                count += chunk;
+            }
+            return count > 0 ? count : -1;
+        }
+
+        @Override
+        public int available() {
+            int available = 0;
+            for (int i = current; i < buffers.length; i++) {
+                available += buffers[i].remaining();
+            }
+            return available;
+        }
+    }
+
+    private static class SegmentChannel implements ReadableByteChannel {
+        private final ByteBuffer[] buffers;
+        private int current;
+        private boolean open = true;
+
+        SegmentChannel(ByteBuffer[] buffers) {
+            this.buffers = buffers;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            int count = 0;
+            while (dst.hasRemaining() && current < buffers.length) {
+                ByteBuffer buffer = buffers[current];
+                if (!buffer.hasRemaining()) {
+                    current++;
+                    continue;
+                }
+                int chunk = Math.min(dst.remaining(), buffer.remaining());
+                ByteBuffer source = buffer.duplicate();
+                ((Buffer) source).limit(source.position() + chunk);
+                dst.put(source);
+                ((Buffer) buffer).position(buffer.position() + chunk);
+                count += chunk;
+            }
+            return count == 0 && current >= buffers.length ? -1 : count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SectorDataView{" +
+                "segments=" + segments.length +
+                ", length=" + length +
+                '}';
+    }
+}
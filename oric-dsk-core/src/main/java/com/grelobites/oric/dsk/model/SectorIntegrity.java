@@ -0,0 +1,45 @@
+package com.grelobites.oric.dsk.model;
+
+public class SectorIntegrity {
+    private final int sectorId;
+    private final CrcStatus idStatus;
+    private final CrcStatus dataStatus;
+
+    public SectorIntegrity(int sectorId, CrcStatus idStatus, CrcStatus dataStatus) {
+        this.sectorId = sectorId;
+        this.idStatus = idStatus;
+        this.dataStatus = dataStatus;
+    }
+
+    public int getSectorId() {
+        return sectorId;
+    }
+
+    public CrcStatus getIdStatus() {
+        return idStatus;
+    }
+
+    public CrcStatus getDataStatus() {
+        return dataStatus;
+    }
+
+    public boolean isValid() {
+        return idStatus != CrcStatus.INVALID &&
+                idStatus != CrcStatus.DAMAGED &&
+                dataStatus != CrcStatus.INVALID &&
+                dataStatus != CrcStatus.MISSING;
+    }
+
+    public boolean isChecked() {
+        return idStatus != CrcStatus.UNCHECKED && dataStatus != CrcStatus.UNCHECKED;
+    }
+
+    @Override
+    public String toString() {
+        return "SectorIntegrity{" +
+                "sectorId=" + sectorId +
+                ", idStatus=" + idStatus +
+                ", dataStatus=" + dataStatus +
+                '}';
+    }
+}
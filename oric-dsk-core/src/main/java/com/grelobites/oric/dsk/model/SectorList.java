@@ -0,0 +1,147 @@
+package com.grelobites.oric.dsk.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Growable list of sector coordinates packed as (track << 8 | sector) ints, so that
+ * descriptor and directory chains can be built and walked without allocating one
+ * object per sector. asList() exposes it as a list of SectorCoordinates, created on
+ * access. Not thread safe.
+ */
+public class SectorList {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int[] EMPTY = new int[0];
+
+    private int[] sectors;
+    private int size;
+
+    public SectorList() {
+        sectors = EMPTY;
+    }
+
+    public SectorList(int capacity) {
+        sectors = capacity > 0 ? new int[capacity] : EMPTY;
+    }
+
+    public static SectorList of(List<SectorCoordinates> coordinates) {
+        SectorList list = new SectorList(coordinates.size());
+        for (SectorCoordinates item : coordinates) {
+            list.add(item.getTrack(), item.getSector());
+        }
+        return list;
+    }
+
+    public static int pack(int track, int sector) {
+        return (track << 8) | (sector & 0xff);
+    }
+
+    public static int track(int packed) {
+        return packed >>> 8;
+    }
+
+    public static int sector(int packed) {
+        return packed & 0xff;
+    }
+
+    //Sector pointers as stored on disk: track 0 and sector 0 ends the chain
+    public static boolean isValid(int track, int sector) {
+        return !(track == 0 && sector == 0);
+    }
+
+    public void add(int track, int sector) {
+        addPacked(pack(track, sector));
+    }
+
+    public void add(SectorCoordinates coordinates) {
+        add(coordinates.getTrack(), coordinates.getSector());
+    }
+
+    public void addPacked(int packed) {
+        if (size == sectors.length) {
+            sectors = Arrays.copyOf(sectors, Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        sectors[size++] = packed;
+    }
+
+    public int getPacked(int index) {
+        checkIndex(index);
+        return sectors[index];
+    }
+
+    public int getTrack(int index) {
+        return track(getPacked(index));
+    }
+
+    public int getSector(int index) {
+        return sector(getPacked(index));
+    }
+
+    public SectorCoordinates get(int index) {
+        int packed = getPacked(index);
+        return new SectorCoordinates(track(packed), sector(packed));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    //Number of different tracks in the list
+    public int trackCount() {
+        int[] tracks = new int[size];
+        for (int i = 0; i < size; i++) {
+            tracks[i] = track(sectors[i]);
+        }
+        Arrays.sort(tracks);
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (i == 0 || tracks[i] != tracks[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+        }
+    }
+
+    //Read only view. Each access creates new coordinates
+    public List<SectorCoordinates> asList() {
+        return new AbstractList<SectorCoordinates>() {
+            @Override
+            public SectorCoordinates get(int index) {
+                return SectorList.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SectorList{sectors=[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append('(').append(track(sectors[i])).append(", ")
+                    .append(sector(sectors[i])).append(')');
+        }
+        return builder.append("]}").toString();
+    }
+}
@@ -1,9 +1,5 @@
 package com.grelobites.oric.dsk.model;
 
-import javafx.beans.binding.Bindings;
-import javafx.beans.binding.IntegerBinding;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,11 +8,10 @@ import java.util.Arrays;
 public class SimpleDiskGeometry implements DiskGeometry {
     private static final Logger LOGGER = LoggerFactory.getLogger(SimpleDiskGeometry.class);
 
-    private IntegerProperty trackCount;
-    private IntegerProperty sideCount;
-    private IntegerProperty sectorCount;
+    private int trackCount;
+    private int sideCount;
+    private int sectorCount;
     private TrackGeometry[] trackGeometries;
-    private IntegerBinding capacityBinding;
 
     public static Builder newBuilder() {
         return new Builder();
@@ -53,43 +48,24 @@ public class SimpleDiskGeometry implements DiskGeometry {
         }
     }
 
-    public SimpleDiskGeometry() {
-        this.trackCount = new SimpleIntegerProperty();
-        this.sideCount = new SimpleIntegerProperty();
-        this.sectorCount = new SimpleIntegerProperty();
-        this.capacityBinding = Bindings.createIntegerBinding(() -> capacity(),
-                trackCount, sideCount, sectorCount);
-    }
-
-    @Override
-    public IntegerBinding capacityBinding() {
-        return capacityBinding;
-    }
-
     @Override
     public int getTrackCount() {
-        return trackCount.get();
-    }
-
-    public IntegerProperty trackCountProperty() {
         return trackCount;
     }
 
+    @Override
     public void setTrackCount(int trackCount) {
-        this.trackCount.set(trackCount);
+        this.trackCount = trackCount;
     }
 
     @Override
     public int getSideCount() {
-        return sideCount.get();
-    }
-
-    public IntegerProperty sideCountProperty() {
         return sideCount;
     }
 
+    @Override
     public void setSideCount(int sideCount) {
-        this.sideCount.set(sideCount);
+        this.sideCount = sideCount;
     }
 
     @Override
@@ -106,6 +82,8 @@ public class SimpleDiskGeometry implements DiskGeometry {
                     .withTrackLead(trackGeometry.getTrackLead())
                     .withGap2(trackGeometry.getGap2())
                     .withGap3(trackGeometry.getGap3())
+                    .withInterleave(trackGeometry.getInterleave())
+                    .withSkew(trackGeometry.getSkew())
                     .withSide(i).build();
         }
         setSectorCount(trackGeometry.getSectorCount());
@@ -117,19 +95,16 @@ public class SimpleDiskGeometry implements DiskGeometry {
     }
 
     @Override
-    public IntegerProperty sectorCountProperty() {
-        return sectorCount;
-    }
-
     public void setSectorCount(int sectorCount) {
-        this.sectorCount.set(sectorCount);
+        this.sectorCount = sectorCount;
     }
 
     @Override
     public int getSectorCount() {
-        return sectorCount.get();
+        return sectorCount;
     }
 
+    @Override
     public int capacity() {
         return getSectorCount() * getTrackCount() * getSideCount() *
                 trackGeometries[0].getSectorSize();
@@ -0,0 +1,46 @@
+package com.grelobites.oric.dsk.model;
+
+import java.util.function.Supplier;
+
+public class Track {
+    private volatile byte[][] data;
+    private Supplier<byte[][]> loader;
+
+    public Track(byte[][] data) {
+        this.data = data;
+    }
+
+    public Track(int sectorCount, int sectorSize) {
+        data = new byte[sectorCount][];
+        for (int i = 0; i < sectorCount; i++) {
+            data[i] = new byte[sectorSize];
+        }
+    }
+
+    //Lazy track. Sectors are only loaded on first access
+    public Track(Supplier<byte[][]> loader) {
+        this.loader = loader;
+    }
+
+    public boolean isLoaded() {
+        return data != null;
+    }
+
+    private byte[][] getData() {
+        byte[][] result = data;
+        if (result == null) {
+            synchronized (this) {
+                if (data == null) {
+                    data = loader.get();
+                    loader = null;
+                }
+                result = data;
+            }
+        }
+        return result;
+    }
+
+    public byte[] getSector(int sector) {
+        return getData()[sector];
+    }
+}
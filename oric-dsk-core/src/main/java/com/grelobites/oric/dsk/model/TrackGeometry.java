@@ -7,6 +7,10 @@ public class TrackGeometry {
     private int gap2;
     private int gap3;
     private int side;
+    //Physical distance between logically consecutive sectors
+    private int interleave = 1;
+    //Physical shift of the first sector on each cylinder, relative to the previous one
+    private int skew;
 
     public static Builder newBuilder() {
         return new Builder();
@@ -45,6 +49,16 @@ public class TrackGeometry {
             return this;
         }
 
+        public Builder withInterleave(int interleave) {
+            trackGeometry.setInterleave(interleave);
+            return this;
+        }
+
+        public Builder withSkew(int skew) {
+            trackGeometry.setSkew(skew);
+            return this;
+        }
+
         public TrackGeometry build() {
             return trackGeometry;
         }
@@ -98,6 +112,38 @@ public class TrackGeometry {
         this.side = side;
     }
 
+    public int getInterleave() {
+        return interleave;
+    }
+
+    public void setInterleave(int interleave) {
+        this.interleave = interleave;
+    }
+
+    public int getSkew() {
+        return skew;
+    }
+
+    public void setSkew(int skew) {
+        this.skew = skew;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    //Physical position (0 based) of a sector in a track. When the interleave shares
+    //a factor with the sector count, each pass around the track moves one slot ahead
+    public static int sectorSlot(int sector, int sectorCount, int interleave, int skew, int cylinder) {
+        int index = sector - 1;
+        int pass = sectorCount / gcd(sectorCount, interleave % sectorCount);
+        return (int) (((long) index * interleave + index / pass + (long) cylinder * skew) % sectorCount);
+    }
+
+    public int sectorSlot(int sector, int cylinder) {
+        return sectorSlot(sector, sectorCount, interleave, skew, cylinder);
+    }
+
     @Override
     public String toString() {
         return "TrackGeometry{" +
@@ -107,6 +153,8 @@ public class TrackGeometry {
                 ", gap2=" + gap2 +
                 ", gap3=" + gap3 +
                 ", side=" + side +
+                ", interleave=" + interleave +
+                ", skew=" + skew +
                 '}';
     }
 }
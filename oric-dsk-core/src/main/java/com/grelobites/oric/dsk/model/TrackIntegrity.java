@@ -0,0 +1,44 @@
+package com.grelobites.oric.dsk.model;
+
+import java.util.List;
+
+public class TrackIntegrity {
+    private final int track;
+    private final List<SectorIntegrity> sectors;
+
+    public TrackIntegrity(int track, List<SectorIntegrity> sectors) {
+        this.track = track;
+        this.sectors = sectors;
+    }
+
+    public int getTrack() {
+        return track;
+    }
+
+    public List<SectorIntegrity> getSectors() {
+        return sectors;
+    }
+
+    public int getErrorCount() {
+        int errors = 0;
+        for (SectorIntegrity sector : sectors) {
+            if (!sector.isValid()) {
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    public boolean isValid() {
+        return getErrorCount() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TrackIntegrity{" +
+                "track=" + track +
+                ", sectors=" + sectors.size() +
+                ", errors=" + getErrorCount() +
+                '}';
+    }
+}
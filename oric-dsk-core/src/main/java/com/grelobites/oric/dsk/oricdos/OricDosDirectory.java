@@ -1,19 +1,26 @@
 package com.grelobites.oric.dsk.oricdos;
 
+import com.grelobites.oric.dsk.jfr.ArchiveReadEvent;
+import com.grelobites.oric.dsk.jfr.CatalogEvent;
+import com.grelobites.oric.dsk.jfr.JfrSupport;
+import com.grelobites.oric.dsk.metrics.DskMetrics;
+import com.grelobites.oric.dsk.model.ArchiveOperationException;
+import com.grelobites.oric.dsk.model.CatalogEntry;
 import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskFormat;
 import com.grelobites.oric.dsk.model.DiskGeometry;
 import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorDataView;
 import com.grelobites.oric.dsk.sedoric.SedoricArchive;
 import com.grelobites.oric.dsk.util.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -121,19 +128,20 @@ public class OricDosDirectory {
     }
 
     public Optional<SedoricArchive> getArchive(Disk disk) {
+        ArchiveReadEvent event = JfrSupport.AVAILABLE ? ArchiveReadEvent.start(DiskFormat.ORICDOS.name) : null;
         LOGGER.debug("Getting archive for directory {}", this);
         try {
-            byte[] data = disk.getSectorFromEncodedTrack(firstSector);
+            ByteBuffer data = disk.getSectorBufferFromEncodedTrack(firstSector);
             int startAddress;
             int endAddress;
             int execAddress;
             int sectorDataBytes;
             int dataOffset;
-            if (data[2] == DESCRIPTOR_ID) {
-                ByteBuffer buffer = ByteBuffer.wrap(data, 4, 7)
-                        .order(ByteOrder.LITTLE_ENDIAN);
+            if (data.get(2) == DESCRIPTOR_ID) {
+                ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                ((Buffer) buffer).position(4);
                 LOGGER.debug("Found a header sector with data {}",
-                        Util.dumpAsHexString(buffer.array()));
+                        Util.dumpAsHexString(disk.copySectorFromEncodedTrack(firstSector)));
                 startAddress = Util.asUnsignedShort(buffer.getShort());
                 endAddress = Util.asUnsignedShort(buffer.getShort());
                 execAddress = Util.asUnsignedShort(buffer.getShort());
@@ -142,7 +150,7 @@ public class OricDosDirectory {
                 //Handle special execAddress cases
                 execAddress = execAddress < 3 ? startAddress : execAddress;
             } else {
-                sectorDataBytes = Util.asUnsignedByte(data[2]);
+                sectorDataBytes = Util.asUnsignedByte(data.get(2));
                 LOGGER.debug("Found raw sector with {} data bytes",
                         sectorDataBytes);
                 startAddress = 0;
@@ -155,34 +163,32 @@ public class OricDosDirectory {
                     String.format("0x%04x", endAddress),
                     String.format("0x%04x", execAddress),
                     sectorDataBytes);
-            int nextTrack = Util.asUnsignedByte(data[0]);
-            int nextSector = Util.asUnsignedByte(data[1]);
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            do {
-                bos.write(Arrays.copyOfRange(data, dataOffset,
-                        dataOffset + sectorDataBytes));
-                if (nextSector != 0) {
-                    data = disk.getSectorFromEncodedTrack(SectorCoordinates.newBuilder()
-                            .withTrack(nextTrack)
-                            .withSector(nextSector)
-                            .build());
-                    dataOffset = 3;
-                    nextTrack = Util.asUnsignedByte(data[0]);
-                    nextSector = Util.asUnsignedByte(data[1]);
-                    sectorDataBytes = Util.asUnsignedByte(data[2]);
-                }
-            } while (nextSector != 0);
-
-            LOGGER.debug("Got byte array of length {} for directory {}",
-                    bos.size(), this);
-
-            SedoricArchive archive = new SedoricArchive(name, extension, bos.toByteArray());
-            archive.setSize(bos.size());
+            int nextTrack = Util.asUnsignedByte(data.get(0));
+            int nextSector = Util.asUnsignedByte(data.get(1));
+            List<ByteBuffer> segments = new ArrayList<>();
+            addSegment(segments, data, dataOffset, sectorDataBytes);
+            int size = sectorDataBytes;
+            //The last sector of the chain, pointing nowhere, holds data too
+            while (nextSector != 0) {
+                ByteBuffer sector = disk.getSectorBufferFromEncodedTrack(nextTrack, nextSector);
+                nextTrack = Util.asUnsignedByte(sector.get(0));
+                nextSector = Util.asUnsignedByte(sector.get(1));
+                sectorDataBytes = Util.asUnsignedByte(sector.get(2));
+                addSegment(segments, sector, 3, sectorDataBytes);
+                size += sectorDataBytes;
+            }
+
+            LOGGER.debug("Got {} bytes for directory {}", size, this);
+
+            SedoricArchive archive = new SedoricArchive(name, extension, new SectorDataView(segments));
+            archive.setSize(size);
             archive.setLoadAddress(startAddress);
             archive.setExecAddress(execAddress);
             archive.setBlockAttribute(false);
             archive.setExecutableAttribute(false);
-
+            if (event != null) {
+                event.complete(name, extension, sectors, size);
+            }
             return Optional.of(archive);
         } catch (Exception e) {
             LOGGER.warn("Trying to get archive from directory {}", e);
@@ -190,12 +196,64 @@ public class OricDosDirectory {
         }
     }
 
-    private static void addDirectoryEntries(List<OricDosDirectory> list, byte[] sector,
+    //Payload of a sector. Counts beyond the end of the sector are zero padded
+    private static void addSegment(List<ByteBuffer> segments, ByteBuffer sector, int offset, int count) {
+        int available = Math.max(0, Math.min(count, sector.capacity() - offset));
+        ByteBuffer segment = sector.duplicate();
+        ((Buffer) segment).position(offset);
+        ((Buffer) segment).limit(offset + available);
+        segments.add(segment);
+        if (available < count) {
+            segments.add(ByteBuffer.allocate(count - available));
+        }
+    }
+
+    //Size of a headerless file, following the sector chain without copying any data
+    private static int chainedDataSize(Disk disk, ByteBuffer data) {
+        int size = Util.asUnsignedByte(data.get(2));
+        while (data.get(1) != 0) {
+            data = disk.getSectorBufferFromEncodedTrack(Util.asUnsignedByte(data.get(0)),
+                    Util.asUnsignedByte(data.get(1)));
+            size += Util.asUnsignedByte(data.get(2));
+        }
+        return size;
+    }
+
+    public Optional<CatalogEntry> getCatalogEntry(Disk disk) {
+        try {
+            ByteBuffer data = disk.getSectorBufferFromEncodedTrack(firstSector);
+            CatalogEntry.Builder builder = CatalogEntry.newBuilder()
+                    .withName(name)
+                    .withExtension(extension)
+                    .withArchiveLoader(() -> getArchive(disk)
+                            .orElseThrow(() -> new ArchiveOperationException("archiveReadError")));
+            if (data.get(2) == DESCRIPTOR_ID) {
+                ByteBuffer buffer = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                ((Buffer) buffer).position(4);
+                int startAddress = Util.asUnsignedShort(buffer.getShort());
+                int endAddress = Util.asUnsignedShort(buffer.getShort());
+                int execAddress = Util.asUnsignedShort(buffer.getShort());
+                //Nominal size from the header. Sector payloads are not walked
+                builder.withSize(endAddress - startAddress + 1)
+                        .withLoadAddress(startAddress)
+                        .withExecAddress(execAddress < 3 ? startAddress : execAddress);
+            } else {
+                builder.withSize(chainedDataSize(disk, data));
+            }
+            return Optional.of(builder.build());
+        } catch (Exception e) {
+            LOGGER.warn("Trying to get catalog entry from directory {}", this, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void addDirectoryEntries(List<OricDosDirectory> list, ByteBuffer sector,
                                             int offset, int size) {
         LOGGER.debug("addDirectoryEntries with offset {} and size {}", offset, size);
-        while (offset < size && sector[offset] != 0) {
-            LOGGER.debug("Iteration with offset {} for a sector of size {}", offset, sector.length);
-            ByteBuffer buffer = ByteBuffer.wrap(sector, offset, DIRECTORY_SIZE);
+        while (offset < size && sector.get(offset) != 0) {
+            LOGGER.debug("Iteration with offset {} for a sector of size {}", offset, sector.capacity());
+            ByteBuffer buffer = sector.duplicate().order(ByteOrder.BIG_ENDIAN);
+            ((Buffer) buffer).position(offset);
             byte[] nameBytes = new byte[6];
             byte[] extensionBytes = new byte[3];
             buffer.get(nameBytes);
@@ -223,23 +281,31 @@ public class OricDosDirectory {
     }
 
     public static List<OricDosDirectory> fromDisk(Disk disk) throws IOException {
+        CatalogEvent event = JfrSupport.AVAILABLE ? CatalogEvent.start(DiskFormat.ORICDOS.name) : null;
+        long startTime = DskMetrics.get().startTime();
         List<OricDosDirectory> result = new ArrayList<>();
+        int directorySectors = 0;
         OricDosSystemSector systemSector = OricDosSystemSector.fromDisk(disk);
         LOGGER.debug("System sector is {}", systemSector);
         int track = systemSector.getDirectoryCoordinates().getTrack();
         int sector = systemSector.getDirectoryCoordinates().getSector();
         final DiskGeometry geometry = disk.getGeometry();
         do {
-            byte[] sectorData = disk.getSectorFromEncodedTrack(new SectorCoordinates(track, sector));
+            ByteBuffer sectorData = disk.getSectorBufferFromEncodedTrack(track, sector);
+            directorySectors++;
             addDirectoryEntries(result, sectorData, 3, geometry
                     .getTrackGeometry(geometry.decodeTrack(track)).getSectorSize());
             LOGGER.debug("Sector {}, {} points to Sector {}, {}", track, sector,
-                    sectorData[0] & 0xff, sectorData[1] & 0xff);
-            track = sectorData[0] & 0xff;
-            sector = sectorData[1] & 0xff;
+                    sectorData.get(0) & 0xff, sectorData.get(1) & 0xff);
+            track = sectorData.get(0) & 0xff;
+            sector = sectorData.get(1) & 0xff;
 
             LOGGER.debug("File count is {}", result.size());
         } while (track != 0);
+        if (event != null) {
+            event.complete(result.size(), directorySectors);
+        }
+        DskMetrics.get().catalogRead(startTime);
         return result;
     }
 
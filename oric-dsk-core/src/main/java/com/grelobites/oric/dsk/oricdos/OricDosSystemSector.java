@@ -18,7 +18,7 @@ public class OricDosSystemSector {
 
     public static OricDosSystemSector fromDisk(Disk disk) throws IOException {
         ByteBuffer buffer = ByteBuffer.wrap(
-                disk.getSector(SYSTEM_SECTOR));
+                disk.copySector(SYSTEM_SECTOR));
         OricDosSystemSector systemSector = new OricDosSystemSector();
         buffer.position(18);
         systemSector.directoryCoordinates = SectorCoordinates.newBuilder()
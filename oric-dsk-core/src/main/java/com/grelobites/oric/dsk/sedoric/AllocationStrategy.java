@@ -0,0 +1,36 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.model.DiskGeometry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Decides where the exporter places new sectors. Tracks are filled in the
+ * order given by the strategy, each one from its lowest free sector
+ */
+public interface AllocationStrategy {
+    List<String> NAMES = Collections.unmodifiableList(Arrays.asList(
+            FirstFreeAllocationStrategy.NAME, NearDirectoryAllocationStrategy.NAME));
+
+    String getName();
+
+    //Linear track indexes, in the order they are filled
+    int[] trackOrder(DiskGeometry geometry);
+
+    //Whether the descriptor of a file is placed before its data, as it is read
+    boolean isLoadOrdered();
+
+    static AllocationStrategy byName(String name, LoadTimeModel model) {
+        switch (name) {
+            case FirstFreeAllocationStrategy.NAME:
+                return new FirstFreeAllocationStrategy();
+            case NearDirectoryAllocationStrategy.NAME:
+                return new NearDirectoryAllocationStrategy(model);
+            default:
+                throw new IllegalArgumentException("Unknown allocation strategy " + name +
+                        ". Valid names are " + String.join(", ", NAMES));
+        }
+    }
+}
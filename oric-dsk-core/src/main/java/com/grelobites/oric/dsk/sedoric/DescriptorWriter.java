@@ -0,0 +1,163 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.jfr.DescriptorWriteEvent;
+import com.grelobites.oric.dsk.jfr.JfrSupport;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+ * Allocates and writes the descriptor chain of a file. Without a disk the sectors are
+ * only taken from the bitmap, to plan layouts without building the image
+ */
+public class DescriptorWriter {
+    private static final int HEADER_LENGTH = 0x0c;
+    private final Disk disk;
+    private final DiskGeometry geometry;
+    private final SedoricBitmap bitmap;
+
+    public DescriptorWriter(Disk disk, SedoricBitmap bitmap) {
+        this.disk = disk;
+        this.geometry = bitmap.getDiskGeometry();
+        this.bitmap = bitmap;
+    }
+
+    public DescriptorWriter(SedoricBitmap bitmap) {
+        this(null, bitmap);
+    }
+
+    private static void writeDescriptorData(ByteBuffer sectorData, SedoricDescriptor descriptor) {
+        if (sectorData == null) {
+            return;
+        }
+        ByteBuffer buffer = sectorData.duplicate()
+                .order(ByteOrder.LITTLE_ENDIAN);
+        ((Buffer) buffer).position(2); //Skip pointer to next sector
+        buffer.put((byte) 0xFF)
+                .put((byte) ((descriptor.isBlock() ? 0x40: 0x80) |
+                        (descriptor.isExecutable() ? 1 : 0)))
+                .putShort((short) descriptor.getStartAddress())
+                .putShort((short) descriptor.getEndAddress())
+                .putShort((short) descriptor.getExecAddress())
+                .putShort((short) descriptor.getSectors());
+    }
+
+    //Null when only planning
+    private ByteBuffer sectorBuffer(int packed) {
+        return disk != null ? disk.getSectorBuffer(SectorList.track(packed), SectorList.sector(packed)) : null;
+    }
+
+    private int sectorSize(int packed) {
+        return geometry.getTrackGeometry(SectorList.track(packed)).getSectorSize();
+    }
+
+    private void putPointer(ByteBuffer sectorData, int offset, int packed) {
+        if (sectorData != null) {
+            sectorData.put(offset, (byte) geometry.encodeTrack(SectorList.track(packed)));
+            sectorData.put(offset + 1, (byte) SectorList.sector(packed));
+        }
+    }
+
+    private void setDescriptorLocation(SedoricDirectory directory, int packed) {
+        directory.setDescriptorLocation(new SectorCoordinates(
+                geometry.encodeTrack(SectorList.track(packed)),
+                SectorList.sector(packed)));
+    }
+
+    //Sectors of the file in the order they are read: each descriptor followed by its data
+    public SectorList write(SedoricDirectory directory, SedoricDescriptor descriptor) {
+        DescriptorWriteEvent event = JfrSupport.AVAILABLE ? DescriptorWriteEvent.start() : null;
+        SectorList loadSequence = bitmap.getAllocationStrategy().isLoadOrdered() ?
+                writeInLoadOrder(directory, descriptor) :
+                writeDataFirst(directory, descriptor);
+        if (event != null) {
+            event.complete(directory.getName(), directory.getExtension(), descriptor.getSectors(),
+                    loadSequence.size(), descriptor.getSize());
+        }
+        return loadSequence;
+    }
+
+    private SectorList writeDataFirst(SedoricDirectory directory, SedoricDescriptor descriptor) {
+        SectorList sectorList = new SectorList();
+        int remaining = descriptor.getSize();
+        while (remaining > 0) {
+            int position = bitmap.getPackedFreeSector();
+            remaining -= sectorSize(position);
+            sectorList.addPacked(position);
+        }
+        int sectors = sectorList.size();
+        descriptor.setSectors(sectors);
+        descriptor.setFileSectorList(sectorList);
+        int descriptorSectors = 1;
+        int descriptorLocation = bitmap.getPackedFreeSector();
+        SectorList loadSequence = new SectorList(sectors + 1);
+        loadSequence.addPacked(descriptorLocation);
+        setDescriptorLocation(directory, descriptorLocation);
+        ByteBuffer sectorData = sectorBuffer(descriptorLocation);
+        int descriptorSize = sectorSize(descriptorLocation);
+        writeDescriptorData(sectorData, descriptor);
+        int offset = HEADER_LENGTH;
+
+        for (int i = 0; i < sectors; i++) {
+            int item = sectorList.getPacked(i);
+            loadSequence.addPacked(item);
+            putPointer(sectorData, offset, item);
+            offset += 2;
+            if (offset >= descriptorSize) {
+                offset = 2;
+                descriptorSectors++;
+                descriptorLocation = bitmap.getPackedFreeSector();
+                loadSequence.addPacked(descriptorLocation);
+                putPointer(sectorData, 0, descriptorLocation);
+                sectorData = sectorBuffer(descriptorLocation);
+                descriptorSize = sectorSize(descriptorLocation);
+            }
+        }
+        directory.setSectors(sectors + descriptorSectors);
+        return loadSequence;
+    }
+
+    //Same descriptor chain, but each descriptor sector is allocated right before the data it lists
+    private SectorList writeInLoadOrder(SedoricDirectory directory, SedoricDescriptor descriptor) {
+        SectorList sectorList = new SectorList();
+        SectorList loadSequence = new SectorList();
+        int descriptorLocation = bitmap.getPackedFreeSector();
+        loadSequence.addPacked(descriptorLocation);
+        setDescriptorLocation(directory, descriptorLocation);
+        ByteBuffer firstSectorData = sectorBuffer(descriptorLocation);
+        ByteBuffer sectorData = firstSectorData;
+        int descriptorSize = sectorSize(descriptorLocation);
+        int descriptorSectors = 1;
+        int offset = HEADER_LENGTH;
+
+        int remaining = descriptor.getSize();
+        while (remaining > 0) {
+            int item = bitmap.getPackedFreeSector();
+            remaining -= sectorSize(item);
+            sectorList.addPacked(item);
+            loadSequence.addPacked(item);
+            putPointer(sectorData, offset, item);
+            offset += 2;
+            if (offset >= descriptorSize) {
+                offset = 2;
+                descriptorSectors++;
+                descriptorLocation = bitmap.getPackedFreeSector();
+                loadSequence.addPacked(descriptorLocation);
+                putPointer(sectorData, 0, descriptorLocation);
+                sectorData = sectorBuffer(descriptorLocation);
+                descriptorSize = sectorSize(descriptorLocation);
+            }
+        }
+        descriptor.setSectors(sectorList.size());
+        descriptor.setFileSectorList(sectorList);
+        writeDescriptorData(firstSectorData, descriptor);
+        directory.setSectors(sectorList.size() + descriptorSectors);
+        return loadSequence;
+    }
+
+}
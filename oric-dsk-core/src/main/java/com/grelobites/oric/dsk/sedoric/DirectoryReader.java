@@ -3,6 +3,7 @@ package com.grelobites.oric.dsk.sedoric;
 import com.grelobites.oric.dsk.Constants;
 import com.grelobites.oric.dsk.model.Disk;
 import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
 import com.grelobites.oric.dsk.util.Util;
 
 import java.nio.ByteBuffer;
@@ -11,30 +12,26 @@ import java.util.Optional;
 public class DirectoryReader {
     private static final int DIRECTORY_SIZE = 16;
     private Disk disk;
-    private SectorCoordinates coordinates;
 
     private int position;
     private byte[] sectorData;
 
     public DirectoryReader(Disk disk) {
         this.disk = disk;
-        this.coordinates = new SectorCoordinates(Constants.SEDORIC_DIRECTORY_TRACK,
+        sectorData = disk.copySector(Constants.SEDORIC_DIRECTORY_TRACK,
                 Constants.SEDORIC_DIRECTORY_SECTOR);
-        sectorData = disk.getSector(coordinates);
         position = DIRECTORY_SIZE;
     }
 
     public Optional<SedoricDirectory> next() {
         if (position == sectorData.length) {
-            coordinates = new SectorCoordinates(
-                    sectorData[0],
-                    sectorData[1]
-            );
+            int track = sectorData[0];
+            int sector = sectorData[1];
             position = DIRECTORY_SIZE;
-            if (!coordinates.isValid()) {
+            if (!SectorList.isValid(track, sector)) {
                 return Optional.empty();
             } else {
-                sectorData = disk.getSector(coordinates);
+                sectorData = disk.copySector(track, sector);
             }
         }
         ByteBuffer buffer = ByteBuffer.wrap(sectorData, position, position + DIRECTORY_SIZE);
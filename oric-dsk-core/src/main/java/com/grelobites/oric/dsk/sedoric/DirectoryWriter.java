@@ -0,0 +1,89 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+//Without a disk the directory sectors are only taken from the bitmap
+public class DirectoryWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectoryWriter.class);
+    private static final int DIRECTORY_SIZE = 16;
+    private final Disk disk;
+    private final DiskGeometry geometry;
+    private final SedoricBitmap bitmap;
+    private int currentSector;
+    private int position;
+    //Null when only planning
+    private ByteBuffer sectorData;
+    private int sectorSize;
+    private int sectorCount = 0;
+    private int directoryCount = 0;
+
+    public DirectoryWriter(Disk disk, SedoricBitmap bitmap) {
+        this.disk = disk;
+        this.geometry = bitmap.getDiskGeometry();
+        this.bitmap = bitmap;
+        this.position = DIRECTORY_SIZE;
+        this.currentSector = SectorList.pack(Constants.SEDORIC_DIRECTORY_TRACK,
+                Constants.SEDORIC_DIRECTORY_SECTOR);
+        bitmap.allocateSector(new SectorCoordinates(Constants.SEDORIC_DIRECTORY_TRACK,
+                Constants.SEDORIC_DIRECTORY_SECTOR));
+        selectSector(Constants.SEDORIC_DIRECTORY_TRACK, Constants.SEDORIC_DIRECTORY_SECTOR);
+        if (sectorData != null) {
+            sectorData.put(2, (byte) position);
+        }
+        sectorCount = 1;
+    }
+
+    public DirectoryWriter(SedoricBitmap bitmap) {
+        this(null, bitmap);
+    }
+
+    private void selectSector(int track, int sector) {
+        sectorData = disk != null ? disk.getSectorBuffer(track, sector) : null;
+        sectorSize = geometry.getTrackGeometry(track).getSectorSize();
+    }
+
+    public void write(SedoricDirectory directory) throws IOException {
+        if (sectorData != null) {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            directory.dump(stream);
+            ((Buffer) sectorData).position(position);
+            sectorData.put(stream.toByteArray(), 0, DIRECTORY_SIZE);
+            sectorData.put(2, (byte) (position + DIRECTORY_SIZE));
+        }
+        position += DIRECTORY_SIZE;
+        directoryCount++;
+        if (position >= sectorSize) {
+            currentSector = bitmap.getPackedFreeSector();
+            int track = SectorList.track(currentSector);
+            int sector = SectorList.sector(currentSector);
+            LOGGER.debug("Allocating new directory sector to ({}, {})", track, sector);
+            if (sectorData != null) {
+                sectorData.put(0, (byte) geometry.encodeTrack(track));
+                sectorData.put(1, (byte) sector);
+            }
+            selectSector(track, sector);
+            position = DIRECTORY_SIZE;
+            sectorCount++;
+        }
+    }
+
+    public int sectorCount() {
+        return sectorCount;
+    }
+
+    public int directoryCount() {
+        return directoryCount;
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * Keeps the bytes taken by a file system up to date from the changes to its archive list.
+ * With homogeneous geometries every file takes a fixed number of sectors, so changes are
+ * applied as deltas. Other geometries replay the allocation of the exporter on a bitmap,
+ * extended when files are appended and repeated from scratch on any other change.
+ * A full recomputation also happens after geometry, bootable or strategy changes.
+ */
+public class DiskUsageTracker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskUsageTracker.class);
+    private static final int FIRST_DESCRIPTOR_HEADER = 0x0c;
+    private static final int DESCRIPTOR_HEADER = 2;
+    private static final int DIRECTORY_ENTRY_SIZE = 16;
+
+    private final List<? extends SedoricArchive> archives;
+    private DiskGeometry geometry;
+    private boolean bootable;
+    private AllocationStrategy strategy;
+    private boolean valid = false;
+    private boolean homogeneous;
+    private int sectorSize;
+
+    //Homogeneous geometries: sector counts
+    private int systemSectors;
+    private int archiveSectors;
+
+    //Other geometries: replayed allocation
+    private SedoricBitmap bitmap;
+    private DescriptorWriter descriptorWriter;
+    private DirectoryWriter directoryWriter;
+    private int placedArchives;
+    private boolean exhausted;
+    private int overflowBytes;
+
+    public DiskUsageTracker(List<? extends SedoricArchive> archives, DiskGeometry geometry,
+                            boolean bootable, AllocationStrategy strategy) {
+        this.archives = archives;
+        this.geometry = geometry;
+        this.bootable = bootable;
+        this.strategy = strategy;
+    }
+
+    public void setGeometry(DiskGeometry geometry) {
+        this.geometry = geometry;
+        geometryChanged();
+    }
+
+    //The current geometry was modified in place
+    public void geometryChanged() {
+        valid = false;
+    }
+
+    public void setBootable(boolean bootable) {
+        if (this.bootable != bootable) {
+            this.bootable = bootable;
+            valid = false;
+        }
+    }
+
+    public void setAllocationStrategy(AllocationStrategy strategy) {
+        this.strategy = strategy;
+        valid = false;
+    }
+
+    public void archivesAdded(int from, List<? extends SedoricArchive> added) {
+        if (valid) {
+            if (homogeneous) {
+                for (SedoricArchive archive : added) {
+                    archiveSectors += fileSectors(archive.getSize());
+                }
+            } else if (from == placedArchives) {
+                for (SedoricArchive archive : added) {
+                    place(archive);
+                }
+            } else {
+                valid = false;
+            }
+        }
+    }
+
+    public void archivesRemoved(List<? extends SedoricArchive> removed) {
+        if (valid) {
+            if (homogeneous) {
+                for (SedoricArchive archive : removed) {
+                    archiveSectors -= fileSectors(archive.getSize());
+                }
+            } else {
+                valid = false;
+            }
+        }
+    }
+
+    public void archivesCleared() {
+        if (homogeneous) {
+            archiveSectors = 0;
+        } else {
+            valid = false;
+        }
+    }
+
+    public void archivesReordered() {
+        if (!homogeneous) {
+            valid = false;
+        }
+    }
+
+    public int getUsedBytes() {
+        if (!valid) {
+            recompute();
+        }
+        return homogeneous ?
+                (systemSectors + archiveSectors + extraDirectorySectors(archives.size())) * sectorSize :
+                bitmap.allocatedBytes() + overflowBytes;
+    }
+
+    public int getTotalBytes() {
+        return geometry.capacity();
+    }
+
+    private int fileSectors(int size) {
+        int dataSectors = (size + sectorSize - 1) / sectorSize;
+        int firstDescriptorEntries = (sectorSize - FIRST_DESCRIPTOR_HEADER) / 2;
+        int descriptorSectors = 1;
+        //The DescriptorWriter chains a new descriptor sector as soon as one gets full
+        if (dataSectors >= firstDescriptorEntries) {
+            descriptorSectors += 1 + (dataSectors - firstDescriptorEntries) /
+                    ((sectorSize - DESCRIPTOR_HEADER) / 2);
+        }
+        return dataSectors + descriptorSectors;
+    }
+
+    //Directory sectors beyond the first one, chained when the previous one gets full
+    private int extraDirectorySectors(int fileCount) {
+        return fileCount / ((sectorSize - DIRECTORY_ENTRY_SIZE) / DIRECTORY_ENTRY_SIZE);
+    }
+
+    private int bootstrapSectors() {
+        try {
+            return bootable ? (Constants.getSedoricBootStrap().length + sectorSize - 1) / sectorSize : 0;
+        } catch (IOException ioe) {
+            LOGGER.error("Trying to fetch Sedoric Boostrap", ioe);
+            return 0;
+        }
+    }
+
+    private void recompute() {
+        homogeneous = geometry.hasSectorCount();
+        sectorSize = geometry.getTrackGeometry(0).getSectorSize();
+        if (homogeneous) {
+            int totalSectors = geometry.getTrackCount() * geometry.getSideCount() * geometry.getSectorCount();
+            boolean twoBitmapSectors = (totalSectors + 7) / 8 > sectorSize - DIRECTORY_ENTRY_SIZE;
+            //System, bitmap and first directory sectors
+            systemSectors = (twoBitmapSectors ? 4 : 3) + bootstrapSectors();
+            archiveSectors = 0;
+            for (SedoricArchive archive : archives) {
+                archiveSectors += fileSectors(archive.getSize());
+            }
+        } else {
+            replay();
+        }
+        valid = true;
+    }
+
+    private void replay() {
+        LOGGER.debug("Replaying allocation of {} archives", archives.size());
+        bitmap = new SedoricBitmap(geometry, strategy);
+        directoryWriter = new DirectoryWriter(bitmap);
+        descriptorWriter = new DescriptorWriter(bitmap);
+        placedArchives = 0;
+        exhausted = false;
+        overflowBytes = 0;
+        try {
+            SedoricFileSystem.allocateSystemArea(null, bitmap, bootable);
+        } catch (IllegalStateException ise) {
+            exhausted = true;
+        } catch (IOException ioe) {
+            LOGGER.error("Allocating system area", ioe);
+        }
+        for (SedoricArchive archive : archives) {
+            place(archive);
+        }
+    }
+
+    private void place(SedoricArchive archive) {
+        placedArchives++;
+        int placedBytes = 0;
+        if (!exhausted) {
+            int allocatedBytes = bitmap.allocatedBytes();
+            try {
+                SedoricDirectory directory = SedoricFileSystem.directoryOf(archive);
+                descriptorWriter.write(directory, SedoricFileSystem.descriptorOf(archive));
+                directoryWriter.write(directory);
+                return;
+            } catch (IllegalStateException ise) {
+                LOGGER.debug("Disk full while placing {}", archive);
+                exhausted = true;
+                //Sectors taken before running out of space are already in the bitmap
+                placedBytes = bitmap.allocatedBytes() - allocatedBytes;
+            } catch (IOException ioe) {
+                LOGGER.error("Placing archive " + archive, ioe);
+                return;
+            }
+        }
+        //Files beyond the disk capacity are estimated with the sector size of track 0
+        overflowBytes += Math.max(0, fileSectors(archive.getSize()) * sectorSize - placedBytes);
+    }
+}
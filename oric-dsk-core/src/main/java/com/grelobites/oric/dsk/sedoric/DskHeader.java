@@ -4,11 +4,14 @@ import com.grelobites.oric.dsk.Constants;
 import com.grelobites.oric.dsk.util.FileType;
 import com.grelobites.oric.dsk.util.Util;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
 
 public class DskHeader {
 
@@ -57,8 +60,16 @@ public class DskHeader {
     }
 
     public static DskHeader fromInputStream(InputStream stream) throws IOException {
-        ByteBuffer buffer = ByteBuffer.wrap(Util.fromInputStream(stream, Constants.SECTOR_SIZE))
-                .order(ByteOrder.LITTLE_ENDIAN);
+        return fromByteBuffer(ByteBuffer.wrap(Util.fromInputStream(stream, Constants.SECTOR_SIZE)));
+    }
+
+    //Consumes the header bytes from the given buffer
+    public static DskHeader fromByteBuffer(ByteBuffer source) throws IOException {
+        if (source.remaining() < Constants.SECTOR_SIZE) {
+            throw new EOFException("No room for a DSK header");
+        }
+        ByteBuffer buffer = source.slice().order(ByteOrder.LITTLE_ENDIAN);
+        ((Buffer) source).position(((Buffer) source).position() + Constants.SECTOR_SIZE);
         byte[] signatureBytes = new byte[Constants.SIGNATURE_SIZE];
         buffer.get(signatureBytes);
         String signature = new String(signatureBytes);
@@ -75,7 +86,7 @@ public class DskHeader {
         return builder.build();
     }
 
-    public void dump(OutputStream stream) throws IOException {
+    private ByteBuffer toByteBuffer() {
         ByteBuffer buffer = ByteBuffer.allocate(Constants.SECTOR_SIZE)
                 .order(ByteOrder.LITTLE_ENDIAN);
         String trimmedSignature = signature.substring(0, Constants.SIGNATURE_SIZE);
@@ -84,7 +95,19 @@ public class DskHeader {
                 .putInt(getTracks())
                 .putInt(Constants.PLAIN_DSK_SIGNATURE.equals(trimmedSignature) ?
                         getSectors() : getGeometry());
-        stream.write(buffer.array());
+        ((Buffer) buffer).clear();
+        return buffer;
+    }
+
+    public void dump(OutputStream stream) throws IOException {
+        stream.write(toByteBuffer().array());
+    }
+
+    public void dump(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = toByteBuffer();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
     }
 
     public String getSignature() {
@@ -132,6 +155,13 @@ public class DskHeader {
                 FileType.PLAINDSK : FileType.MFMDSK;
     }
 
+    //Track data read after the header. Plain images only hold the first side
+    public long getImageSize() {
+        return getFileType() == FileType.PLAINDSK ?
+                (long) tracks * sectors * Constants.SECTOR_SIZE :
+                (long) tracks * sides * Constants.MFM_TRACK_SIZE;
+    }
+
     @Override
     public String toString() {
         return "DskHeader{" +
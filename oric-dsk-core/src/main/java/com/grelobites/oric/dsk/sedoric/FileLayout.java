@@ -0,0 +1,63 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
+
+import java.util.List;
+
+/*
+ * Placement of an exported file: its descriptor and data sectors in the order
+ * they are read, and the modeled time to load them
+ */
+public class FileLayout {
+    private final String name;
+    private final String extension;
+    private final SectorList sectors;
+    private final double loadTime;
+
+    public FileLayout(String name, String extension, SectorList sectors, double loadTime) {
+        this.name = name;
+        this.extension = extension;
+        this.sectors = sectors;
+        this.loadTime = loadTime;
+    }
+
+    public FileLayout(String name, String extension, List<SectorCoordinates> sectors, double loadTime) {
+        this(name, extension, SectorList.of(sectors), loadTime);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public List<SectorCoordinates> getSectors() {
+        return sectors.asList();
+    }
+
+    public SectorList getSectorList() {
+        return sectors;
+    }
+
+    public int getTrackCount() {
+        return sectors.trackCount();
+    }
+
+    //Milliseconds
+    public double getLoadTime() {
+        return loadTime;
+    }
+
+    @Override
+    public String toString() {
+        return "FileLayout{" +
+                "name='" + name + '\'' +
+                ", extension='" + extension + '\'' +
+                ", sectors=" + sectors.size() +
+                ", loadTime=" + loadTime +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.model.DiskGeometry;
+
+/*
+ * Fills the disk from track 0 on. Descriptors follow the data of their file
+ */
+public class FirstFreeAllocationStrategy implements AllocationStrategy {
+    public static final String NAME = "first-free";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int[] trackOrder(DiskGeometry geometry) {
+        int[] order = new int[geometry.getTrackCount() * geometry.getSideCount()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    @Override
+    public boolean isLoadOrdered() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return NAME;
+    }
+}
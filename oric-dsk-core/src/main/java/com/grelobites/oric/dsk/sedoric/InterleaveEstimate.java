@@ -0,0 +1,38 @@
+package com.grelobites.oric.dsk.sedoric;
+
+/*
+ * Modeled load time of a layout for an interleave and skew combination
+ */
+public class InterleaveEstimate {
+    private final int interleave;
+    private final int skew;
+    private final double loadTime;
+
+    public InterleaveEstimate(int interleave, int skew, double loadTime) {
+        this.interleave = interleave;
+        this.skew = skew;
+        this.loadTime = loadTime;
+    }
+
+    public int getInterleave() {
+        return interleave;
+    }
+
+    public int getSkew() {
+        return skew;
+    }
+
+    //Milliseconds
+    public double getLoadTime() {
+        return loadTime;
+    }
+
+    @Override
+    public String toString() {
+        return "InterleaveEstimate{" +
+                "interleave=" + interleave +
+                ", skew=" + skew +
+                ", loadTime=" + loadTime +
+                '}';
+    }
+}
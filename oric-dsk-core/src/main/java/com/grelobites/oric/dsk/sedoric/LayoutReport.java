@@ -0,0 +1,38 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import java.util.List;
+
+/*
+ * Modeled load times of the files of an exported disk
+ */
+public class LayoutReport {
+    private final AllocationStrategy strategy;
+    private final List<FileLayout> files;
+
+    public LayoutReport(AllocationStrategy strategy, List<FileLayout> files) {
+        this.strategy = strategy;
+        this.files = files;
+    }
+
+    public AllocationStrategy getStrategy() {
+        return strategy;
+    }
+
+    public List<FileLayout> getFiles() {
+        return files;
+    }
+
+    //Milliseconds
+    public double getTotalLoadTime() {
+        return files.stream().mapToDouble(FileLayout::getLoadTime).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "LayoutReport{" +
+                "strategy=" + strategy +
+                ", files=" + files.size() +
+                ", totalLoadTime=" + getTotalLoadTime() +
+                '}';
+    }
+}
@@ -0,0 +1,167 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
+import com.grelobites.oric.dsk.model.TrackGeometry;
+
+import java.util.List;
+
+/*
+ * Estimates the time a drive needs to read a sequence of sectors, from the head
+ * stepping and settling times and the rotational position of each sector in its
+ * track, after the interleave and skew of the track geometry. Times are in milliseconds. Reading starts with the head on the directory
+ * track, right after the first directory sector
+ */
+public class LoadTimeModel {
+    public static final LoadTimeModel DEFAULT = newBuilder().build();
+    //MFM data rate of 250 kbit/s
+    private static final double BYTE_TIME = 0.032;
+    //Sync zeroes, A1 marks and address mark before the ID and data fields
+    private static final int SYNC_LENGTH = 16;
+    private static final int ID_FIELD_LENGTH = 6;
+    private static final int CRC_LENGTH = 2;
+
+    private final double stepTime;
+    private final double settleTime;
+    private final double rotationTime;
+    private final double sectorOverhead;
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private double stepTime = 6;
+        private double settleTime = 15;
+        private int rpm = 300;
+        private double sectorOverhead = 0.5;
+
+        public Builder withStepTime(double stepTime) {
+            this.stepTime = stepTime;
+            return this;
+        }
+
+        public Builder withSettleTime(double settleTime) {
+            this.settleTime = settleTime;
+            return this;
+        }
+
+        public Builder withRpm(int rpm) {
+            this.rpm = rpm;
+            return this;
+        }
+
+        //Time between the end of a sector and the next read command
+        public Builder withSectorOverhead(double sectorOverhead) {
+            this.sectorOverhead = sectorOverhead;
+            return this;
+        }
+
+        public LoadTimeModel build() {
+            return new LoadTimeModel(stepTime, settleTime, 60000.0 / rpm, sectorOverhead);
+        }
+    }
+
+    private LoadTimeModel(double stepTime, double settleTime, double rotationTime,
+                          double sectorOverhead) {
+        this.stepTime = stepTime;
+        this.settleTime = settleTime;
+        this.rotationTime = rotationTime;
+        this.sectorOverhead = sectorOverhead;
+    }
+
+    public double getStepTime() {
+        return stepTime;
+    }
+
+    public double getSettleTime() {
+        return settleTime;
+    }
+
+    public double getRotationTime() {
+        return rotationTime;
+    }
+
+    public double getSectorOverhead() {
+        return sectorOverhead;
+    }
+
+    public int cylinder(DiskGeometry geometry, int track) {
+        return track % geometry.getTrackCount();
+    }
+
+    public double seekTime(int fromCylinder, int toCylinder) {
+        return fromCylinder == toCylinder ? 0 :
+                Math.abs(toCylinder - fromCylinder) * stepTime + settleTime;
+    }
+
+    private static int sectorLength(TrackGeometry geometry) {
+        return SYNC_LENGTH + ID_FIELD_LENGTH + geometry.getGap2() +
+                SYNC_LENGTH + geometry.getSectorSize() + CRC_LENGTH + geometry.getGap3();
+    }
+
+    //Time from the index hole to the start of the ID field in a physical slot
+    private static double slotStart(TrackGeometry geometry, int slot) {
+        return (geometry.getTrackLead() + slot * sectorLength(geometry)) * BYTE_TIME;
+    }
+
+    //Time from the start of the ID field to the end of the data field
+    private static double sectorReadTime(TrackGeometry geometry) {
+        return (sectorLength(geometry) - geometry.getGap3()) * BYTE_TIME;
+    }
+
+    private int sectorSlot(DiskGeometry geometry, int track, int sector,
+                           Integer interleave, Integer skew) {
+        TrackGeometry trackGeometry = geometry.getTrackGeometry(track);
+        return TrackGeometry.sectorSlot(sector, trackGeometry.getSectorCount(),
+                interleave != null ? interleave : trackGeometry.getInterleave(),
+                skew != null ? skew : trackGeometry.getSkew(),
+                cylinder(geometry, track));
+    }
+
+    public double loadTime(DiskGeometry geometry, List<SectorCoordinates> sectors) {
+        return loadTime(geometry, SectorList.of(sectors), null, null);
+    }
+
+    public double loadTime(DiskGeometry geometry, List<SectorCoordinates> sectors,
+                           Integer interleave, Integer skew) {
+        return loadTime(geometry, SectorList.of(sectors), interleave, skew);
+    }
+
+    //Load time with the given interleave and skew on every track. Null keeps the geometry values
+    public double loadTime(DiskGeometry geometry, SectorList sectors,
+                           Integer interleave, Integer skew) {
+        int directoryTrack = Constants.SEDORIC_DIRECTORY_TRACK;
+        TrackGeometry directoryGeometry = geometry.getTrackGeometry(directoryTrack);
+        double start = slotStart(directoryGeometry, sectorSlot(geometry, directoryTrack,
+                Constants.SEDORIC_DIRECTORY_SECTOR, interleave, skew)) +
+                sectorReadTime(directoryGeometry) + sectorOverhead;
+        double time = start;
+        int cylinder = cylinder(geometry, directoryTrack);
+        for (int i = 0; i < sectors.size(); i++) {
+            int track = sectors.getTrack(i);
+            int target = cylinder(geometry, track);
+            time += seekTime(cylinder, target);
+            cylinder = target;
+            TrackGeometry trackGeometry = geometry.getTrackGeometry(track);
+            double sectorStart = slotStart(trackGeometry, sectorSlot(geometry, track,
+                    sectors.getSector(i), interleave, skew));
+            double wait = (sectorStart - time) % rotationTime;
+            time += (wait < 0 ? wait + rotationTime : wait) +
+                    sectorReadTime(trackGeometry) + sectorOverhead;
+        }
+        return time - start;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadTimeModel{" +
+                "stepTime=" + stepTime +
+                ", settleTime=" + settleTime +
+                ", rotationTime=" + rotationTime +
+                ", sectorOverhead=" + sectorOverhead +
+                '}';
+    }
+}
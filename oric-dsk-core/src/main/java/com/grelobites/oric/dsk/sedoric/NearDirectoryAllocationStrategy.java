@@ -0,0 +1,59 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/*
+ * Fills the tracks by increasing seek time from the directory track, both sides
+ * of a cylinder before moving on. Descriptors are placed right before their data
+ * so that files are read in a single pass
+ */
+public class NearDirectoryAllocationStrategy implements AllocationStrategy {
+    public static final String NAME = "near-directory";
+    private final LoadTimeModel model;
+
+    public NearDirectoryAllocationStrategy() {
+        this(LoadTimeModel.DEFAULT);
+    }
+
+    public NearDirectoryAllocationStrategy(LoadTimeModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int[] trackOrder(DiskGeometry geometry) {
+        int trackCount = geometry.getTrackCount();
+        int directoryCylinder = model.cylinder(geometry, Constants.SEDORIC_DIRECTORY_TRACK);
+        Integer[] tracks = new Integer[trackCount * geometry.getSideCount()];
+        for (int i = 0; i < tracks.length; i++) {
+            tracks[i] = i;
+        }
+        Arrays.sort(tracks, Comparator
+                .comparingDouble((Integer t) -> model.seekTime(directoryCylinder, model.cylinder(geometry, t)))
+                .thenComparingInt(t -> model.cylinder(geometry, t))
+                .thenComparingInt(t -> t));
+        int[] order = new int[tracks.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = tracks[i];
+        }
+        return order;
+    }
+
+    @Override
+    public boolean isLoadOrdered() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return NAME;
+    }
+}
@@ -0,0 +1,61 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.model.DiskGeometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Replays the sequential reads of the files in a layout under every interleave,
+ * each with the skew that loads them faster
+ */
+public class ReadTimeSimulator {
+    private final LoadTimeModel model;
+
+    public ReadTimeSimulator(LoadTimeModel model) {
+        this.model = model;
+    }
+
+    private static int maxSectorCount(DiskGeometry geometry) {
+        int max = 1;
+        for (int i = 0; i < geometry.getTrackCount() * geometry.getSideCount(); i++) {
+            max = Math.max(max, geometry.getTrackGeometry(i).getSectorCount());
+        }
+        return max;
+    }
+
+    public double loadTime(DiskGeometry geometry, LayoutReport layout, int interleave, int skew) {
+        double time = 0;
+        for (FileLayout file : layout.getFiles()) {
+            time += model.loadTime(geometry, file.getSectorList(), interleave, skew);
+        }
+        return time;
+    }
+
+    //One estimate per interleave, from 1 to the number of sectors per track minus one
+    public List<InterleaveEstimate> simulate(DiskGeometry geometry, LayoutReport layout) {
+        int sectorCount = maxSectorCount(geometry);
+        List<InterleaveEstimate> estimates = new ArrayList<>();
+        for (int interleave = 1; interleave < Math.max(2, sectorCount); interleave++) {
+            InterleaveEstimate best = null;
+            for (int skew = 0; skew < sectorCount; skew++) {
+                double time = loadTime(geometry, layout, interleave, skew);
+                if (best == null || time < best.getLoadTime()) {
+                    best = new InterleaveEstimate(interleave, skew, time);
+                }
+            }
+            estimates.add(best);
+        }
+        return estimates;
+    }
+
+    public InterleaveEstimate fastest(DiskGeometry geometry, LayoutReport layout) {
+        InterleaveEstimate fastest = null;
+        for (InterleaveEstimate estimate : simulate(geometry, layout)) {
+            if (fastest == null || estimate.getLoadTime() < fastest.getLoadTime()) {
+                fastest = estimate;
+            }
+        }
+        return fastest;
+    }
+}
@@ -1,92 +1,78 @@
 package com.grelobites.oric.dsk.sedoric;
 
 import com.grelobites.oric.dsk.model.Archive;
-
-
-import javafx.beans.property.*;
+import com.grelobites.oric.dsk.model.SectorDataView;
 
 public class SedoricArchive extends Archive {
-    private IntegerProperty loadAddress;
-    private IntegerProperty execAddress;
-    private BooleanProperty executableAttribute;
-    private BooleanProperty blockAttribute;
-    private BooleanProperty protectedAttribute;
+    private int loadAddress;
+    private int execAddress;
+    private boolean executableAttribute;
+    private boolean blockAttribute;
+    private boolean protectedAttribute;
 
     public SedoricArchive(String name, String extension, byte[] data) {
         super(name, extension, data);
-        this.loadAddress = new SimpleIntegerProperty();
-        this.execAddress = new SimpleIntegerProperty();
-        this.executableAttribute = new SimpleBooleanProperty(false);
-        this.protectedAttribute = new SimpleBooleanProperty(false);
-        this.blockAttribute = new SimpleBooleanProperty(false);
     }
 
-    public int getLoadAddress() {
-        return loadAddress.get();
+    public SedoricArchive(String name, String extension, SectorDataView dataView) {
+        super(name, extension, dataView);
+    }
+
+    protected SedoricArchive(SedoricArchive source) {
+        super(source);
+        this.loadAddress = source.getLoadAddress();
+        this.execAddress = source.getExecAddress();
+        this.executableAttribute = source.isExecutableAttribute();
+        this.blockAttribute = source.isBlockAttribute();
+        this.protectedAttribute = source.isProtectedAttribute();
     }
 
-    public IntegerProperty loadAddressProperty() {
+    public int getLoadAddress() {
         return loadAddress;
     }
 
     public void setLoadAddress(int loadAddress) {
-        this.loadAddress.set(loadAddress);
+        this.loadAddress = loadAddress;
     }
 
     public int getExecAddress() {
-        return execAddress.get();
-    }
-
-    public IntegerProperty execAddressProperty() {
         return execAddress;
     }
 
     public void setExecAddress(int execAddress) {
-        this.execAddress.set(execAddress);
+        this.execAddress = execAddress;
     }
 
     public boolean getExecutableAttribute() {
-        return executableAttribute.get();
-    }
-
-    public BooleanProperty executableAttributeProperty() {
         return executableAttribute;
     }
 
     public void setExecutableAttribute(boolean executableAttribute) {
-        this.executableAttribute.set(executableAttribute);
+        this.executableAttribute = executableAttribute;
     }
 
     public boolean getBlockAttribute() {
-        return blockAttribute.get();
-    }
-
-    public BooleanProperty blockAttributeProperty() {
         return blockAttribute;
     }
 
     public void setBlockAttribute(boolean blockAttribute) {
-        this.blockAttribute.set(blockAttribute);
+        this.blockAttribute = blockAttribute;
     }
 
     public boolean isProtectedAttribute() {
-        return protectedAttribute.get();
-    }
-
-    public BooleanProperty protectedAttributeProperty() {
         return protectedAttribute;
     }
 
     public void setProtectedAttribute(boolean protectedAttribute) {
-        this.protectedAttribute.set(protectedAttribute);
+        this.protectedAttribute = protectedAttribute;
     }
 
     public boolean isExecutableAttribute() {
-        return executableAttribute.get();
+        return executableAttribute;
     }
 
     public boolean isBlockAttribute() {
-        return blockAttribute.get();
+        return blockAttribute;
     }
 
     @Override
@@ -0,0 +1,246 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public class SedoricBitmap {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SedoricBitmap.class);
+
+    private static final int BITMAP_HEADER_LENGTH = 0x10;
+    private DiskGeometry diskGeometry;
+    private int[] trackOffsets;
+    //Track of each linear sector
+    private int[] sectorTracks;
+    //One bit per linear sector, set when the sector is free
+    private long[] words;
+    private int bitmapSize;
+    private int sectorCount;
+    //No free sectors below this linear sector. Sectors are never released
+    private int nextFreeSector = 0;
+    private int freeSectors = 0;
+    private int allocatedBytes = 0;
+    //Tracks in allocation order. No free sectors in the ones before trackOrderIndex
+    private final AllocationStrategy allocationStrategy;
+    private final int[] trackOrder;
+    private int trackOrderIndex = 0;
+
+    public SedoricBitmap(DiskGeometry diskGeometry) {
+        this(diskGeometry, new FirstFreeAllocationStrategy());
+    }
+
+    public SedoricBitmap(DiskGeometry diskGeometry, AllocationStrategy strategy) {
+        this.diskGeometry = diskGeometry;
+        this.allocationStrategy = strategy;
+        this.trackOrder = strategy.trackOrder(diskGeometry);
+        int trackCount = diskGeometry.getTrackCount() * diskGeometry.getSideCount();
+        trackOffsets = new int[trackCount + 1];
+        freeSectors = 0;
+        for (int i = 0; i < trackCount; i++) {
+            trackOffsets[i] = freeSectors;
+            freeSectors += diskGeometry.getTrackGeometry(i).getSectorCount();
+            LOGGER.debug("Accumulated sectors after track {} are {}",
+                    i, freeSectors);
+        }
+        trackOffsets[trackOffsets.length - 1] = freeSectors;
+        sectorCount = freeSectors;
+        sectorTracks = new int[sectorCount];
+        for (int i = 0; i < trackCount; i++) {
+            Arrays.fill(sectorTracks, trackOffsets[i], trackOffsets[i + 1], i);
+        }
+
+        LOGGER.debug("Bitmap with {} sectors", freeSectors);
+        bitmapSize = (freeSectors + 0x07) >> 3;
+        LOGGER.debug("Creating a bitmap of {} bytes", bitmapSize);
+        words = new long[(sectorCount + 63) >> 6];
+        Arrays.fill(words, -1L);
+        if ((sectorCount & 63) != 0) {
+            words[words.length - 1] = (1L << (sectorCount & 63)) - 1;
+        }
+    }
+
+    public DiskGeometry getDiskGeometry() {
+        return diskGeometry;
+    }
+
+    public AllocationStrategy getAllocationStrategy() {
+        return allocationStrategy;
+    }
+
+    public boolean requiresTwoSectors() {
+        return bitmapSize > diskGeometry.getTrackGeometry(Constants.SEDORIC_DIRECTORY_TRACK)
+                .getSectorSize() - BITMAP_HEADER_LENGTH;
+    }
+
+    public SectorCoordinates  allocateSector(SectorCoordinates sectorCoordinates) {
+        LOGGER.debug("allocateSector " + sectorCoordinates);
+        if (freeSectors > 0) {
+            int linearSector = trackOffsets[sectorCoordinates.getTrack()] + sectorCoordinates.getSector() - 1;
+            words[linearSector >> 6] &= ~(1L << linearSector);
+            freeSectors--;
+            allocatedBytes += diskGeometry.getTrackGeometry(sectorCoordinates.getTrack()).getSectorSize();
+            return sectorCoordinates;
+        } else {
+            throw new IllegalStateException("Bitmap space exhausted");
+        }
+    }
+
+    private SectorCoordinates fromLinearSector(int linearSector) {
+        int track = sectorTracks[linearSector];
+        int sector = linearSector - trackOffsets[track] + 1;
+        LOGGER.debug("Free sector found at ({}, {})", track, sector);
+        return new SectorCoordinates(track, sector);
+    }
+
+    //First free linear sector in [from, to), or -1
+    private int findFreeSector(int from, int to) {
+        if (from >= to) {
+            return -1;
+        }
+        int index = from >> 6;
+        long word = words[index] & (-1L << from);
+        while (word == 0) {
+            if (++index >= words.length || index << 6 >= to) {
+                return -1;
+            }
+            word = words[index];
+        }
+        int linearSector = (index << 6) + Long.numberOfTrailingZeros(word);
+        return linearSector < to ? linearSector : -1;
+    }
+
+    private int takeSector(int linearSector) {
+        words[linearSector >> 6] &= ~(1L << linearSector);
+        freeSectors--;
+        int track = sectorTracks[linearSector];
+        allocatedBytes += diskGeometry.getTrackGeometry(track).getSectorSize();
+        return linearSector;
+    }
+
+    //Lowest free sector in the disk, regardless of the allocation strategy
+    public SectorCoordinates getFirstFreeSector() {
+        if (freeSectors > 0) {
+            int firstFreeSector = findFreeSector(nextFreeSector, sectorCount);
+            if (firstFreeSector < 0) {
+                throw new IllegalStateException("No free sector found");
+            }
+            nextFreeSector = firstFreeSector + 1;
+            LOGGER.debug("Found first free sector at linear offset {}", firstFreeSector);
+            return fromLinearSector(takeSector(firstFreeSector));
+        } else {
+            throw new IllegalStateException("Bitmap space exhausted");
+        }
+    }
+
+    //Lowest free sector of the first track with room, in allocation order
+    public SectorCoordinates getFreeSector() {
+        return fromLinearSector(takeFreeSector());
+    }
+
+    //Same as getFreeSector, packed as in SectorList
+    public int getPackedFreeSector() {
+        int linearSector = takeFreeSector();
+        int track = sectorTracks[linearSector];
+        return SectorList.pack(track, linearSector - trackOffsets[track] + 1);
+    }
+
+    private int takeFreeSector() {
+        if (freeSectors > 0) {
+            while (trackOrderIndex < trackOrder.length) {
+                int track = trackOrder[trackOrderIndex];
+                int freeSector = findFreeSector(trackOffsets[track], trackOffsets[track + 1]);
+                if (freeSector >= 0) {
+                    LOGGER.debug("Found free sector at linear offset {}", freeSector);
+                    return takeSector(freeSector);
+                }
+                trackOrderIndex++;
+            }
+            throw new IllegalStateException("No free sector found");
+        } else {
+            throw new IllegalStateException("Bitmap space exhausted");
+        }
+    }
+
+    public int freeSectors() {
+        return freeSectors;
+    }
+
+    //Bytes in the sectors allocated so far
+    public int allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    //On disk layout: one bit per sector, LSB first, with the padding bits set
+    private byte[] toByteArray() {
+        byte[] bitmap = new byte[bitmapSize];
+        Arrays.fill(bitmap, (byte) 0xff);
+        for (int i = 0; i < sectorCount; i += 8) {
+            int bits = (int) (words[i >> 6] >>> (i & 63)) & 0xff;
+            if (sectorCount - i < 8) {
+                bits |= 0xff << (sectorCount - i);
+            }
+            bitmap[i >> 3] = (byte) bits;
+        }
+        return bitmap;
+    }
+
+    private void writeBitmapSector(Disk disk, SectorCoordinates coordinates,
+                                   int trackCount, int sectorCount,
+                                   int fileCount, int directorySectorCount,
+                                   byte[] bitmap, int offset, int size) {
+        ByteBuffer buffer = disk.getSectorBuffer(coordinates)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = BITMAP_HEADER_LENGTH; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0xFF);
+        }
+        buffer.put((byte) 0xff)
+                .put((byte) 0)
+                .putShort((short) freeSectors)
+                .putShort((short) fileCount)
+                .put((byte) trackCount)
+                .put((byte) sectorCount)
+                .put((byte) directorySectorCount)
+                .put((byte) (trackCount | (diskGeometry.getSideCount() == 2 ?
+                        0x80 : 0x00)))
+                .putInt(0)
+                .putShort((short) 0)
+                .put(bitmap, offset, size);
+    }
+
+    public void flush(Disk disk, int fileCount, int directorySectorCount) {
+        int trackCount = diskGeometry.getTrackCount();
+        int sectorSize = diskGeometry.getTrackGeometry(Constants.SEDORIC_DIRECTORY_TRACK).getSectorSize();
+
+        byte[] bitmap = toByteArray();
+        //Bitmap bytes that do not fit after the header of the first sector
+        int remaining = bitmap.length - (sectorSize - BITMAP_HEADER_LENGTH);
+        LOGGER.debug("Inserting first bitmap  with size {}",
+                remaining > 0 ? sectorSize - BITMAP_HEADER_LENGTH : bitmap.length);
+        writeBitmapSector(disk,
+                new SectorCoordinates(Constants.SEDORIC_DIRECTORY_TRACK,
+                        Constants.SEDORIC_BITMAP_SECTOR),
+                trackCount, diskGeometry.getTrackGeometry(0).getSectorCount(),
+                fileCount, directorySectorCount, bitmap, 0,
+                remaining > 0 ? sectorSize - BITMAP_HEADER_LENGTH : bitmap.length);
+        if (remaining > 0) {
+            LOGGER.debug("Inserting second bitmap from {} with length {}",
+                    sectorSize - BITMAP_HEADER_LENGTH,
+                    remaining);
+            writeBitmapSector(disk,
+                    new SectorCoordinates(Constants.SEDORIC_DIRECTORY_TRACK,
+                            Constants.SEDORIC_BITMAP_SECTOR + 1),
+                    trackCount, diskGeometry.getTrackGeometry(0).getSectorCount(),
+                    fileCount, directorySectorCount, bitmap,
+                    sectorSize - BITMAP_HEADER_LENGTH,
+                    remaining);
+        }
+    }
+}
@@ -3,13 +3,14 @@ package com.grelobites.oric.dsk.sedoric;
 import com.grelobites.oric.dsk.Constants;
 import com.grelobites.oric.dsk.model.Disk;
 import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
 import com.grelobites.oric.dsk.util.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.util.ArrayList;
 import java.util.List;
 
 public class SedoricDescriptor {
@@ -23,7 +24,7 @@ public class SedoricDescriptor {
     private boolean block;
     private int sectors;
 
-    private List<SectorCoordinates> fileSectors = new ArrayList<>();
+    private SectorList fileSectors = new SectorList();
 
     public static Builder newBuilder() {
         return new Builder();
@@ -33,6 +34,10 @@ public class SedoricDescriptor {
         fileSectors.add(sectorCoordinates);
     }
 
+    public void addFileSector(int track, int sector) {
+        fileSectors.add(track, sector);
+    }
+
     public int getStartAddress() {
         return startAddress;
     }
@@ -49,6 +54,11 @@ public class SedoricDescriptor {
         this.endAddress = endAddress;
     }
 
+    //The end address is the one of the last byte
+    public int getSize() {
+        return endAddress - startAddress + 1;
+    }
+
     public int getExecAddress() {
         return execAddress;
     }
@@ -81,11 +91,20 @@ public class SedoricDescriptor {
         this.sectors = sectors;
     }
 
+    //Read only view of the packed list
     public List<SectorCoordinates> getFileSectors() {
-        return fileSectors;
+        return fileSectors.asList();
     }
 
     public void setFileSectors(List<SectorCoordinates> fileSectors) {
+        this.fileSectors = SectorList.of(fileSectors);
+    }
+
+    public SectorList getFileSectorList() {
+        return fileSectors;
+    }
+
+    public void setFileSectorList(SectorList fileSectors) {
         this.fileSectors = fileSectors;
     }
 
@@ -137,55 +156,60 @@ public class SedoricDescriptor {
         do {
             LOGGER.debug("Searching for descriptors in sector(" + track + ", " + sector
                     + ") @" + offset);
-            byte[] sectorData = disk.getSectorFromEncodedTrack(new SectorCoordinates(track, sector));
+            ByteBuffer sectorData = disk.getSectorBufferFromEncodedTrack(track, sector);
             while (offset < Constants.SECTOR_SIZE) {
-                SectorCoordinates coordinates = new SectorCoordinates(
-                        Util.asUnsignedByte(sectorData[offset++]),
-                        Util.asUnsignedByte(sectorData[offset++])
-                );
-                if (coordinates.isValid()) {
-                    descriptor.addFileSector(coordinates);
+                int fileTrack = Util.asUnsignedByte(sectorData.get(offset++));
+                int fileSector = Util.asUnsignedByte(sectorData.get(offset++));
+                if (SectorList.isValid(fileTrack, fileSector)) {
+                    descriptor.addFileSector(fileTrack, fileSector);
                     sectorCount++;
                 } else {
-                    LOGGER.debug("Found invalid file coordinates {} with count {}, expected sectors {}",
-                            coordinates, sectorCount, descriptor.getSectors());
+                    LOGGER.debug("Found invalid file coordinates ({}, {}) with count {}, expected sectors {}",
+                            fileTrack, fileSector, sectorCount, descriptor.getSectors());
                     break;
                 }
             }
-            track = Util.asUnsignedByte(sectorData[0]);
-            sector = Util.asUnsignedByte(sectorData[1]);
+            track = Util.asUnsignedByte(sectorData.get(0));
+            sector = Util.asUnsignedByte(sectorData.get(1));
             offset = 2;
         } while (track != 0 && sectorCount < descriptor.getSectors());
         return descriptor;
     }
 
     public static SedoricDescriptor forSector(int descriptorTrack, int descriptorSector, Disk disk) {
-        byte[] sectorData = disk
-                .getSectorFromEncodedTrack(
-                        new SectorCoordinates(descriptorTrack,
-                                descriptorSector));
-        if (sectorData[0] != 0) {
+        return fillFileDescriptors(headerForSector(descriptorTrack, descriptorSector, disk),
+                descriptorTrack, descriptorSector, disk);
+    }
+
+    //Only the descriptor header, without following the file sectors list
+    public static SedoricDescriptor headerForSector(int descriptorTrack, int descriptorSector, Disk disk) {
+        ByteBuffer sectorData = disk.getSectorBufferFromEncodedTrack(descriptorTrack, descriptorSector);
+        if (sectorData == null) {
+            throw new IllegalArgumentException("Descriptor sector " + descriptorTrack + ", "
+                    + descriptorSector + " not found");
+        }
+        if (sectorData.get(0) != 0 && LOGGER.isDebugEnabled()) {
             LOGGER.debug("Descriptor pointing to another sector:{}",
-                    Util.dumpAsHexString(disk.getSectorFromEncodedTrack(
-                            new SectorCoordinates(Util.asUnsignedByte(sectorData[0]),
-                                    Util.asUnsignedByte(sectorData[1])))));
+                    Util.dumpAsHexString(disk.copySectorFromEncodedTrack(
+                            Util.asUnsignedByte(sectorData.get(0)),
+                            Util.asUnsignedByte(sectorData.get(1)))));
         }
-        ByteBuffer buffer = ByteBuffer.wrap(sectorData,2, HEADER_LENGTH)
-                .order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer buffer = sectorData.order(ByteOrder.LITTLE_ENDIAN);
+        ((Buffer) buffer).position(2);
         Builder builder = newBuilder();
         if (Util.asUnsignedByte(buffer.get()) == DESCRIPTOR_SIGNATURE) {
             int flags = Util.asUnsignedByte(buffer.get());
-            SedoricDescriptor descriptor = builder.withExecutable((flags & 0x01) != 0)
+            return builder.withExecutable((flags & 0x01) != 0)
                     .withBlock((flags & 0x40) != 0)
                     .withStartAddress(Util.asUnsignedShort(buffer.getShort()))
                     .withEndAddress(Util.asUnsignedShort(buffer.getShort()))
                     .withExecAddress(Util.asUnsignedShort(buffer.getShort()))
                     .withSectors(Util.asUnsignedShort(buffer.getShort()))
                     .build();
-            return fillFileDescriptors(descriptor, descriptorTrack, descriptorSector, disk);
         } else {
             LOGGER.debug("Found unexpected descriptor signature at ({}, {}). Sector is {}",
-                    descriptorTrack, descriptorSector, Util.dumpAsHexString(buffer.array()));
+                    descriptorTrack, descriptorSector,
+                    Util.dumpAsHexString(disk.copySectorFromEncodedTrack(descriptorTrack, descriptorSector)));
             throw new IllegalArgumentException("Unexpected descriptor signature");
         }
     }
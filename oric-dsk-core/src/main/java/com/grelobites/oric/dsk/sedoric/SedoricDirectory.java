@@ -1,20 +1,28 @@
 package com.grelobites.oric.dsk.sedoric;
 
 import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.jfr.ArchiveReadEvent;
+import com.grelobites.oric.dsk.jfr.CatalogEvent;
+import com.grelobites.oric.dsk.jfr.JfrSupport;
+import com.grelobites.oric.dsk.metrics.DskMetrics;
+import com.grelobites.oric.dsk.model.CatalogEntry;
 import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskFormat;
 import com.grelobites.oric.dsk.model.DiskGeometry;
 import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorDataView;
 import com.grelobites.oric.dsk.util.Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
     /*
        - Base offset: 0x10 (Sector start)
@@ -33,6 +41,9 @@ public class SedoricDirectory {
     private static final Logger LOGGER = LoggerFactory.getLogger(SedoricDirectory.class);
     private static final int DIRECTORY_SIZE = 16;
     private static final byte PADDING_BYTE = (byte) ' ';
+    //Status byte. Bit 6 is always set, bit 7 marks protected files
+    public static final int STATUS_FLAGS = 0x40;
+    public static final int PROTECTED_FLAG = 0x80;
 
     private String name;
     private String extension;
@@ -130,6 +141,7 @@ public class SedoricDirectory {
     }
 
     public SedoricArchive getArchive(Disk disk) {
+        ArchiveReadEvent event = JfrSupport.AVAILABLE ? ArchiveReadEvent.start(DiskFormat.SEDORIC.name) : null;
         LOGGER.debug("Getting archive for directory {}", this);
         SedoricDescriptor descriptor = SedoricDescriptor.forSector(
                 descriptorLocation.getTrack(),
@@ -137,30 +149,55 @@ public class SedoricDirectory {
                 disk);
         LOGGER.debug("Got descriptor {} with sector count {}",
                 descriptor, descriptor.getFileSectors().size());
-        ByteArrayOutputStream data = new ByteArrayOutputStream();
-        descriptor.getFileSectors().forEach(c -> {
-            try {
-                data.write(disk.getSectorFromEncodedTrack(new SectorCoordinates(c.getTrack(), c.getSector())));
-            } catch (IOException ioe) {
-                LOGGER.error("Writing data to file buffer", ioe);
-            }
-        });
-        SedoricArchive archive = new SedoricArchive(name, extension, data.toByteArray());
-        archive.setSize(descriptor.getEndAddress() - descriptor.getStartAddress() + 1);
+        SedoricArchive archive = new SedoricArchive(name, extension,
+                SectorDataView.fromEncodedSectors(disk, descriptor.getFileSectorList()));
+        archive.setSize(descriptor.getSize());
         archive.setLoadAddress(descriptor.getStartAddress());
         archive.setExecAddress(descriptor.getExecAddress());
         archive.setBlockAttribute(descriptor.isBlock());
         archive.setExecutableAttribute(descriptor.isExecutable());
-
+        archive.setProtectedAttribute(isProtected());
+        if (event != null) {
+            event.complete(name, extension, descriptor.getFileSectorList().size(), archive.getSize());
+        }
         return archive;
     }
 
-    private static void addDirectoryEntries(List<SedoricDirectory> list, byte[] sector,
+    public boolean isProtected() {
+        return (flags & PROTECTED_FLAG) != 0;
+    }
+
+    //Empty when the descriptor cannot be read
+    public Optional<CatalogEntry> getCatalogEntry(Disk disk) {
+        try {
+            SedoricDescriptor descriptor = SedoricDescriptor.headerForSector(
+                    descriptorLocation.getTrack(),
+                    descriptorLocation.getSector(),
+                    disk);
+            return Optional.of(CatalogEntry.newBuilder()
+                    .withName(name)
+                    .withExtension(extension)
+                    .withSize(descriptor.getSize())
+                    .withLoadAddress(descriptor.getStartAddress())
+                    .withExecAddress(descriptor.getExecAddress())
+                    .withBlockAttribute(descriptor.isBlock())
+                    .withExecutableAttribute(descriptor.isExecutable())
+                    .withProtectedAttribute(isProtected())
+                    .withArchiveLoader(() -> getArchive(disk))
+                    .build());
+        } catch (Exception e) {
+            LOGGER.warn("Trying to get catalog entry from directory {}", this, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void addDirectoryEntries(List<SedoricDirectory> list, ByteBuffer sector,
                                             int offset, int size) {
         LOGGER.debug("addDirectoryEntries with offset {} and size {}", offset, size);
-        while (offset < size && sector[offset] != 0) {
-            LOGGER.debug("Iteration with offset {} for a sector of size {}", offset, sector.length);
-            ByteBuffer buffer = ByteBuffer.wrap(sector, offset, DIRECTORY_SIZE);
+        while (offset < size && sector.get(offset) != 0) {
+            LOGGER.debug("Iteration with offset {} for a sector of size {}", offset, sector.capacity());
+            ByteBuffer buffer = sector.duplicate().order(ByteOrder.BIG_ENDIAN);
+            ((Buffer) buffer).position(offset);
             byte[] nameBytes = new byte[Constants.SEDORIC_FILENAME_MAXLENGTH];
             byte[] extensionBytes = new byte[Constants.SEDORIC_FILEEXTENSION_MAXLENGTH];
             buffer.get(nameBytes).get(extensionBytes);
@@ -180,20 +217,32 @@ public class SedoricDirectory {
     }
 
     public static List<SedoricDirectory> fromDisk(Disk disk) {
+        CatalogEvent event = JfrSupport.AVAILABLE ? CatalogEvent.start(DiskFormat.SEDORIC.name) : null;
+        long startTime = DskMetrics.get().startTime();
         List<SedoricDirectory> result = new ArrayList<>();
+        int directorySectors = 0;
         int track = Constants.SEDORIC_DIRECTORY_TRACK;
         int sector = Constants.SEDORIC_DIRECTORY_SECTOR;
         final DiskGeometry geometry = disk.getGeometry();
         do {
-            byte[] sectorData = disk.getSectorFromEncodedTrack(new SectorCoordinates(track, sector));
+            ByteBuffer sectorData = disk.getSectorBufferFromEncodedTrack(track, sector);
+            if (sectorData == null) {
+                LOGGER.warn("Directory sector {}, {} not found. Directory truncated", track, sector);
+                break;
+            }
+            directorySectors++;
             addDirectoryEntries(result, sectorData, DIRECTORY_SIZE, geometry
                     .getTrackGeometry(geometry.decodeTrack(track)).getSectorSize());
-            LOGGER.debug("Sector {}, {} points to Sector {}, {}", track, sector, sectorData[0] & 0xff, sectorData[1] & 0xff);
-            track = sectorData[0] & 0xff;
-            sector = sectorData[1] & 0xff;
+            LOGGER.debug("Sector {}, {} points to Sector {}, {}", track, sector, sectorData.get(0) & 0xff, sectorData.get(1) & 0xff);
+            track = sectorData.get(0) & 0xff;
+            sector = sectorData.get(1) & 0xff;
 
             LOGGER.debug("File count is {}", result.size());
         } while (track != 0);
+        if (event != null) {
+            event.complete(result.size(), directorySectors);
+        }
+        DskMetrics.get().catalogRead(startTime);
         return result;
     }
 
@@ -0,0 +1,446 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.jfr.JfrSupport;
+import com.grelobites.oric.dsk.jfr.SectorAllocationEvent;
+import com.grelobites.oric.dsk.metrics.DskMetrics;
+import com.grelobites.oric.dsk.model.ComplexDiskGeometry;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskFormat;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
+import com.grelobites.oric.dsk.model.SimpleDiskGeometry;
+import com.grelobites.oric.dsk.oricdos.OricDosDirectory;
+import com.grelobites.oric.dsk.util.ArchiveNameRegistry;
+import com.grelobites.oric.dsk.util.ArchiveUtil;
+import com.grelobites.oric.dsk.util.DskUtil;
+import com.grelobites.oric.dsk.util.MfmDskWriter;
+import com.grelobites.oric.dsk.util.ProgressMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class SedoricFileSystem {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SedoricFileSystem.class);
+    private final List<SedoricArchive> archiveList = new ArrayList<>();
+    private final ArchiveNameRegistry nameRegistry = new ArchiveNameRegistry();
+    private DiskGeometry diskGeometry = Constants.DEFAULT_DISK_GEOMETRY;
+    private String name = Constants.EMPTY_STRING;
+    private String initString = Constants.EMPTY_STRING;
+    private int paperColor = Constants.DEFAULT_PAPER_COLOR;
+    private int penColor = Constants.DEFAULT_PEN_COLOR;
+    private boolean bootable = true;
+    private AllocationStrategy allocationStrategy = new FirstFreeAllocationStrategy();
+    private LoadTimeModel loadTimeModel = LoadTimeModel.DEFAULT;
+    //Sector interleave and skew of the exported tracks. Null to keep the ones in the geometry
+    private Integer interleave;
+    private Integer skew;
+    private final DiskUsageTracker usageTracker = new DiskUsageTracker(archiveList, diskGeometry,
+            bootable, allocationStrategy);
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getInitString() {
+        return initString;
+    }
+
+    public void setInitString(String initString) {
+        this.initString = initString;
+    }
+
+    public int getPaperColor() {
+        return paperColor;
+    }
+
+    public void setPaperColor(int paperColor) {
+        this.paperColor = paperColor;
+    }
+
+    public int getPenColor() {
+        return penColor;
+    }
+
+    public void setPenColor(int penColor) {
+        this.penColor = penColor;
+    }
+
+    public boolean getBootable() {
+        return bootable;
+    }
+
+    public void setBootable(boolean bootable) {
+        this.bootable = bootable;
+        usageTracker.setBootable(bootable);
+    }
+
+    public AllocationStrategy getAllocationStrategy() {
+        return allocationStrategy;
+    }
+
+    public void setAllocationStrategy(AllocationStrategy allocationStrategy) {
+        this.allocationStrategy = allocationStrategy;
+        usageTracker.setAllocationStrategy(allocationStrategy);
+    }
+
+    public LoadTimeModel getLoadTimeModel() {
+        return loadTimeModel;
+    }
+
+    public void setLoadTimeModel(LoadTimeModel loadTimeModel) {
+        this.loadTimeModel = loadTimeModel;
+    }
+
+    public Integer getInterleave() {
+        return interleave;
+    }
+
+    public void setInterleave(Integer interleave) {
+        this.interleave = interleave;
+    }
+
+    public Integer getSkew() {
+        return skew;
+    }
+
+    public void setSkew(Integer skew) {
+        this.skew = skew;
+    }
+
+    public void openDsk(InputStream stream) throws IOException {
+        openDsk(DskUtil.diskFromDskStream(stream), ProgressMonitor.NONE);
+    }
+
+    public void openDsk(File file) throws IOException {
+        openDsk(file, ProgressMonitor.NONE);
+    }
+
+    //Progress is reported per file. The image is read into the heap, so the file
+    //can be saved over while the archives are still in use
+    public void openDsk(File file, ProgressMonitor monitor) throws IOException {
+        openDsk(DskUtil.diskFromDskFileContents(file), monitor);
+    }
+
+    //Archives are added at once, after all of them are read
+    public void openDsk(Disk disk, ProgressMonitor monitor) throws IOException {
+        List<SedoricArchive> archives = new ArrayList<>();
+        if (DskUtil.getDiskFormat(disk) == DiskFormat.ORICDOS) {
+            List<OricDosDirectory> directories = OricDosDirectory.fromDisk(disk);
+            for (int i = 0; i < directories.size(); i++) {
+                monitor.checkCancelled();
+                directories.get(i).getArchive(disk).ifPresent(archives::add);
+                monitor.progress(i + 1, directories.size());
+            }
+        } else {
+            List<SedoricDirectory> directories = SedoricDirectory.fromDisk(disk);
+            for (int i = 0; i < directories.size(); i++) {
+                monitor.checkCancelled();
+                LOGGER.info("Read directory " + directories.get(i));
+                archives.add(directories.get(i).getArchive(disk));
+                monitor.progress(i + 1, directories.size());
+            }
+            SedoricSystemSector systemSector = SedoricSystemSector.fromInputStream(
+                    new ByteArrayInputStream(disk
+                            .copySector(new SectorCoordinates(Constants.SEDORIC_DIRECTORY_TRACK,
+                                    Constants.SEDORIC_SYSTEM_SECTOR))));
+            LOGGER.debug("Got system sector " + systemSector);
+            setName(systemSector.getName().trim());
+            setInitString(systemSector.getInitString().trim());
+            if (systemSector.getPenColor() != null) {
+                setPenColor(systemSector.getPenColor());
+            }
+            if (systemSector.getPaperColor() != null) {
+                setPaperColor(systemSector.getPaperColor());
+            }
+        }
+
+        addArchives(archives);
+        setDiskGeometry(disk.getGeometry());
+    }
+
+    public void setDiskGeometry(DiskGeometry geometry) {
+        this.diskGeometry = geometry;
+        usageTracker.setGeometry(geometry);
+    }
+
+    public DiskGeometry getDiskGeometry() {
+        return diskGeometry;
+    }
+
+    //Names in use by the archive list. Refresh archives renamed in place
+    public ArchiveNameRegistry getNameRegistry() {
+        return nameRegistry;
+    }
+
+    public void addArchive(SedoricArchive archive) {
+        archiveList.add(archive);
+        nameRegistry.add(archive);
+        usageTracker.archivesAdded(archiveList.size() - 1, Collections.singletonList(archive));
+        DskMetrics.get().archiveListChanged(archiveList.size());
+    }
+
+    //Adds archives with a single update of the list. They get renamed to valid
+    //names, unique among the ones in use and the ones added before them
+    public void addArchives(Collection<? extends SedoricArchive> archives) {
+        for (SedoricArchive archive : archives) {
+            ArchiveUtil.updateArchiveName(archive, nameRegistry);
+            nameRegistry.add(archive);
+        }
+        int from = archiveList.size();
+        archiveList.addAll(archives);
+        usageTracker.archivesAdded(from, archiveList.subList(from, archiveList.size()));
+        DskMetrics.get().archiveListChanged(archiveList.size());
+    }
+
+    public void removeArchive(SedoricArchive archive) {
+        if (archiveList.remove(archive)) {
+            nameRegistry.remove(archive);
+            usageTracker.archivesRemoved(Collections.singletonList(archive));
+            DskMetrics.get().archiveListChanged(archiveList.size());
+        }
+    }
+
+    public void clear() {
+        getArchiveList().clear();
+        nameRegistry.clear();
+        usageTracker.archivesCleared();
+        DskMetrics.get().archiveListChanged(0);
+        setName(Constants.EMPTY_STRING);
+        setInitString(Constants.EMPTY_STRING);
+    }
+
+    public List<? extends SedoricArchive> getArchiveList() {
+        return archiveList;
+    }
+
+    public int getTotalBytes() {
+        return getDiskGeometry().capacity();
+    }
+
+    //Exact figure, kept up to date as archives are added and removed
+    public int getUsedBytes() {
+        return usageTracker.getUsedBytes();
+    }
+
+    //Detached copy of the file system, unaffected by later changes to this one or its archives
+    public SedoricFileSystem snapshot() {
+        SedoricFileSystem snapshot = new SedoricFileSystem();
+        snapshot.setName(getName());
+        snapshot.setInitString(getInitString());
+        snapshot.setPaperColor(getPaperColor());
+        snapshot.setPenColor(getPenColor());
+        snapshot.setBootable(getBootable());
+        snapshot.setAllocationStrategy(getAllocationStrategy());
+        snapshot.setLoadTimeModel(getLoadTimeModel());
+        snapshot.setInterleave(getInterleave());
+        snapshot.setSkew(getSkew());
+        snapshot.setDiskGeometry(copyOf(getDiskGeometry()));
+        List<SedoricArchive> archives = new ArrayList<>();
+        for (SedoricArchive archive : getArchiveList()) {
+            archives.add(new SedoricArchive(archive));
+        }
+        snapshot.addArchives(archives);
+        return snapshot;
+    }
+
+    private static DiskGeometry copyOf(DiskGeometry geometry) {
+        if (geometry.hasSectorCount()) {
+            SimpleDiskGeometry copy = SimpleDiskGeometry.newBuilder()
+                    .withTrackCount(geometry.getTrackCount())
+                    .withSideCount(geometry.getSideCount())
+                    .withTrackGeometry(geometry.getTrackGeometry(0)).build();
+            copy.setSectorCount(geometry.getSectorCount());
+            return copy;
+        } else {
+            ComplexDiskGeometry.Builder builder = ComplexDiskGeometry.newBuilder()
+                    .withTrackCount(geometry.getTrackCount())
+                    .withSideCount(geometry.getSideCount());
+            for (int track = 0; track < geometry.getTrackCount() * geometry.getSideCount(); track++) {
+                builder.withTrackGeometry(track, geometry.getTrackGeometry(track));
+            }
+            return builder.build();
+        }
+    }
+
+    public LayoutReport exportFileSystem(OutputStream os) throws IOException {
+        List<FileLayout> layouts = new ArrayList<>();
+        new MfmDskWriter(interleave, skew).write(toDisk(allocationStrategy, layouts, ProgressMonitor.NONE), os);
+        return new LayoutReport(allocationStrategy, layouts);
+    }
+
+    public LayoutReport exportFileSystem(WritableByteChannel channel) throws IOException {
+        List<FileLayout> layouts = new ArrayList<>();
+        new MfmDskWriter(interleave, skew).write(toDisk(allocationStrategy, layouts, ProgressMonitor.NONE), channel);
+        return new LayoutReport(allocationStrategy, layouts);
+    }
+
+    //Image of the file system as exported, to be written later with a MfmDskWriter
+    public Disk toDisk() throws IOException {
+        return toDisk(ProgressMonitor.NONE);
+    }
+
+    //Progress is reported per file
+    public Disk toDisk(ProgressMonitor monitor) throws IOException {
+        return toDisk(allocationStrategy, new ArrayList<>(), monitor);
+    }
+
+    //Modeled load times of the files when exported with the given strategy
+    public LayoutReport planLayout(AllocationStrategy strategy) throws IOException {
+        List<FileLayout> layouts = new ArrayList<>();
+        allocate(null, new SedoricBitmap(getDiskGeometry(), strategy), layouts, ProgressMonitor.NONE);
+        return new LayoutReport(strategy, layouts);
+    }
+
+    //The candidate with the lowest total modeled load time. Layouts are planned on the bitmap only
+    public AllocationStrategy fastestAllocationStrategy(List<AllocationStrategy> candidates) throws IOException {
+        AllocationStrategy fastest = null;
+        double fastestTime = Double.MAX_VALUE;
+        for (AllocationStrategy candidate : candidates) {
+            double time = planLayout(candidate).getTotalLoadTime();
+            LOGGER.debug("Modeled load time with {} is {} ms", candidate, time);
+            if (time < fastestTime) {
+                fastest = candidate;
+                fastestTime = time;
+            }
+        }
+        return fastest;
+    }
+
+    //Interleave and skew giving the lowest modeled load time with the current strategy
+    public InterleaveEstimate fastestInterleave() throws IOException {
+        return new ReadTimeSimulator(loadTimeModel)
+                .fastest(getDiskGeometry(), planLayout(allocationStrategy));
+    }
+
+    //Reserves the system and bitmap sectors and writes the bootstrap, unless the disk is null.
+    //The first directory sector is taken by the DirectoryWriter
+    static void allocateSystemArea(Disk disk, SedoricBitmap bitmap, boolean bootable) throws IOException {
+        bitmap.allocateSector(new SectorCoordinates(Constants.SEDORIC_DIRECTORY_TRACK,
+                        Constants.SEDORIC_SYSTEM_SECTOR));
+        bitmap.allocateSector(new SectorCoordinates(Constants.SEDORIC_DIRECTORY_TRACK,
+                        Constants.SEDORIC_BITMAP_SECTOR));
+        if (bitmap.requiresTwoSectors()) {
+            bitmap.allocateSector(new SectorCoordinates(Constants.SEDORIC_DIRECTORY_TRACK,
+                    Constants.SEDORIC_BITMAP_SECTOR + 1));
+        }
+
+        if (bootable) {
+            final byte[] bootstrap = Constants.getSedoricBootStrap();
+            int remaining = bootstrap.length;
+            LOGGER.debug("Adding Sedoric bootstrap with length {}", bootstrap.length);
+            int position = 0;
+            //The boot ROM expects the bootstrap from the first sector of track 0
+            while (remaining > 0) {
+                SectorCoordinates pos = bitmap.getFirstFreeSector();
+                int sectorSize = bitmap.getDiskGeometry().getTrackGeometry(pos.getTrack()).getSectorSize();
+                if (disk != null) {
+                    disk.getSectorBuffer(pos).put(bootstrap, position, Math.min(remaining, sectorSize));
+                }
+                remaining -= sectorSize;
+                position += sectorSize;
+            }
+        }
+    }
+
+    static SedoricDirectory directoryOf(SedoricArchive archive) {
+        SedoricDirectory directory = new SedoricDirectory();
+        directory.setName(archive.getName());
+        directory.setExtension(archive.getExtension());
+        directory.setFlags(SedoricDirectory.STATUS_FLAGS |
+                (archive.isProtectedAttribute() ? SedoricDirectory.PROTECTED_FLAG : 0));
+        return directory;
+    }
+
+    static SedoricDescriptor descriptorOf(SedoricArchive archive) {
+        return SedoricDescriptor.newBuilder()
+                .withBlock(archive.isBlockAttribute())
+                .withExecutable(archive.isExecutableAttribute())
+                .withStartAddress(archive.getLoadAddress())
+                .withEndAddress(archive.getLoadAddress() + archive.getSize() - 1)
+                .withExecAddress(archive.getExecAddress()).build();
+    }
+
+    //Places the system area and the archives. Without a disk only the bitmap and the layouts are filled
+    private DirectoryWriter allocate(Disk disk, SedoricBitmap bitmap, List<FileLayout> layouts,
+                                     ProgressMonitor monitor) throws IOException {
+        DiskGeometry geometry = bitmap.getDiskGeometry();
+        DirectoryWriter directoryWriter = new DirectoryWriter(disk, bitmap);
+        DescriptorWriter descriptorWriter = new DescriptorWriter(disk, bitmap);
+
+        allocateSystemArea(disk, bitmap, getBootable());
+
+        List<? extends SedoricArchive> archives = getArchiveList();
+        for (int index = 0; index < archives.size(); index++) {
+            monitor.checkCancelled();
+            SedoricArchive archive = archives.get(index);
+            SedoricDirectory directory = directoryOf(archive);
+            SedoricDescriptor descriptor = descriptorOf(archive);
+            SectorList loadSequence = descriptorWriter.write(directory, descriptor); //Populates the coordinates list and the sectors
+            layouts.add(new FileLayout(archive.getName(), archive.getExtension(), loadSequence,
+                    loadTimeModel.loadTime(geometry, loadSequence, interleave, skew)));
+            directoryWriter.write(directory); //Once the directory is filled by the descriptorWriter
+            LOGGER.debug("For archive {} written directory {} and descriptor {}", archive, directory, descriptor);
+            if (disk == null) {
+                monitor.progress(index + 1, archives.size());
+                continue;
+            }
+            //Straight from the source sectors for archives read from a disk
+            ReadableByteChannel data = archive.getDataView().openChannel();
+            int remaining = archive.getSize();
+            SectorList fileSectors = descriptor.getFileSectorList();
+            for (int i = 0; i < fileSectors.size(); i++) {
+                ByteBuffer sectorData = disk.getSectorBuffer(fileSectors.getTrack(i), fileSectors.getSector(i));
+                ((Buffer) sectorData).limit(Math.min(remaining, sectorData.capacity()));
+                //View channels fill the whole buffer in a single read
+                data.read(sectorData);
+                remaining -= sectorData.capacity();
+            }
+            monitor.progress(index + 1, archives.size());
+        }
+        return directoryWriter;
+    }
+
+    private Disk toDisk(AllocationStrategy strategy, List<FileLayout> layouts,
+                        ProgressMonitor monitor) throws IOException {
+        SectorAllocationEvent event = JfrSupport.AVAILABLE ? SectorAllocationEvent.start() : null;
+        long startTime = DskMetrics.get().startTime();
+        DiskGeometry geometry = getDiskGeometry();
+
+        SedoricBitmap bitmap = new SedoricBitmap(geometry, strategy);
+        Disk disk = Disk.newFlatDisk(geometry);
+        DirectoryWriter directoryWriter = allocate(disk, bitmap, layouts, monitor);
+        bitmap.flush(disk, directoryWriter.directoryCount(), directoryWriter.sectorCount());
+        SedoricSystemSector.newBuilder()
+                .withName(getName())
+                .withInitString(getInitString())
+                .withPaperColor(getPaperColor())
+                .withPenColor(getPenColor()).build()
+                .dump(disk);
+        if (event != null) {
+            event.complete(strategy.getName(), geometry.getTrackCount(), geometry.getSideCount(),
+                    getArchiveList().size(), bitmap.freeSectors());
+        }
+        DskMetrics.get().sectorsAllocated(startTime);
+        return disk;
+    }
+}
+
@@ -1,10 +1,5 @@
 package com.grelobites.oric.dsk.sedoric;
 
-import com.grelobites.oric.dsk.util.Util;
-
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Optional;
@@ -87,24 +82,22 @@ public class SedoricHeader {
         return (flags & 0x01) != 0;
     }
 
-    public static Optional<SedoricHeader> fromFile(File file) {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            ByteBuffer buffer = ByteBuffer.wrap(Util.fromInputStream(fis, HEADER_SIZE))
-                    .order(ByteOrder.LITTLE_ENDIAN);
-            byte[] signatureBytes = new byte[SIGNATURE.length()];
-            buffer.get(signatureBytes);
-            String signature = new String(signatureBytes);
-            if (SIGNATURE.equals(signature)) {
-                return Optional.of(newBuilder()
-                        .withLoadAddress(buffer.getShort())
-                        .withExecAddress(buffer.getShort())
-                        .withFlags(buffer.get())
-                        .build());
-            } else {
-                return Optional.empty();
-            }
-
-        } catch (IOException ioe) {
+    //Looks for a header at the buffer position, without consuming it
+    public static Optional<SedoricHeader> fromByteBuffer(ByteBuffer source) {
+        if (source.remaining() < HEADER_SIZE) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = source.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        byte[] signatureBytes = new byte[SIGNATURE.length()];
+        buffer.get(signatureBytes);
+        String signature = new String(signatureBytes);
+        if (SIGNATURE.equals(signature)) {
+            return Optional.of(newBuilder()
+                    .withLoadAddress(buffer.getShort())
+                    .withExecAddress(buffer.getShort())
+                    .withFlags(buffer.get())
+                    .build());
+        } else {
             return Optional.empty();
         }
     }
@@ -114,8 +114,7 @@ public class SedoricSystemSector {
         }
         buffer.put(Util.pad(name.getBytes(), hasColors ? 17: 21, (byte) ' '));
         buffer.put(Util.pad(initString.getBytes(), 60, (byte) ' '));
-        byte[] sectorData = disk.getSector(systemSector);
-        System.arraycopy(buffer.array(), 0, sectorData, 0, buffer.array().length);
+        disk.getSectorBuffer(systemSector).put(buffer.array());
     }
 
     public String getName() {
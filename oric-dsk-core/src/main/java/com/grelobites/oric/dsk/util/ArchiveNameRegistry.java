@@ -0,0 +1,136 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/*
+ * Index of the name and extension pairs used by a list of archives, with the next
+ * suffix to try for each base name. Must be kept in sync with the list through add,
+ * remove and refresh (after renaming an archive). Not thread safe.
+ */
+public class ArchiveNameRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArchiveNameRegistry.class);
+    private static final int SUFFIX_LENGTH = 2;
+
+    //Number of archives using each name. Duplicates can exist while an archive is renamed
+    private final Map<String, Integer> names = new HashMap<>();
+    //Name each archive was indexed with
+    private final Map<Archive, String> indexed = new IdentityHashMap<>();
+    //Per suffix stem (the base name cut to leave room for the suffix) and extension,
+    //all the suffixes below this one are in use
+    private final Map<String, Integer> nextSuffixes = new HashMap<>();
+
+    public static ArchiveNameRegistry of(Collection<? extends Archive> archives) {
+        ArchiveNameRegistry registry = new ArchiveNameRegistry();
+        archives.forEach(registry::add);
+        return registry;
+    }
+
+    private static String key(String name, String extension) {
+        return name + Constants.FILE_EXTENSION_SEPARATOR + extension;
+    }
+
+    public void add(Archive archive) {
+        String key = key(archive.getName(), archive.getExtension());
+        String previous = indexed.put(archive, key);
+        if (previous != null) {
+            release(previous);
+        }
+        names.merge(key, 1, Integer::sum);
+    }
+
+    public void remove(Archive archive) {
+        String key = indexed.remove(archive);
+        if (key != null) {
+            release(key);
+        }
+    }
+
+    //Indexes again an archive whose name or extension changed
+    public void refresh(Archive archive) {
+        if (indexed.containsKey(archive)) {
+            add(archive);
+        }
+    }
+
+    public void clear() {
+        names.clear();
+        indexed.clear();
+        nextSuffixes.clear();
+    }
+
+    private static String stemKey(String name, String extension) {
+        return key(name.substring(0, Math.min(name.length(),
+                Constants.SEDORIC_FILENAME_MAXLENGTH - SUFFIX_LENGTH)), extension);
+    }
+
+    private void release(String key) {
+        if (names.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null) == null) {
+            //A freed name ending in digits could be a suffix below the cursor of its stem
+            int separator = key.lastIndexOf(Constants.FILE_EXTENSION_SEPARATOR);
+            String name = key.substring(0, separator);
+            String extension = key.substring(separator + 1);
+            int digits = name.length();
+            while (digits > 0 && Character.isDigit(name.charAt(digits - 1))) {
+                digits--;
+            }
+            for (int stem = name.length() - SUFFIX_LENGTH; stem >= digits; stem--) {
+                String prefix = name.substring(0, stem);
+                int suffix = Integer.parseInt(name.substring(stem));
+                if (stem == name.length() - SUFFIX_LENGTH) {
+                    nextSuffixes.computeIfPresent(key(prefix, extension), (k, next) -> Math.min(next, suffix));
+                } else {
+                    //Suffixes over 99 cut the name further: rewind every stem starting like this one
+                    String extensionKey = key("", extension);
+                    nextSuffixes.replaceAll((k, next) -> k.startsWith(prefix) && k.endsWith(extensionKey) ?
+                            Math.min(next, suffix) : next);
+                }
+            }
+        }
+    }
+
+    public boolean isNameInUse(String name, String extension) {
+        return names.containsKey(key(name, extension));
+    }
+
+    public boolean isNameInUse(Pair<String, String> name) {
+        return isNameInUse(name.left(), name.right());
+    }
+
+    //Whether any archive other than the given one uses the name
+    public boolean isNameInUse(String name, String extension, Archive except) {
+        String key = key(name, extension);
+        int count = names.getOrDefault(key, 0);
+        return (key.equals(indexed.get(except)) ? count - 1 : count) > 0;
+    }
+
+    //Suffix the next clash on the given name starts from
+    int nextSuffix(String name) {
+        Pair<String, String> candidate = ArchiveUtil.getBestName(name);
+        return nextSuffixes.getOrDefault(stemKey(candidate.left(), candidate.right()), 0);
+    }
+
+    //Same names as ArchiveUtil.calculateArchiveName, resuming from the last suffix handed out
+    public Pair<String, String> calculateArchiveName(String name) {
+        Pair<String, String> candidate = ArchiveUtil.getBestName(name);
+        if (!isNameInUse(candidate)) {
+            return candidate;
+        }
+        String base = stemKey(candidate.left(), candidate.right());
+        int index = nextSuffixes.getOrDefault(base, 0);
+        do {
+            candidate = ArchiveUtil.getBestNameWithSuffix(name, String.format("%02d", index++));
+        } while (isNameInUse(candidate));
+        LOGGER.debug("Name {} in use, using suffix {}", base, index - 1);
+        //The candidate is not in use until the archive gets added
+        nextSuffixes.put(base, index - 1);
+        return candidate;
+    }
+}
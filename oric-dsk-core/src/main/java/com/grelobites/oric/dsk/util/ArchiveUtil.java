@@ -1,21 +1,21 @@
 package com.grelobites.oric.dsk.util;
 
 import com.grelobites.oric.dsk.Constants;
-import com.grelobites.oric.dsk.ApplicationContext;
 import com.grelobites.oric.dsk.model.Archive;
 import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.SectorDataView;
 import com.grelobites.oric.dsk.oricdos.OricDosDirectory;
 import com.grelobites.oric.dsk.sedoric.SedoricArchive;
 import com.grelobites.oric.dsk.sedoric.SedoricDirectory;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
 import com.grelobites.oric.dsk.sedoric.SedoricHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.util.*;
 
 public class ArchiveUtil {
@@ -46,51 +46,32 @@ public class ArchiveUtil {
         return new Pair(candidateName, candidateExtension);
     }
 
-    public static boolean isNameInUse(Pair<String, String> name, ApplicationContext context) {
-        return context.getArchiveList().filtered(a ->
+    public static boolean isNameInUse(Pair<String, String> name, Collection<? extends Archive> archives) {
+        return archives.stream().anyMatch(a ->
                 a.getName().equals(name.left()) &&
-                a.getExtension().equals(name.right())).size() > 0;
+                a.getExtension().equals(name.right()));
     }
 
-    public static Pair<String, String> calculateArchiveName(String name, ApplicationContext context) {
-        Pair<String, String> candidate = getBestName(name);
-        int index = 0;
-        while (isNameInUse(candidate, context)) {
-            LOGGER.info("Name " + candidate + " already in use");
-            candidate = getBestNameWithSuffix(name, String.format("%02d", index++));
-        }
-        return candidate;
-    }
-
-    public static FileType guessFileType(File file) {
-        if (DskUtil.isOricPlainDskFile(file)) {
-            return FileType.PLAINDSK;
-        } else if (DskUtil.isOricMfmDskFile(file)) {
-            return FileType.MFMDSK;
-        } else if ("TAP".equalsIgnoreCase(Util.getFileExtension(file.getName()).orElse(""))) {
-            return FileType.TAP;
-        } else {
-            return FileType.ARCHIVE;
-        }
+    public static Pair<String, String> calculateArchiveName(String name, Collection<? extends Archive> archives) {
+        return ArchiveNameRegistry.of(archives).calculateArchiveName(name);
     }
 
-    public static byte[] readFromFileWithOffset(File file, int offset) throws IOException {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            fis.skip(offset);
-            return Util.fromInputStream(fis);
-        }
+    public static SedoricArchive createArchiveFromFile(File file, Collection<? extends Archive> archives)
+            throws IOException {
+        return createArchiveFromFile(file, ArchiveNameRegistry.of(archives));
     }
 
-    public static SedoricArchive createArchiveFromFile(File file, ApplicationContext context)
+    public static SedoricArchive createArchiveFromFile(File file, ArchiveNameRegistry registry)
             throws IOException {
-        Pair<String, String> name = calculateArchiveName(file.getName(), context);
-        Optional<SedoricHeader> headerOpt = SedoricHeader.fromFile(file);
-        byte[] data;
-        if (headerOpt.isPresent()) {
-            data = readFromFileWithOffset(file, SedoricHeader.HEADER_SIZE);
-        } else {
-            data = Files.readAllBytes(file.toPath());
-        }
+        return createArchiveFromProbe(FileProbe.of(file), registry);
+    }
+
+    //The header is taken from the probe, so the file is only read again for its contents
+    public static SedoricArchive createArchiveFromProbe(FileProbe probe, ArchiveNameRegistry registry)
+            throws IOException {
+        Pair<String, String> name = registry.calculateArchiveName(probe.getFile().getName());
+        Optional<SedoricHeader> headerOpt = probe.getSedoricHeader();
+        SectorDataView data = new SectorDataView(probe.readArchiveContents());
 
         SedoricArchive archive = new SedoricArchive(name.left(), name.right(), data);
         if (headerOpt.isPresent()) {
@@ -103,64 +84,79 @@ public class ArchiveUtil {
         return archive;
     }
 
-    public static SedoricArchive updateArchiveName(SedoricArchive archive, ApplicationContext context) {
+    public static SedoricArchive updateArchiveName(SedoricArchive archive, Collection<? extends Archive> archives) {
+        return updateArchiveName(archive, ArchiveNameRegistry.of(archives));
+    }
+
+    public static SedoricArchive updateArchiveName(SedoricArchive archive, ArchiveNameRegistry registry) {
         String name = toSedoricValidName(archive.getName(), Constants.SEDORIC_FILENAME_MAXLENGTH);
         if (archive.getExtension().length() > 0) {
             name += Constants.FILE_EXTENSION_SEPARATOR +
                     toSedoricValidName(archive.getExtension(),
                             Constants.SEDORIC_FILEEXTENSION_MAXLENGTH);
         }
-        Pair<String, String> bestName = calculateArchiveName(name, context);
+        Pair<String, String> bestName = registry.calculateArchiveName(name);
         archive.setName(bestName.left());
         archive.setExtension(bestName.right());
         return archive;
     }
 
-    public static void addArchivesFromDsk(File file, ApplicationContext context) throws IOException {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            Disk disk = DskUtil.diskFromDskStream(fis);
-            LOGGER.debug("Guessing disk format");
-            switch (DskUtil.getDiskFormat(disk)) {
-                case UNKNOWN:
-                case SEDORIC:
-                    SedoricDirectory.fromDisk(disk).forEach(d -> {
-                        context.getArchiveList().add(updateArchiveName(d.getArchive(disk), context));
-                    });
-                    break;
-                case ORICDOS:
-                    OricDosDirectory.fromDisk(disk).forEach(d -> {
-                        d.getArchive(disk).map(t ->
-                                context.getArchiveList().add(updateArchiveName(t, context)))
-                                .orElse(false);
-                    });
-                    break;
-            }
+    public static List<SedoricArchive> getArchivesFromDisk(Disk disk) throws IOException {
+        List<SedoricArchive> archives = new ArrayList<>();
+        LOGGER.debug("Guessing disk format");
+        switch (DskUtil.getDiskFormat(disk)) {
+            case UNKNOWN:
+            case SEDORIC:
+                SedoricDirectory.fromDisk(disk).forEach(d -> archives.add(d.getArchive(disk)));
+                break;
+            case ORICDOS:
+                OricDosDirectory.fromDisk(disk).forEach(d -> d.getArchive(disk).ifPresent(archives::add));
+                break;
         }
+        return archives;
+    }
+
+    public static void addArchivesFromDsk(File file, SedoricFileSystem fileSystem) throws IOException {
+        addArchivesFromDsk(FileProbe.of(file), fileSystem);
+    }
+
+    public static void addArchivesFromDsk(FileProbe probe, SedoricFileSystem fileSystem) throws IOException {
+        Disk disk = DskUtil.diskFromDskBuffer(probe.readContents());
+        fileSystem.addArchives(getArchivesFromDisk(disk));
+    }
+
+    public static void addArchivesFromTap(File tapFile, SedoricFileSystem fileSystem)
+            throws IOException {
+        addArchivesFromTap(FileProbe.of(tapFile), fileSystem);
     }
 
-    public static void addArchivesFromTap(File tapFile, ApplicationContext context)
+    public static void addArchivesFromTap(FileProbe probe, SedoricFileSystem fileSystem)
             throws IOException {
-        try (FileInputStream fis = new FileInputStream(tapFile)) {
-            TapReader reader = new TapReader(fis);
+        try (InputStream stream = probe.openStream()) {
+            TapReader reader = new TapReader(stream);
+            List<SedoricArchive> archives = new ArrayList<>();
             while (reader.hasNext()) {
-                context.getArchiveList().add(updateArchiveName(reader.getNext(), context));
+                archives.add(reader.getNext());
             }
+            fileSystem.addArchives(archives);
         }
     }
 
-    public static void addArchivesInFile(ApplicationContext context, File file) throws IOException {
-        LOGGER.debug("getArchivesInFile " + file);
-        switch (guessFileType(file)) {
+    //Each file is probed once, then its contents are read by the importer for its type
+    public static void addArchivesInFile(SedoricFileSystem fileSystem, File file) throws IOException {
+        FileProbe probe = FileProbe.of(file);
+        LOGGER.debug("getArchivesInFile " + probe);
+        switch (probe.getFileType()) {
             case ARCHIVE:
-                SedoricArchive archive = createArchiveFromFile(file, context);
-                context.getArchiveList().add(archive);
+                SedoricArchive archive = createArchiveFromProbe(probe, fileSystem.getNameRegistry());
+                fileSystem.addArchive(archive);
                 break;
             case PLAINDSK:
             case MFMDSK:
-                addArchivesFromDsk(file, context);
+                addArchivesFromDsk(probe, fileSystem);
                 break;
             case TAP:
-                addArchivesFromTap(file, context);
+                addArchivesFromTap(probe, fileSystem);
                 break;
             default:
                 throw new IllegalArgumentException("Not implemented yet");
@@ -172,13 +168,13 @@ public class ArchiveUtil {
             if (SedoricHeader.needsHeader(sourceArchive)) {
                 fos.write(SedoricHeader.forArchive(sourceArchive).asByteArray());
             }
-            fos.write(sourceArchive.getData(), 0, sourceArchive.getSize());
+            sourceArchive.getDataView().writeTo(fos, sourceArchive.getSize());
         }
     }
 
     public static void exportAsBinaryFile(SedoricArchive sourceArchive, File outputFile) throws IOException {
         try (FileOutputStream fos = new FileOutputStream(outputFile)) {
-            fos.write(sourceArchive.getData(), 0, sourceArchive.getSize());
+            sourceArchive.getDataView().writeTo(fos, sourceArchive.getSize());
         }
     }
 
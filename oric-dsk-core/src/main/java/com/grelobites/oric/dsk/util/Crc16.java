@@ -0,0 +1,120 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+
+import java.nio.ByteBuffer;
+
+/*
+ * CRC-16 CCITT (polynomial 0x1021, initial value 0xFFFF) as used by the MFM
+ * ID and data fields. Blocks are processed eight bytes at a time with
+ * slicing-by-8 tables. Instances keep a resumable state, while the static
+ * update methods work on plain int values and do not allocate.
+ */
+public class Crc16 {
+    public static final int INITIAL_VALUE = 0xFFFF;
+    private static final int[][] TABLES = new int[8][256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            TABLES[0][i] = Constants.CRCTAB[i];
+        }
+        //TABLES[k][b] is the CRC of byte b followed by k zero bytes
+        for (int k = 1; k < TABLES.length; k++) {
+            for (int i = 0; i < 256; i++) {
+                int previous = TABLES[k - 1][i];
+                TABLES[k][i] = ((previous << 8) ^ TABLES[0][previous >>> 8]) & 0xFFFF;
+            }
+        }
+    }
+
+    //CRC state after the A1 A1 A1 FE (ID) and A1 A1 A1 FB (data) field prefixes
+    public static final int ID_MARK_SEED = update(INITIAL_VALUE,
+            new byte[]{(byte) 0xA1, (byte) 0xA1, (byte) 0xA1, (byte) 0xFE}, 0, 4);
+    public static final int DATA_MARK_SEED = update(INITIAL_VALUE,
+            new byte[]{(byte) 0xA1, (byte) 0xA1, (byte) 0xA1, (byte) 0xFB}, 0, 4);
+
+    private int value;
+
+    public Crc16() {
+        this(INITIAL_VALUE);
+    }
+
+    public Crc16(int seed) {
+        value = seed;
+    }
+
+    public static int update(int crc, int b) {
+        return ((crc << 8) ^ TABLES[0][((crc >>> 8) ^ b) & 0xFF]) & 0xFFFF;
+    }
+
+    public static int update(int crc, byte[] data, int offset, int length) {
+        int index = offset;
+        int end = offset + length;
+        while (end - index >= 8) {
+            crc = TABLES[7][((crc >>> 8) ^ data[index]) & 0xFF] ^
+                    TABLES[6][(crc ^ data[index + 1]) & 0xFF] ^
+                    TABLES[5][data[index + 2] & 0xFF] ^
+                    TABLES[4][data[index + 3] & 0xFF] ^
+                    TABLES[3][data[index + 4] & 0xFF] ^
+                    TABLES[2][data[index + 5] & 0xFF] ^
+                    TABLES[1][data[index + 6] & 0xFF] ^
+                    TABLES[0][data[index + 7] & 0xFF];
+            index += 8;
+        }
+        while (index < end) {
+            crc = update(crc, data[index++]);
+        }
+        return crc;
+    }
+
+    //Uses absolute positions, the buffer position is not modified
+    public static int update(int crc, ByteBuffer buffer, int offset, int length) {
+        if (buffer.hasArray()) {
+            return update(crc, buffer.array(), buffer.arrayOffset() + offset, length);
+        }
+        int index = offset;
+        int end = offset + length;
+        while (end - index >= 8) {
+            crc = TABLES[7][((crc >>> 8) ^ buffer.get(index)) & 0xFF] ^
+                    TABLES[6][(crc ^ buffer.get(index + 1)) & 0xFF] ^
+                    TABLES[5][buffer.get(index + 2) & 0xFF] ^
+                    TABLES[4][buffer.get(index + 3) & 0xFF] ^
+                    TABLES[3][buffer.get(index + 4) & 0xFF] ^
+                    TABLES[2][buffer.get(index + 5) & 0xFF] ^
+                    TABLES[1][buffer.get(index + 6) & 0xFF] ^
+                    TABLES[0][buffer.get(index + 7) & 0xFF];
+            index += 8;
+        }
+        while (index < end) {
+            crc = update(crc, buffer.get(index++));
+        }
+        return crc;
+    }
+
+    public Crc16 update(byte[] data, int offset, int length) {
+        value = update(value, data, offset, length);
+        return this;
+    }
+
+    public Crc16 update(ByteBuffer buffer, int offset, int length) {
+        value = update(value, buffer, offset, length);
+        return this;
+    }
+
+    public Crc16 update(int b) {
+        value = update(value, b);
+        return this;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void reset() {
+        value = INITIAL_VALUE;
+    }
+
+    public void reset(int seed) {
+        value = seed;
+    }
+}
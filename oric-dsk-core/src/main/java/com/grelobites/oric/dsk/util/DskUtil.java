@@ -0,0 +1,151 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.jfr.DskOpenEvent;
+import com.grelobites.oric.dsk.jfr.JfrSupport;
+import com.grelobites.oric.dsk.metrics.DskMetrics;
+import com.grelobites.oric.dsk.model.*;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+public class DskUtil {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DskUtil.class);
+
+
+    private static boolean hasExpectedSignature(DskHeader header, String[] signatures) {
+        for (String signature : signatures) {
+            if (signature.equals(header.getSignature())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static Disk diskFromDskStream(InputStream stream) throws IOException {
+        DskOpenEvent event = JfrSupport.AVAILABLE ? DskOpenEvent.start(null) : null;
+        long startTime = DskMetrics.get().startTime();
+        DskHeader header = DskHeader.fromInputStream(stream);
+        LOGGER.debug("Header is " + header);
+        if (hasExpectedSignature(header, new String[]{
+                Constants.NEW_DSK_SIGNATURE,
+                Constants.PLAIN_DSK_SIGNATURE})) {
+            Disk disk = DskReaderFactory.getDskReader(header.getFileType())
+                    .fromDsk(stream, header);
+            if (event != null) {
+                event.complete(header);
+            }
+            //MFM tracks count as decoded once parsed
+            DskMetrics.get().diskOpened(header.getFileType() == FileType.PLAINDSK ?
+                    header.getImageSize() : 0, startTime);
+            return disk;
+        } else {
+            throw new IllegalArgumentException("Not a DSK stream");
+        }
+    }
+
+    //Maps the image file in memory. Tracks are decoded on demand, when first accessed
+    //The file stays mapped while the disk or its archives are reachable. It must not be
+    //truncated or replaced meanwhile
+    public static Disk diskFromDskFile(File file) throws IOException {
+        return diskFromDskFile(file, DskReaderFactory.getMfmDskReader());
+    }
+
+    //Whole file read into the heap, for disks kept open while the file may be saved over
+    public static Disk diskFromDskFileContents(File file) throws IOException {
+        return diskFromDskBuffer(ByteBuffer.wrap(Files.readAllBytes(file.toPath())),
+                file.getName(), DskReaderFactory.getMfmDskReader());
+    }
+
+    //MFM images are read with the given reader, with its parallel decoding and CRC settings
+    public static Disk diskFromDskFile(File file, MfmDskReader mfmDskReader) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return diskFromDskBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                    file.getName(), mfmDskReader);
+        }
+    }
+
+    public static Disk diskFromDskBuffer(ByteBuffer buffer) throws IOException {
+        return diskFromDskBuffer(buffer, null, DskReaderFactory.getMfmDskReader());
+    }
+
+    private static Disk diskFromDskBuffer(ByteBuffer buffer, String fileName,
+                                          MfmDskReader mfmDskReader) throws IOException {
+        DskOpenEvent event = JfrSupport.AVAILABLE ? DskOpenEvent.start(fileName) : null;
+        long startTime = DskMetrics.get().startTime();
+        DskHeader header = DskHeader.fromByteBuffer(buffer);
+        LOGGER.debug("Header is " + header);
+        if (hasExpectedSignature(header, new String[]{
+                Constants.NEW_DSK_SIGNATURE,
+                Constants.PLAIN_DSK_SIGNATURE})) {
+            Disk disk = DskReaderFactory.getDskReader(header.getFileType(), mfmDskReader)
+                    .fromDsk(buffer, header);
+            if (event != null) {
+                event.complete(header);
+            }
+            //MFM tracks count as decoded once parsed
+            DskMetrics.get().diskOpened(header.getFileType() == FileType.PLAINDSK ?
+                    header.getImageSize() : 0, startTime);
+            return disk;
+        } else {
+            throw new IllegalArgumentException("Not a DSK stream");
+        }
+    }
+
+    //Checks the CRCs of an MFM image. Plain images have no CRCs and get an unchecked report
+    public static DiskIntegrityReport integrityReportFromDskFile(File file) throws IOException {
+        return integrityReportFromDskFile(file, DskReaderFactory.getMfmDskReader());
+    }
+
+    public static DiskIntegrityReport integrityReportFromDskFile(File file,
+                                                                 MfmDskReader mfmDskReader) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DskHeader header = DskHeader.fromByteBuffer(buffer);
+            if (hasExpectedSignature(header, new String[]{Constants.NEW_DSK_SIGNATURE})) {
+                return mfmDskReader.verify(buffer, header);
+            } else if (hasExpectedSignature(header, new String[]{Constants.PLAIN_DSK_SIGNATURE})) {
+                return DiskIntegrityReport.unchecked();
+            } else {
+                throw new IllegalArgumentException("Not a DSK stream");
+            }
+        }
+    }
+
+    public static DiskFormat getDiskFormat(Disk disk) {
+        for (DiskFormatDetector detector : DiskFormatDetector.values()) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(
+                        disk.copySector(new SectorCoordinates(detector.track,
+                                detector.sector)));
+                buffer.position(detector.offset);
+                byte[] searched = new byte[detector.size];
+                buffer.get(searched);
+                DiskFormat format = DiskFormat.byName(new String(searched));
+                if (format != null) {
+                    LOGGER.debug("Format detected as {} by {}", format, detector);
+                    return format;
+                }
+            } catch (Exception e) {
+                LOGGER.debug("Unable to apply detector {}", detector);
+            }
+        }
+        LOGGER.debug("No known format found in disk");
+        return DiskFormat.UNKNOWN;
+    }
+
+    public static void dumpAsMfm(Disk disk, OutputStream os) throws IOException {
+        new MfmDskWriter().write(disk, os);
+    }
+
+    public static void dumpAsMfm(Disk disk, WritableByteChannel channel) throws IOException {
+        new MfmDskWriter().write(disk, channel);
+    }
+}
@@ -0,0 +1,122 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.sedoric.SedoricHeader;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/*
+ * Type of a file to import, guessed from its leading bytes. Only a header sized
+ * buffer is read when probing. The contents are read on request, into the heap,
+ * so no file stays open or mapped after importing it.
+ */
+public class FileProbe {
+    //Large enough for a DSK header, which holds the SEDORIC one
+    private static final int PROBE_SIZE = Constants.SECTOR_SIZE;
+    private static final String TAP_EXTENSION = "TAP";
+
+    private final File file;
+    private final long size;
+    private final FileType fileType;
+    private final SedoricHeader sedoricHeader;
+
+    private FileProbe(File file, long size, ByteBuffer header) {
+        this.file = file;
+        this.size = size;
+        this.fileType = guessFileType(file, header);
+        this.sedoricHeader = SedoricHeader.fromByteBuffer(header).orElse(null);
+    }
+
+    public static FileProbe of(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate((int) Math.min(size, PROBE_SIZE));
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new EOFException("File truncated while probing " + file);
+                }
+            }
+            ((Buffer) header).flip();
+            return new FileProbe(file, size, header);
+        }
+    }
+
+    private static boolean hasSignature(ByteBuffer header, String signature) {
+        //A full header must follow, as required by DskHeader
+        if (header.remaining() < Constants.SECTOR_SIZE) {
+            return false;
+        }
+        for (int i = 0; i < signature.length(); i++) {
+            if (header.get(header.position() + i) != (byte) signature.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FileType guessFileType(File file, ByteBuffer header) {
+        if (hasSignature(header, Constants.PLAIN_DSK_SIGNATURE)) {
+            return FileType.PLAINDSK;
+        } else if (hasSignature(header, Constants.NEW_DSK_SIGNATURE)) {
+            return FileType.MFMDSK;
+        } else if (TAP_EXTENSION.equalsIgnoreCase(Util.getFileExtension(file.getName()).orElse(""))) {
+            return FileType.TAP;
+        } else {
+            return FileType.ARCHIVE;
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public FileType getFileType() {
+        return fileType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Optional<SedoricHeader> getSedoricHeader() {
+        return Optional.ofNullable(sedoricHeader);
+    }
+
+    //Whole file, read into a new heap buffer
+    public ByteBuffer readContents() throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+    }
+
+    //Archive contents, after the SEDORIC header if any
+    public ByteBuffer readArchiveContents() throws IOException {
+        ByteBuffer buffer = readContents();
+        if (sedoricHeader != null) {
+            ((Buffer) buffer).position(SedoricHeader.HEADER_SIZE);
+        }
+        return buffer.slice();
+    }
+
+    public InputStream openStream() throws IOException {
+        return new BufferedInputStream(Files.newInputStream(file.toPath()));
+    }
+
+    @Override
+    public String toString() {
+        return "FileProbe{" +
+                "file=" + file +
+                ", fileType=" + fileType +
+                ", size=" + size +
+                ", sedoricHeader=" + (sedoricHeader != null) +
+                '}';
+    }
+}
@@ -0,0 +1,231 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.jfr.JfrSupport;
+import com.grelobites.oric.dsk.jfr.TrackDecodeEvent;
+import com.grelobites.oric.dsk.metrics.DskMetrics;
+import com.grelobites.oric.dsk.model.*;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class MfmDskReader implements DskReader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MfmDskReader.class);
+    public static final int NO_PARALLEL_DECODING = Integer.MAX_VALUE;
+    private static final int TRACKS_PER_TASK = 8;
+
+    //Images with at least this number of tracks (of all sides) are decoded upfront
+    //in the fork/join pool. Smaller ones are decoded lazily
+    private final int parallelTrackThreshold;
+    //Check the ID and data field CRCs. Images are then decoded upfront and
+    //rejected with an IntegrityException if any CRC does not match
+    private final boolean verifyCrc;
+
+    private static class MfmTrack {
+        private final int index;
+        private final ByteBuffer encoded;
+        private final MfmTrackParser parser;
+        private byte[][] sectors;
+        private TrackGeometry geometry;
+        private TrackIntegrity integrity;
+
+        MfmTrack(int index, ByteBuffer encoded, MfmTrackParser parser) {
+            this.index = index;
+            this.encoded = encoded;
+            this.parser = parser;
+        }
+
+        private static long sectorBytes(byte[][] sectors) {
+            long bytes = 0;
+            for (byte[] sector : sectors) {
+                bytes += sector.length;
+            }
+            return bytes;
+        }
+
+        synchronized byte[][] getSectors() {
+            if (sectors == null) {
+                decode();
+            }
+            return sectors;
+        }
+
+        synchronized TrackGeometry getGeometry() {
+            if (geometry == null) {
+                decode();
+            }
+            return geometry;
+        }
+
+        synchronized TrackIntegrity getIntegrity() {
+            return integrity;
+        }
+
+        private void decode() {
+            //The parser is shared by all the tracks in the disk
+            synchronized (parser) {
+                decode(parser);
+            }
+        }
+
+        synchronized void decode(MfmTrackParser trackParser) {
+            if (geometry == null) {
+                TrackDecodeEvent event = JfrSupport.AVAILABLE ? TrackDecodeEvent.start() : null;
+                long startTime = DskMetrics.get().startTime();
+                geometry = trackParser.parse(encoded);
+                sectors = trackParser.getSectors();
+                if (trackParser.isVerifyingCrc()) {
+                    integrity = trackParser.getIntegrity(index);
+                }
+                LOGGER.debug("Decoded track geometry {}", geometry);
+                if (event != null) {
+                    event.complete(index, geometry, trackParser.getCrcErrorCount(), encoded.capacity());
+                }
+                DskMetrics.get().trackDecoded(encoded.capacity(), sectorBytes(sectors),
+                        trackParser.getCrcErrorCount(), startTime);
+            }
+        }
+    }
+
+    private static class TrackDecoder extends RecursiveAction {
+        private final MfmTrack[] tracks;
+        private final int from;
+        private final int to;
+        private final boolean verifyCrc;
+
+        TrackDecoder(MfmTrack[] tracks, int from, int to, boolean verifyCrc) {
+            this.tracks = tracks;
+            this.from = from;
+            this.to = to;
+            this.verifyCrc = verifyCrc;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TRACKS_PER_TASK) {
+                MfmTrackParser parser = new MfmTrackParser(verifyCrc);
+                for (int i = from; i < to; i++) {
+                    tracks[i].decode(parser);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TrackDecoder(tracks, from, middle, verifyCrc),
+                        new TrackDecoder(tracks, middle, to, verifyCrc));
+            }
+        }
+    }
+
+    public MfmDskReader() {
+        this(NO_PARALLEL_DECODING);
+    }
+
+    public MfmDskReader(int parallelTrackThreshold) {
+        this(parallelTrackThreshold, false);
+    }
+
+    public MfmDskReader(int parallelTrackThreshold, boolean verifyCrc) {
+        this.parallelTrackThreshold = parallelTrackThreshold;
+        this.verifyCrc = verifyCrc;
+    }
+
+    public int getParallelTrackThreshold() {
+        return parallelTrackThreshold;
+    }
+
+    public boolean isVerifyCrc() {
+        return verifyCrc;
+    }
+
+    private static MfmTrack[] sliceTracks(ByteBuffer buffer, DskHeader header) throws IOException {
+        int trackCount = header.getTracks() * header.getSides();
+        if (buffer.remaining() < trackCount * Constants.MFM_TRACK_SIZE) {
+            throw new EOFException("MFM image truncated. Expected " + trackCount + " tracks");
+        }
+        MfmTrackParser parser = new MfmTrackParser();
+        MfmTrack[] mfmTracks = new MfmTrack[trackCount];
+        for (int i = 0; i < trackCount; i++) {
+            ByteBuffer encoded = buffer.duplicate();
+            int offset = ((Buffer) buffer).position() + i * Constants.MFM_TRACK_SIZE;
+            ((Buffer) encoded).position(offset);
+            ((Buffer) encoded).limit(offset + Constants.MFM_TRACK_SIZE);
+            mfmTracks[i] = new MfmTrack(i, encoded.slice(), parser);
+        }
+        return mfmTracks;
+    }
+
+    private void decodeTracks(MfmTrack[] mfmTracks, boolean verify) {
+        if (mfmTracks.length >= parallelTrackThreshold) {
+            ForkJoinPool.commonPool().invoke(new TrackDecoder(mfmTracks, 0, mfmTracks.length, verify));
+        } else {
+            MfmTrackParser parser = new MfmTrackParser(verify);
+            for (MfmTrack mfmTrack : mfmTracks) {
+                mfmTrack.decode(parser);
+            }
+        }
+    }
+
+    private static DiskIntegrityReport integrityReport(MfmTrack[] mfmTracks) {
+        List<TrackIntegrity> integrities = new ArrayList<>(mfmTracks.length);
+        for (MfmTrack mfmTrack : mfmTracks) {
+            integrities.add(mfmTrack.getIntegrity());
+        }
+        return new DiskIntegrityReport(integrities);
+    }
+
+    //Checks the CRCs of all the tracks, whatever the verify mode of the reader
+    public DiskIntegrityReport verify(ByteBuffer buffer, DskHeader header) throws IOException {
+        MfmTrack[] mfmTracks = sliceTracks(buffer, header);
+        decodeTracks(mfmTracks, true);
+        return integrityReport(mfmTracks);
+    }
+
+    @Override
+    public Disk fromDsk(InputStream stream, DskHeader header) throws IOException {
+        return fromDsk(ByteBuffer.wrap(Util.fromInputStream(stream,
+                header.getTracks() * header.getSides() * Constants.MFM_TRACK_SIZE)), header);
+    }
+
+    @Override
+    public Disk fromDsk(ByteBuffer buffer, DskHeader header) throws IOException {
+        LOGGER.debug("DSK header: " + header);
+        MfmTrack[] mfmTracks = sliceTracks(buffer, header);
+        int trackCount = mfmTracks.length;
+        ComplexDiskGeometry.Builder geometryBuilder = ComplexDiskGeometry.newBuilder()
+                .withSideCount(header.getSides())
+                .withTrackCount(header.getTracks())
+                .withGeometryId(header.getGeometry());
+        Track[] tracks = new Track[trackCount];
+        if (verifyCrc || trackCount >= parallelTrackThreshold) {
+            decodeTracks(mfmTracks, verifyCrc);
+            if (verifyCrc) {
+                DiskIntegrityReport report = integrityReport(mfmTracks);
+                if (!report.isValid()) {
+                    throw new IntegrityException(report);
+                }
+            }
+            for (int i = 0; i < trackCount; i++) {
+                geometryBuilder.withTrackGeometry(i, mfmTracks[i].getGeometry());
+                tracks[i] = new Track(mfmTracks[i].getSectors());
+            }
+        } else {
+            //Tracks are only sliced here. They get decoded the first time a sector
+            //or the geometry of the track is requested
+            for (int i = 0; i < trackCount; i++) {
+                tracks[i] = new Track(mfmTracks[i]::getSectors);
+            }
+            geometryBuilder.withTrackGeometryResolver(track -> mfmTracks[track].getGeometry());
+        }
+        return new Disk(tracks, geometryBuilder.build());
+    }
+
+}
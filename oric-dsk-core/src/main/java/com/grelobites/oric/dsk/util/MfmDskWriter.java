@@ -0,0 +1,234 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.jfr.DskSaveEvent;
+import com.grelobites.oric.dsk.jfr.JfrSupport;
+import com.grelobites.oric.dsk.metrics.DskMetrics;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.TrackGeometry;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Writes disks as MFM images. Each track is copied from a template with the lead,
+ * gaps and sync marks of its geometry, and only the ID fields, sector data and CRCs
+ * are patched in. Sectors go to their physical slot after the interleave and skew
+ * of the track geometry, unless the writer overrides them for every track.
+ * Templates and the track buffer are reused between tracks. Not thread safe.
+ */
+public class MfmDskWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MfmDskWriter.class);
+    private static final byte FILLER = 0x4E;
+    private static final byte GAP2_FILLER = 0x22;
+    private static final byte SYNC_MARK = (byte) 0xA1;
+    private static final byte ID_MARK = (byte) 0xFE;
+    private static final byte DATA_MARK = (byte) 0xFB;
+    private static final int SYNC_ZEROES = 12;
+    private static final int SYNC_MARKS = 3;
+    private static final int ID_FIELD_SIZE = 4;
+    private static final int CRC_SIZE = 2;
+
+    private final byte[] track = new byte[Constants.MFM_TRACK_SIZE];
+    private final ByteBuffer trackBuffer = ByteBuffer.wrap(track);
+    private final List<TrackTemplate> templates = new ArrayList<>();
+    //Overrides for the track geometry values. Null to keep them
+    private final Integer interleave;
+    private final Integer skew;
+
+    public MfmDskWriter() {
+        this(null, null);
+    }
+
+    public MfmDskWriter(Integer interleave, Integer skew) {
+        this.interleave = interleave;
+        this.skew = skew;
+    }
+
+    private static class TrackTemplate {
+        private final int sectorSize;
+        private final int sectorCount;
+        private final int trackLead;
+        private final int gap2;
+        private final int gap3;
+        private final byte[] image = new byte[Constants.MFM_TRACK_SIZE];
+        private final int[] idOffsets;
+        private final int[] dataOffsets;
+
+        private static void fill(ByteBuffer buffer, int count, byte value) {
+            for (int i = 0; i < count; i++) {
+                buffer.put(value);
+            }
+        }
+
+        private static void skip(ByteBuffer buffer, int count) {
+            ((Buffer) buffer).position(buffer.position() + count);
+        }
+
+        TrackTemplate(TrackGeometry geometry) {
+            sectorSize = geometry.getSectorSize();
+            sectorCount = geometry.getSectorCount();
+            trackLead = geometry.getTrackLead();
+            gap2 = geometry.getGap2();
+            gap3 = geometry.getGap3();
+            idOffsets = new int[sectorCount];
+            dataOffsets = new int[sectorCount];
+
+            ByteBuffer buffer = ByteBuffer.wrap(image);
+            fill(buffer, trackLead, FILLER);
+            for (int sector = 0; sector < sectorCount; sector++) {
+                fill(buffer, SYNC_ZEROES, (byte) 0);
+                fill(buffer, SYNC_MARKS, SYNC_MARK);
+                buffer.put(ID_MARK);
+                idOffsets[sector] = buffer.position();
+                skip(buffer, ID_FIELD_SIZE + CRC_SIZE);
+                fill(buffer, gap2, GAP2_FILLER);
+                fill(buffer, SYNC_ZEROES, (byte) 0);
+                fill(buffer, SYNC_MARKS, SYNC_MARK);
+                buffer.put(DATA_MARK);
+                dataOffsets[sector] = buffer.position();
+                skip(buffer, sectorSize + CRC_SIZE);
+                fill(buffer, gap3, FILLER);
+            }
+            fill(buffer, buffer.remaining(), FILLER);
+        }
+
+        boolean matches(TrackGeometry geometry) {
+            return geometry.getSectorSize() == sectorSize &&
+                    geometry.getSectorCount() == sectorCount &&
+                    geometry.getTrackLead() == trackLead &&
+                    geometry.getGap2() == gap2 &&
+                    geometry.getGap3() == gap3;
+        }
+    }
+
+    private static int encodeSectorSize(int sectorSize) {
+        return sectorSize == 256 ? 1 : 2;
+    }
+
+    private TrackTemplate template(TrackGeometry geometry) {
+        for (int i = 0; i < templates.size(); i++) {
+            TrackTemplate template = templates.get(i);
+            if (template.matches(geometry)) {
+                return template;
+            }
+        }
+        TrackTemplate template = new TrackTemplate(geometry);
+        templates.add(template);
+        return template;
+    }
+
+    //Stores the CRC of the field, resuming from the precomputed CRC of its marks
+    private void putCrc(int seed, int from, int length) {
+        int crc = Crc16.update(seed, track, from, length);
+        track[from + length] = (byte) (crc >> 8);
+        track[from + length + 1] = (byte) crc;
+    }
+
+    private void encodeTrack(Disk disk, int trackIndex, TrackGeometry geometry) {
+        LOGGER.debug("Dumping track with geometry {}", geometry);
+        TrackTemplate template = template(geometry);
+        System.arraycopy(template.image, 0, track, 0, track.length);
+        int cylinder = trackIndex % disk.getGeometry().getTrackCount();
+        int trackInterleave = interleave != null ? interleave : geometry.getInterleave();
+        int trackSkew = skew != null ? skew : geometry.getSkew();
+        for (int sector = 0; sector < template.sectorCount; sector++) {
+            int slot = TrackGeometry.sectorSlot(sector + 1, template.sectorCount,
+                    trackInterleave, trackSkew, cylinder);
+            int idOffset = template.idOffsets[slot];
+            track[idOffset] = (byte) trackIndex;
+            track[idOffset + 1] = (byte) geometry.getSide();
+            track[idOffset + 2] = (byte) (sector + 1);
+            track[idOffset + 3] = (byte) encodeSectorSize(template.sectorSize);
+            putCrc(Crc16.ID_MARK_SEED, idOffset, ID_FIELD_SIZE);
+
+            int dataOffset = template.dataOffsets[slot];
+            disk.getSectorBuffer(new SectorCoordinates(trackIndex, sector + 1))
+                    .get(track, dataOffset, template.sectorSize);
+            putCrc(Crc16.DATA_MARK_SEED, dataOffset, template.sectorSize);
+        }
+    }
+
+    //Header and whole tracks
+    private static long writtenBytes(int tracks) {
+        return Constants.SECTOR_SIZE + (long) tracks * Constants.MFM_TRACK_SIZE;
+    }
+
+    private static DskHeader header(DiskGeometry geometry) {
+        return DskHeader.newBuilder()
+                .withTracks(geometry.getTrackCount())
+                .withSides(geometry.getSideCount())
+                .withSignature(Constants.NEW_DSK_SIGNATURE)
+                .withGeometry(1).build();
+    }
+
+    public void write(Disk disk, OutputStream os) throws IOException {
+        write(disk, os, ProgressMonitor.NONE);
+    }
+
+    //Progress is reported per track. Cancelling stops before the next track
+    public void write(Disk disk, OutputStream os, ProgressMonitor monitor) throws IOException {
+        DiskGeometry geometry = disk.getGeometry();
+        DskSaveEvent event = JfrSupport.AVAILABLE ?
+                DskSaveEvent.start(geometry.getTrackCount(), geometry.getSideCount()) : null;
+        long startTime = DskMetrics.get().startTime();
+        int trackCount = geometry.getTrackCount() * geometry.getSideCount();
+        int written = 0;
+        try {
+            header(geometry).dump(os);
+            for (int i = 0; i < trackCount; i++) {
+                monitor.checkCancelled();
+                encodeTrack(disk, i, geometry.getTrackGeometry(i));
+                os.write(track);
+                written++;
+                monitor.progress(i + 1, trackCount);
+            }
+            DskMetrics.get().diskSaved(writtenBytes(written), startTime);
+        } finally {
+            if (event != null) {
+                event.complete(written, writtenBytes(written));
+            }
+        }
+    }
+
+    public void write(Disk disk, WritableByteChannel channel) throws IOException {
+        write(disk, channel, ProgressMonitor.NONE);
+    }
+
+    public void write(Disk disk, WritableByteChannel channel, ProgressMonitor monitor) throws IOException {
+        DiskGeometry geometry = disk.getGeometry();
+        DskSaveEvent event = JfrSupport.AVAILABLE ?
+                DskSaveEvent.start(geometry.getTrackCount(), geometry.getSideCount()) : null;
+        long startTime = DskMetrics.get().startTime();
+        int trackCount = geometry.getTrackCount() * geometry.getSideCount();
+        int written = 0;
+        try {
+            header(geometry).dump(channel);
+            for (int i = 0; i < trackCount; i++) {
+                monitor.checkCancelled();
+                encodeTrack(disk, i, geometry.getTrackGeometry(i));
+                ((Buffer) trackBuffer).clear();
+                while (trackBuffer.hasRemaining()) {
+                    channel.write(trackBuffer);
+                }
+                written++;
+                monitor.progress(i + 1, trackCount);
+            }
+            DskMetrics.get().diskSaved(writtenBytes(written), startTime);
+        } finally {
+            if (event != null) {
+                event.complete(written, writtenBytes(written));
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.CrcStatus;
+import com.grelobites.oric.dsk.model.SectorIntegrity;
+import com.grelobites.oric.dsk.model.TrackGeometry;
+import com.grelobites.oric.dsk.model.TrackIntegrity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Parses MFM tracks by scanning for the A1 A1 A1 FE (ID) and A1 A1 A1 FB (data)
+ * sync marks over the track buffer. Sector locations are kept in primitive arrays
+ * reused between tracks, and identical track geometries are shared.
+ * Optionally, the CRCs of the ID and data fields are verified. Fields holding the
+ * F7 F7 placeholder used by write track dumps carry no CRC and are only counted.
+ * ID fields with an unknown size code are skipped and reported as damaged.
+ * Not thread safe: use one parser per thread.
+ */
+public class MfmTrackParser {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MfmTrackParser.class);
+    private static final int SYNC_MARK = 0xA1;
+    private static final int ID_MARK = 0xFE;
+    private static final int DATA_MARK = 0xFB;
+    private static final int ID_FIELD_SIZE = 4;
+    //Size codes of 128, 256, 512 and 1024 byte sectors
+    private static final int MAX_SIZE_CODE = 3;
+    private static final int CRC_SIZE = 2;
+    private static final int CRC_PLACEHOLDER = 0xF7F7;
+    private static final byte[][] NO_SECTORS = new byte[0][];
+
+    //Indexed by sector id, which starts at 1
+    private final int[] dataOffsets = new int[Constants.MAX_SECTORS_PER_TRACK + 1];
+    private final int[] dataSizes = new int[Constants.MAX_SECTORS_PER_TRACK + 1];
+    //Bitmaps with the sector ids seen in the current track, with and without data
+    private final long[] sectorIds = new long[4];
+    private final long[] idFields = new long[4];
+    //Bitmaps with the sector ids whose ID or data field CRC did not match
+    private final long[] idCrcErrors = new long[4];
+    private final long[] dataCrcErrors = new long[4];
+    //Bitmaps with the sector ids whose ID or data field holds the CRC placeholder
+    private final long[] idCrcPlaceholders = new long[4];
+    private final long[] dataCrcPlaceholders = new long[4];
+    //Bitmap with the sector ids whose ID field has an unknown size code
+    private final long[] damagedIdFields = new long[4];
+    private final boolean verifyCrc;
+    private int crcErrorCount;
+    private int uncheckedCrcCount;
+    private final List<TrackGeometry> geometries = new ArrayList<>();
+    private byte[][] sectors = NO_SECTORS;
+
+    public MfmTrackParser() {
+        this(false);
+    }
+
+    public MfmTrackParser(boolean verifyCrc) {
+        this.verifyCrc = verifyCrc;
+    }
+
+    private static int byteAt(ByteBuffer buffer, int index) {
+        return buffer.get(index) & 0xff;
+    }
+
+    //Returns the position right after the mark byte, or -1 if not found
+    private static int findMark(ByteBuffer buffer, int from, int limit, int mark) {
+        int index = from;
+        while (index < limit) {
+            if (byteAt(buffer, index) == SYNC_MARK) {
+                do {
+                    index++;
+                } while (index < limit && byteAt(buffer, index) == SYNC_MARK);
+                if (index < limit && byteAt(buffer, index) == mark) {
+                    return index + 1;
+                }
+            } else {
+                index++;
+            }
+        }
+        return -1;
+    }
+
+    //Bytes until the next zero, as counted for the track lead and gaps
+    private static int gapLength(ByteBuffer buffer, int from, int limit) {
+        int index = from;
+        while (index < limit && buffer.get(index) != 0) {
+            index++;
+        }
+        return index < limit ? index - from : -1;
+    }
+
+    private static boolean isSet(long[] bitmap, int id) {
+        return (bitmap[id >> 6] & (1L << id)) != 0;
+    }
+
+    private static void set(long[] bitmap, int id) {
+        bitmap[id >> 6] |= 1L << id;
+    }
+
+    private void verifyField(ByteBuffer buffer, long[] errors, long[] placeholders,
+                             int sectorId, int seed, int from, int length) {
+        int crcOffset = from + length;
+        int stored = crcOffset + CRC_SIZE <= buffer.limit() ?
+                (byteAt(buffer, crcOffset) << 8) | byteAt(buffer, crcOffset + 1) : -1;
+        if (stored == CRC_PLACEHOLDER) {
+            set(placeholders, sectorId);
+            uncheckedCrcCount++;
+        } else if (stored != Crc16.update(seed, buffer, from, length)) {
+            LOGGER.debug("CRC mismatch in field of sector {} at track offset {}", sectorId, from);
+            set(errors, sectorId);
+            crcErrorCount++;
+        }
+    }
+
+    private TrackGeometry geometry(int trackLead, int sectorCount, int sectorSize,
+                                   int gap2, int gap3) {
+        for (int i = 0; i < geometries.size(); i++) {
+            TrackGeometry candidate = geometries.get(i);
+            if (candidate.getTrackLead() == trackLead &&
+                    candidate.getSectorCount() == sectorCount &&
+                    candidate.getSectorSize() == sectorSize &&
+                    candidate.getGap2() == gap2 &&
+                    candidate.getGap3() == gap3) {
+                return candidate;
+            }
+        }
+        TrackGeometry geometry = TrackGeometry.newBuilder()
+                .withTrackLead(trackLead)
+                .withSectorCount(sectorCount)
+                .withSectorSize(sectorSize)
+                .withGap2(gap2)
+                .withGap3(gap3)
+                .build();
+        geometries.add(geometry);
+        return geometry;
+    }
+
+    public TrackGeometry parse(ByteBuffer buffer) {
+        int limit = buffer.limit();
+        Arrays.fill(dataOffsets, -1);
+        Arrays.fill(sectorIds, 0);
+        Arrays.fill(idFields, 0);
+        Arrays.fill(idCrcErrors, 0);
+        Arrays.fill(dataCrcErrors, 0);
+        Arrays.fill(idCrcPlaceholders, 0);
+        Arrays.fill(dataCrcPlaceholders, 0);
+        Arrays.fill(damagedIdFields, 0);
+        crcErrorCount = 0;
+        uncheckedCrcCount = 0;
+        int sectorCount = 0;
+        int sectorSize = 0;
+        int gap2 = 0;
+        int gap3 = 0;
+        int trackLead = Math.max(0, gapLength(buffer, 0, limit));
+
+        int position = findMark(buffer, trackLead, limit, ID_MARK);
+        while (position >= 0 && position + ID_FIELD_SIZE + CRC_SIZE <= limit) {
+            int sectorId = byteAt(buffer, position + 2);
+            int sizeCode = byteAt(buffer, position + 3);
+            if (sizeCode > MAX_SIZE_CODE) {
+                LOGGER.debug("Damaged ID field of sector {} with size code {} at track offset {}",
+                        sectorId, sizeCode, position);
+                set(idFields, sectorId);
+                set(damagedIdFields, sectorId);
+                position = findMark(buffer, position + ID_FIELD_SIZE, limit, ID_MARK);
+                continue;
+            }
+            sectorSize = 128 << sizeCode;
+            set(idFields, sectorId);
+            if (verifyCrc) {
+                verifyField(buffer, idCrcErrors, idCrcPlaceholders, sectorId,
+                        Crc16.ID_MARK_SEED, position, ID_FIELD_SIZE);
+            }
+            position += ID_FIELD_SIZE + CRC_SIZE;
+            int gap = gapLength(buffer, position, limit);
+            if (gap >= 0) {
+                gap2 = gap;
+            }
+            int dataOffset = findMark(buffer, position, limit, DATA_MARK);
+            if (dataOffset < 0 || dataOffset + sectorSize > limit) {
+                LOGGER.debug("Sector {} without data at track offset {}", sectorId, position);
+                break;
+            }
+            if (!isSet(sectorIds, sectorId)) {
+                set(sectorIds, sectorId);
+                sectorCount++;
+            }
+            if (verifyCrc) {
+                verifyField(buffer, dataCrcErrors, dataCrcPlaceholders, sectorId,
+                        Crc16.DATA_MARK_SEED, dataOffset, sectorSize);
+            }
+            if (sectorId < dataOffsets.length) {
+                dataOffsets[sectorId] = dataOffset;
+                dataSizes[sectorId] = sectorSize;
+            }
+            position = dataOffset + sectorSize + CRC_SIZE;
+            gap = gapLength(buffer, position, limit);
+            if (gap >= 0) {
+                gap3 = gap;
+            }
+            position = findMark(buffer, position, limit, ID_MARK);
+        }
+
+        int found = 0;
+        for (int offset : dataOffsets) {
+            if (offset >= 0) {
+                found++;
+            }
+        }
+        sectors = found == 0 ? NO_SECTORS : new byte[found][];
+        ByteBuffer view = buffer.duplicate();
+        int index = 0;
+        for (int i = 0; i < dataOffsets.length; i++) {
+            if (dataOffsets[i] >= 0) {
+                byte[] data = new byte[dataSizes[i]];
+                ((Buffer) view).position(dataOffsets[i]);
+                view.get(data);
+                sectors[index++] = data;
+            }
+        }
+        return geometry(trackLead, sectorCount, sectorSize, gap2, gap3);
+    }
+
+    //Sector data of the last parsed track, ordered by sector id
+    public byte[][] getSectors() {
+        return sectors;
+    }
+
+    public boolean isSectorPresent(int sectorId) {
+        return isSet(sectorIds, sectorId);
+    }
+
+    public boolean isVerifyingCrc() {
+        return verifyCrc;
+    }
+
+    private static CrcStatus crcStatus(long[] errors, long[] placeholders, int sectorId) {
+        if (isSet(errors, sectorId)) {
+            return CrcStatus.INVALID;
+        } else if (isSet(placeholders, sectorId)) {
+            return CrcStatus.UNCHECKED;
+        } else {
+            return CrcStatus.VALID;
+        }
+    }
+
+    public CrcStatus getIdCrcStatus(int sectorId) {
+        if (isSet(damagedIdFields, sectorId)) {
+            return CrcStatus.DAMAGED;
+        }
+        return crcStatus(idCrcErrors, idCrcPlaceholders, sectorId);
+    }
+
+    public CrcStatus getDataCrcStatus(int sectorId) {
+        return isSectorPresent(sectorId) ?
+                crcStatus(dataCrcErrors, dataCrcPlaceholders, sectorId) : CrcStatus.MISSING;
+    }
+
+    //Per sector CRC status of the last parsed track. Requires a verifying parser
+    public TrackIntegrity getIntegrity(int track) {
+        if (!verifyCrc) {
+            throw new IllegalStateException("Parser not verifying CRCs");
+        }
+        List<SectorIntegrity> sectorIntegrities = new ArrayList<>();
+        for (int id = 0; id < idFields.length * Long.SIZE; id++) {
+            if (isSet(idFields, id)) {
+                sectorIntegrities.add(new SectorIntegrity(id, getIdCrcStatus(id), getDataCrcStatus(id)));
+            }
+        }
+        return new TrackIntegrity(track, sectorIntegrities);
+    }
+
+    //CRC mismatches found in the last parsed track. Always 0 without verification
+    public int getCrcErrorCount() {
+        return crcErrorCount;
+    }
+
+    //Fields of the last parsed track with the CRC placeholder instead of a CRC
+    public int getUncheckedCrcCount() {
+        return uncheckedCrcCount;
+    }
+}
@@ -0,0 +1,56 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.model.*;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+public class PlainDskReader implements DskReader {
+
+    private static DiskGeometry geometryFromHeader(DskHeader header) {
+        return SimpleDiskGeometry.newBuilder()
+                .withSideCount(header.getSides())
+                .withTrackCount(header.getTracks())
+                .withTrackGeometry(TrackGeometry.newBuilder()
+                        .withSectorSize(256)
+                        .withSectorCount(header.getSectors())
+                        .build())
+                .build();
+    }
+
+    //Plain images are already laid out as consecutive sectors, so they are
+    //kept in a single flat buffer
+    private static int imageSize(DiskGeometry geometry) {
+        TrackGeometry trackGeometry = geometry.getTrackGeometry(0);
+        return geometry.getTrackCount() * trackGeometry.getSectorCount() * trackGeometry.getSectorSize();
+    }
+
+    @Override
+    public Disk fromDsk(InputStream stream, DskHeader header) throws IOException {
+        DiskGeometry geometry = geometryFromHeader(header);
+        byte[] data = new byte[imageSize(geometry)];
+        int position = 0;
+        int read;
+        while (position < data.length &&
+                (read = stream.read(data, position, data.length - position)) != -1) {
+            position += read;
+        }
+        return Disk.newFlatDisk(ByteBuffer.wrap(data), geometry, geometry.getTrackCount());
+    }
+
+    //The disk is a view over the buffer, read only for mapped files. Only truncated
+    //images get copied, padded with zeroes
+    @Override
+    public Disk fromDsk(ByteBuffer buffer, DskHeader header) throws IOException {
+        DiskGeometry geometry = geometryFromHeader(header);
+        int size = imageSize(geometry);
+        if (buffer.remaining() >= size) {
+            return Disk.newFlatDisk(buffer, geometry, geometry.getTrackCount());
+        }
+        byte[] data = new byte[size];
+        buffer.duplicate().get(data, 0, buffer.remaining());
+        return Disk.newFlatDisk(ByteBuffer.wrap(data), geometry, geometry.getTrackCount());
+    }
+}
@@ -0,0 +1,30 @@
+package com.grelobites.oric.dsk.util;
+
+import java.util.concurrent.CancellationException;
+
+/*
+ * Receives the progress of long running operations, which check it between
+ * steps to stop early. Implementations may be called from any thread.
+ */
+public interface ProgressMonitor {
+    ProgressMonitor NONE = new ProgressMonitor() {
+        @Override
+        public void progress(long done, long total) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    void progress(long done, long total);
+
+    boolean isCancelled();
+
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Operation cancelled");
+        }
+    }
+}
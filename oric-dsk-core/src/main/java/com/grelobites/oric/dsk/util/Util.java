@@ -137,12 +137,6 @@ public class Util {
     //Calculates a CRC16 value for the bytes between the current position - length
     //and the current position of the ByteBuffer argument
     public static short crc16(ByteBuffer buffer, int length) {
-	    int crc = 0xFFFF;
-
-	    for (int i = buffer.position() - length; i < buffer.position(); i++) {
-	        int offset = ((crc >> 8) ^ buffer.get(i)) & 0xff;
-		    crc = (crc << 8) ^ Constants.CRCTAB[offset];
-	    }
-	    return Integer.valueOf(crc).shortValue();
+        return (short) Crc16.update(Crc16.INITIAL_VALUE, buffer, buffer.position() - length, length);
     }
 }
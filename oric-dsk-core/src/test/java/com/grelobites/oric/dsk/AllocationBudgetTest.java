@@ -0,0 +1,160 @@
+package com.grelobites.oric.dsk;
+
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.sedoric.SedoricDescriptor;
+import com.grelobites.oric.dsk.sedoric.SedoricDirectory;
+import com.grelobites.oric.dsk.util.DskUtil;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/*
+ * Bytes allocated by the decode and encode paths on the bundled images, checked against
+ * the budgets in allocation-budgets.properties. Keys are operation.image geometry
+ * (tracks x sides x sectors), falling back to the operation alone. Any of them can be
+ * overridden with -Dallocation.budget.<key>=<bytes>.
+ * Runs in its own surefire execution, with logging off so that only the code under
+ * test gets measured
+ */
+public class AllocationBudgetTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AllocationBudgetTest.class);
+    private static final String BUDGETS_RESOURCE = "/allocation-budgets.properties";
+    private static final String BUDGET_PROPERTY_PREFIX = "allocation.budget.";
+    private static final String[] IMAGES = {TestImages.BUGGY_BOY, TestImages.XENON_NEW,
+            TestImages.XENON_OLD, TestImages.ORIC_DOS};
+    private static final String[] SEDORIC_IMAGES = {TestImages.BUGGY_BOY, TestImages.XENON_NEW,
+            TestImages.XENON_OLD};
+    //Let the JIT settle before measuring and keep the lowest of the measured runs
+    private static final int WARMUP_RUNS = 20;
+    private static final int MEASURED_RUNS = 5;
+
+    private static com.sun.management.ThreadMXBean threadBean;
+    private static Properties budgets;
+
+    private interface Operation {
+        void run() throws IOException;
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        budgets = new Properties();
+        try (InputStream stream = AllocationBudgetTest.class.getResourceAsStream(BUDGETS_RESOURCE)) {
+            budgets.load(stream);
+        }
+    }
+
+    private static String geometryKey(Disk disk) {
+        DiskGeometry geometry = disk.getGeometry();
+        return geometry.getTrackCount() + "x" + geometry.getSideCount() + "x" +
+                geometry.getTrackGeometry(0).getSectorCount();
+    }
+
+    private static long budget(String operation, String geometry) {
+        String key = operation + "." + geometry;
+        String value = System.getProperty(BUDGET_PROPERTY_PREFIX + key, budgets.getProperty(key));
+        if (value == null) {
+            value = System.getProperty(BUDGET_PROPERTY_PREFIX + operation, budgets.getProperty(operation));
+        }
+        if (value == null) {
+            throw new IllegalStateException("No allocation budget for " + key);
+        }
+        return Long.parseLong(value.trim());
+    }
+
+    private static long allocatedBytes(Operation operation) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            operation.run();
+        }
+        long lowest = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            operation.run();
+            lowest = Math.min(lowest, threadBean.getThreadAllocatedBytes(threadId) - before);
+        }
+        return lowest;
+    }
+
+    private static void checkBudget(String operation, String image, String geometry, Operation code)
+            throws IOException {
+        long allocated = allocatedBytes(code);
+        long budget = budget(operation, geometry);
+        LOGGER.info("{} on {} ({}) allocated {} bytes of a {} bytes budget",
+                operation, image, geometry, allocated, budget);
+        assertTrue(String.format("%s on %s (%s) allocated %d bytes, over its budget of %d",
+                operation, image, geometry, allocated, budget), allocated <= budget);
+    }
+
+    private static Disk disk(byte[] data) throws IOException {
+        return DskUtil.diskFromDskStream(new ByteArrayInputStream(data));
+    }
+
+    @Test
+    public void diskFromDskStreamWithinBudget() throws IOException {
+        for (String image : IMAGES) {
+            byte[] data = TestImages.bytes(image);
+            checkBudget("diskFromDskStream", image, geometryKey(disk(data)), () -> disk(data));
+        }
+    }
+
+    @Test
+    public void directoryFromDiskWithinBudget() throws IOException {
+        for (String image : SEDORIC_IMAGES) {
+            Disk disk = disk(TestImages.bytes(image)).toFlatDisk();
+            checkBudget("directoryFromDisk", image, geometryKey(disk), () -> SedoricDirectory.fromDisk(disk));
+        }
+    }
+
+    @Test
+    public void descriptorForSectorWithinBudget() throws IOException {
+        for (String image : SEDORIC_IMAGES) {
+            Disk disk = disk(TestImages.bytes(image)).toFlatDisk();
+            List<SedoricDirectory> directories = new ArrayList<>(SedoricDirectory.fromDisk(disk));
+            //All the descriptors in the directory, in one pass
+            checkBudget("descriptorForSector", image, geometryKey(disk), () -> {
+                for (SedoricDirectory directory : directories) {
+                    SedoricDescriptor.forSector(directory.getDescriptorLocation().getTrack(),
+                            directory.getDescriptorLocation().getSector(), disk);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void dumpAsMfmWithinBudget() throws IOException {
+        OutputStream sink = new NullOutputStream();
+        for (String image : IMAGES) {
+            Disk disk = disk(TestImages.bytes(image)).toFlatDisk();
+            checkBudget("dumpAsMfm", image, geometryKey(disk), () -> DskUtil.dumpAsMfm(disk, sink));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.grelobites.oric.dsk;
+
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
+import com.grelobites.oric.dsk.model.SimpleDiskGeometry;
+import com.grelobites.oric.dsk.model.TrackGeometry;
+import com.grelobites.oric.dsk.sedoric.SedoricBitmap;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+
+public class BitmapTest {
+
+    @Test
+    public void testAllocation() {
+        SedoricBitmap bitmap = new SedoricBitmap(Constants.DEFAULT_DISK_GEOMETRY);
+        SectorCoordinates allocated = bitmap.allocateSector(new SectorCoordinates(20, 1));
+        int freeSectors = bitmap.freeSectors();
+        for (int i = 0; i < freeSectors - 1; i++) {
+            SectorCoordinates free = bitmap.getFreeSector();
+            assert(!(free.getTrack() == allocated.getTrack() &&
+                    free.getSector() == allocated.getSector()));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSequentialAllocationOnDoubleSidedDisk() {
+        SedoricBitmap bitmap = new SedoricBitmap(SimpleDiskGeometry.newBuilder()
+                .withTrackCount(80)
+                .withSideCount(2)
+                .withTrackGeometry(TrackGeometry.newBuilder()
+                        .withSectorCount(17)
+                        .withSectorSize(256).build())
+                .build());
+        bitmap.allocateSector(new SectorCoordinates(0, 2));
+        assertEquals(new SectorCoordinates(0, 1).toString(), bitmap.getFreeSector().toString());
+        for (int track = 0; track < 160; track++) {
+            for (int sector = track == 0 ? 3 : 1; sector <= 17; sector++) {
+                assertEquals(new SectorCoordinates(track, sector).toString(),
+                        bitmap.getFreeSector().toString());
+            }
+        }
+        assertEquals(0, bitmap.freeSectors());
+        bitmap.getFreeSector();
+    }
+
+    @Test
+    public void packedAllocationMatchesCoordinates() {
+        SedoricBitmap bitmap = new SedoricBitmap(Constants.DEFAULT_DISK_GEOMETRY);
+        SedoricBitmap packedBitmap = new SedoricBitmap(Constants.DEFAULT_DISK_GEOMETRY);
+        SectorList sectors = new SectorList();
+        int freeSectors = bitmap.freeSectors();
+        for (int i = 0; i < freeSectors; i++) {
+            SectorCoordinates free = bitmap.getFreeSector();
+            sectors.addPacked(packedBitmap.getPackedFreeSector());
+            assertEquals(free.getTrack(), sectors.getTrack(i));
+            assertEquals(free.getSector(), sectors.getSector(i));
+            assertEquals(free.toString(), sectors.asList().get(i).toString());
+        }
+        assertEquals(freeSectors, sectors.asList().size());
+        assertEquals(bitmap.allocatedBytes(), packedBitmap.allocatedBytes());
+        assertEquals(sectors.toString(), SectorList.of(sectors.asList()).toString());
+    }
+}
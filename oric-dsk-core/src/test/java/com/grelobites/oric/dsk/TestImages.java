@@ -0,0 +1,166 @@
+package com.grelobites.oric.dsk;
+
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorList;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.sedoric.SedoricDescriptor;
+import com.grelobites.oric.dsk.sedoric.SedoricDirectory;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import com.grelobites.oric.dsk.util.DskUtil;
+import com.grelobites.oric.dsk.util.Util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * Access to the bundled test images and checks shared by the tests
+ */
+public final class TestImages {
+    public static final String BUGGY_BOY = "BuggyBoy.dsk";
+    public static final String XENON_NEW = "xenon1.new.dsk";
+    public static final String XENON_OLD = "xenon1.old.dsk";
+    public static final String ORIC_DOS = "oricdos.dsk";
+    //MFM image with a damaged data field
+    public static final String BARBITORIC = "barbitoric.dsk";
+    private static final int BITMAP_HEADER_LENGTH = 0x10;
+
+    private TestImages() {
+    }
+
+    public static File file(String name) {
+        try {
+            return new File(TestImages.class.getResource("/" + name).toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid resource " + name, e);
+        }
+    }
+
+    public static InputStream stream(String name) {
+        return TestImages.class.getResourceAsStream("/" + name);
+    }
+
+    public static byte[] bytes(String name) throws IOException {
+        try (InputStream stream = stream(name)) {
+            return Util.fromInputStream(stream);
+        }
+    }
+
+    public static Disk disk(String name) throws IOException {
+        try (InputStream stream = stream(name)) {
+            return DskUtil.diskFromDskStream(stream);
+        }
+    }
+
+    //Memory mapped and lazily decoded
+    public static Disk mappedDisk(String name) throws IOException {
+        return DskUtil.diskFromDskFile(file(name));
+    }
+
+    public static SedoricFileSystem fileSystem(String name) throws IOException {
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        fileSystem.openDsk(file(name));
+        return fileSystem;
+    }
+
+    //Same names and contents, up to the size of the expected archives
+    public static void assertSameArchives(List<? extends SedoricArchive> expected,
+                                          List<? extends SedoricArchive> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            SedoricArchive archive = expected.get(i);
+            assertEquals(archive.getName(), actual.get(i).getName());
+            assertEquals(archive.getExtension(), actual.get(i).getExtension());
+            assertTrue(archive.getName(), Arrays.equals(Arrays.copyOf(archive.getData(), archive.getSize()),
+                    Arrays.copyOf(actual.get(i).getData(), archive.getSize())));
+        }
+    }
+
+    private static int linearSector(DiskGeometry geometry, int[] trackOffsets, int encodedTrack, int sector) {
+        return trackOffsets[geometry.decodeTrack(encodedTrack)] + sector - 1;
+    }
+
+    //The bitmap read back from a SEDORIC disk marks as used exactly the system, bitmap, bootstrap,
+    //directory, descriptor and file sectors, and its free sector count matches
+    public static void assertBitmapMatchesAllocation(Disk disk, boolean bootable) throws IOException {
+        DiskGeometry geometry = disk.getGeometry();
+        int trackCount = geometry.getTrackCount() * geometry.getSideCount();
+        int[] trackOffsets = new int[trackCount + 1];
+        for (int i = 0; i < trackCount; i++) {
+            trackOffsets[i + 1] = trackOffsets[i] + geometry.getTrackGeometry(i).getSectorCount();
+        }
+        int sectorCount = trackOffsets[trackCount];
+        int track = Constants.SEDORIC_DIRECTORY_TRACK;
+        boolean twoSectors = (sectorCount + 7) / 8 > Constants.SECTOR_SIZE - BITMAP_HEADER_LENGTH;
+
+        BitSet used = new BitSet(sectorCount);
+        used.set(linearSector(geometry, trackOffsets, track, Constants.SEDORIC_SYSTEM_SECTOR));
+        used.set(linearSector(geometry, trackOffsets, track, Constants.SEDORIC_BITMAP_SECTOR));
+        if (twoSectors) {
+            used.set(linearSector(geometry, trackOffsets, track, Constants.SEDORIC_BITMAP_SECTOR + 1));
+        }
+        if (bootable) {
+            used.set(0, (Constants.getSedoricBootStrap().length + Constants.SECTOR_SIZE - 1)
+                    / Constants.SECTOR_SIZE);
+        }
+        int sector = Constants.SEDORIC_DIRECTORY_SECTOR;
+        while (track != 0) {
+            used.set(linearSector(geometry, trackOffsets, track, sector));
+            byte[] directory = disk.copySectorFromEncodedTrack(track, sector);
+            track = Util.asUnsignedByte(directory[0]);
+            sector = Util.asUnsignedByte(directory[1]);
+        }
+        for (SedoricDirectory directory : SedoricDirectory.fromDisk(disk)) {
+            SectorCoordinates descriptorLocation = directory.getDescriptorLocation();
+            track = descriptorLocation.getTrack();
+            sector = descriptorLocation.getSector();
+            while (track != 0) {
+                used.set(linearSector(geometry, trackOffsets, track, sector));
+                byte[] descriptor = disk.copySectorFromEncodedTrack(track, sector);
+                track = Util.asUnsignedByte(descriptor[0]);
+                sector = Util.asUnsignedByte(descriptor[1]);
+            }
+            SectorList fileSectors = SedoricDescriptor.forSector(descriptorLocation.getTrack(),
+                    descriptorLocation.getSector(), disk).getFileSectorList();
+            for (int i = 0; i < fileSectors.size(); i++) {
+                used.set(linearSector(geometry, trackOffsets, fileSectors.getTrack(i), fileSectors.getSector(i)));
+            }
+        }
+
+        byte[] first = disk.copySectorFromEncodedTrack(Constants.SEDORIC_DIRECTORY_TRACK,
+                Constants.SEDORIC_BITMAP_SECTOR);
+        byte[] bitmap = Arrays.copyOfRange(first, BITMAP_HEADER_LENGTH, first.length);
+        if (twoSectors) {
+            byte[] second = disk.copySectorFromEncodedTrack(Constants.SEDORIC_DIRECTORY_TRACK,
+                    Constants.SEDORIC_BITMAP_SECTOR + 1);
+            bitmap = Arrays.copyOf(bitmap, bitmap.length + second.length - BITMAP_HEADER_LENGTH);
+            System.arraycopy(second, BITMAP_HEADER_LENGTH, bitmap, first.length - BITMAP_HEADER_LENGTH,
+                    second.length - BITMAP_HEADER_LENGTH);
+        }
+        for (int i = 0; i < sectorCount; i++) {
+            boolean free = (bitmap[i >> 3] & (1 << (i & 7))) != 0;
+            assertEquals("Linear sector " + i, !used.get(i), free);
+        }
+        assertEquals(sectorCount - used.cardinality(),
+                Util.asUnsignedByte(first[2]) | (Util.asUnsignedByte(first[3]) << 8));
+    }
+
+    public static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
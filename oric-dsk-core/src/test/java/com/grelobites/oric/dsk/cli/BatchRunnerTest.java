@@ -0,0 +1,89 @@
+package com.grelobites.oric.dsk.cli;
+
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.model.DskReaderFactory;
+import com.grelobites.oric.dsk.util.MfmDskReader;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchRunnerTest {
+
+    @Test
+    public void readerOptionsStayWithinTheRun() throws Exception {
+        BatchOptions options = BatchOptions.newBuilder()
+                .withCommand(BatchCommand.LIST)
+                .withParallelTrackThreshold(1)
+                .withVerifyCrc(true)
+                .withThreads(2)
+                .build();
+        Path image = TestImages.file(TestImages.BUGGY_BOY).toPath();
+        ByteArrayOutputStream listing = new ByteArrayOutputStream();
+        PrintStream quiet = new PrintStream(new ByteArrayOutputStream());
+        BatchStats stats = new BatchRunner(options, new PrintStream(listing), quiet)
+                .run(Collections.singletonList(new BatchInput(image, image.getFileName())));
+        assertEquals(1, stats.getProcessed());
+        assertEquals(0, stats.getFailed());
+        assertTrue(listing.toString().contains(TestImages.BUGGY_BOY));
+
+        MfmDskReader reader = DskReaderFactory.getMfmDskReader();
+        assertEquals(MfmDskReader.NO_PARALLEL_DECODING, reader.getParallelTrackThreshold());
+        assertFalse(reader.isVerifyCrc());
+    }
+
+    @Test
+    public void clashingOutputsFailBeforeConverting() throws Exception {
+        Path directory = Files.createTempDirectory("batch");
+        try {
+            Path first = Files.createDirectories(directory.resolve("a")).resolve(TestImages.BUGGY_BOY);
+            Path second = Files.createDirectories(directory.resolve("b")).resolve(TestImages.BUGGY_BOY);
+            Files.copy(TestImages.file(TestImages.BUGGY_BOY).toPath(), first);
+            Files.copy(TestImages.file(TestImages.BUGGY_BOY).toPath(), second);
+            Path output = directory.resolve("out");
+            BatchOptions options = BatchOptions.newBuilder()
+                    .withCommand(BatchCommand.CONVERT)
+                    .withOutputDirectory(output)
+                    .withThreads(2)
+                    .build();
+            List<BatchInput> inputs = new InputCollector()
+                    .addArgument(first.toString())
+                    .addArgument(second.toString())
+                    .getInputs();
+            PrintStream quiet = new PrintStream(new ByteArrayOutputStream());
+            try {
+                new BatchRunner(options, quiet, quiet).run(inputs);
+                fail("Expected an output clash");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains(first.toString()));
+                assertTrue(e.getMessage().contains(second.toString()));
+            }
+            assertFalse(Files.exists(output));
+
+            ByteArrayOutputStream errors = new ByteArrayOutputStream();
+            assertEquals(2, DskBatch.run(new String[]{"convert", "-o", output.toString(),
+                    first.toString(), second.toString()}, quiet, new PrintStream(errors)));
+            assertTrue(errors.toString().contains(second.toString()));
+            assertFalse(Files.exists(output));
+
+            //Listing writes nothing, so the same names are fine
+            options = BatchOptions.newBuilder()
+                    .withCommand(BatchCommand.LIST)
+                    .withThreads(2)
+                    .build();
+            BatchStats stats = new BatchRunner(options, quiet, quiet).run(inputs);
+            assertEquals(2, stats.getProcessed());
+        } finally {
+            TestImages.deleteRecursively(directory);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.grelobites.oric.dsk.cli;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskFormat;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.util.ArchiveUtil;
+import com.grelobites.oric.dsk.util.DskUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertEquals;
+
+public class CorpusGeneratorTest {
+
+    @Test
+    public void generatedCorpusMatchesManifest() throws Exception {
+        Path directory = Files.createTempDirectory("corpus");
+        try {
+            BatchOptions options = BatchOptions.newBuilder()
+                    .withCommand(BatchCommand.GENERATE)
+                    .withOutputDirectory(directory)
+                    .withCount(24)
+                    .withSeed(42)
+                    .withThreads(4)
+                    .build();
+            PrintStream quiet = new PrintStream(new ByteArrayOutputStream());
+            BatchStats stats = new CorpusGenerator(options, quiet, quiet).run();
+            assertEquals(24, stats.getProcessed());
+            assertEquals(0, stats.getFailed());
+
+            CorpusManifest manifest = CorpusManifest.read(directory.resolve(CorpusManifest.FILE_NAME));
+            Set<String> images = new LinkedHashSet<>();
+            manifest.getEntries().forEach(e -> images.add(e.getImage()));
+            for (String image : images) {
+                List<CorpusManifest.Entry> entries = manifest.getEntries(image);
+                Disk disk = DskUtil.diskFromDskFile(directory.resolve(image).toFile());
+                //SEDORIC is only detected on some geometries, but UNKNOWN disks are read as SEDORIC
+                assertEquals(DiskFormat.ORICDOS.name().equals(entries.get(0).getFormat()),
+                        DskUtil.getDiskFormat(disk) == DiskFormat.ORICDOS);
+                //Generated SEDORIC disks are bootable
+                if (DiskFormat.SEDORIC.name().equals(entries.get(0).getFormat())) {
+                    TestImages.assertBitmapMatchesAllocation(disk, true);
+                }
+                List<SedoricArchive> archives = ArchiveUtil.getArchivesFromDisk(disk);
+                assertEquals(image, entries.size(), archives.size());
+                for (int i = 0; i < entries.size(); i++) {
+                    CorpusManifest.Entry entry = entries.get(i);
+                    SedoricArchive archive = archives.get(i);
+                    assertEquals(entry.getName(), archive.getName());
+                    assertEquals(entry.getExtension(), archive.getExtension());
+                    assertEquals(entry.getLoadAddress(), archive.getLoadAddress());
+                    assertEquals(entry.getExecAddress(), archive.getExecAddress());
+                    assertEquals(entry.isBlockAttribute(), archive.isBlockAttribute());
+                    assertEquals(entry.isExecutableAttribute(), archive.isExecutableAttribute());
+                    assertEquals(entry.toString(), entry.getSize(), archive.getSize());
+                    //SEDORIC data spans whole sectors, Oric DOS data ends with the file
+                    byte[] data = archive.getData();
+                    if (DiskFormat.ORICDOS.name().equals(entry.getFormat())) {
+                        assertEquals(entry.toString(), entry.getSize(), data.length);
+                    } else {
+                        assertEquals(entry.toString(), (entry.getSize() + Constants.SECTOR_SIZE - 1)
+                                / Constants.SECTOR_SIZE * Constants.SECTOR_SIZE, data.length);
+                    }
+                    CRC32 crc = new CRC32();
+                    crc.update(data, 0, archive.getSize());
+                    assertEquals(entry.toString(), entry.getCrc32(), crc.getValue());
+                }
+            }
+        } finally {
+            TestImages.deleteRecursively(directory);
+        }
+    }
+}
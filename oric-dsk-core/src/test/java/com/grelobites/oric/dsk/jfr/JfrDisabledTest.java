@@ -0,0 +1,21 @@
+package com.grelobites.oric.dsk.jfr;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * JfrSupport.AVAILABLE is fixed when the class loads, so this runs in its own
+ * surefire execution, with -Doric.dsk.jfr=false
+ */
+public class JfrDisabledTest {
+
+    @Test
+    public void noEventsAreRecorded() throws IOException {
+        assertFalse(JfrSupport.AVAILABLE);
+        assertTrue(JfrEventsTest.record(JfrEventsTest::openDecodeAndSave).isEmpty());
+    }
+}
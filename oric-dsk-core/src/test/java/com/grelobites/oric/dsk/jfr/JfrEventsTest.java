@@ -0,0 +1,111 @@
+package com.grelobites.oric.dsk.jfr;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.util.DskUtil;
+import com.grelobites.oric.dsk.util.FileType;
+import com.grelobites.oric.dsk.util.MfmDskWriter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+public class JfrEventsTest {
+    static final String DSK_OPEN = "com.grelobites.oric.dsk.DskOpen";
+    static final String TRACK_DECODE = "com.grelobites.oric.dsk.TrackDecode";
+    static final String DSK_SAVE = "com.grelobites.oric.dsk.DskSave";
+    //21 tracks, one side, 17 sectors
+    static final String IMAGE = TestImages.XENON_NEW;
+    private static final int TRACKS = 21;
+
+    interface IOOperation {
+        void run() throws IOException;
+    }
+
+    //Opens the image, decodes all its tracks and saves it again, returning the saved bytes
+    static int openDecodeAndSave() throws IOException {
+        Disk disk = DskUtil.diskFromDskFile(TestImages.file(IMAGE));
+        for (int track = 0; track < disk.getTrackCount(); track++) {
+            disk.copySector(track, 1);
+        }
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new MfmDskWriter().write(disk, os);
+        return os.size();
+    }
+
+    //Events of this project recorded while running the operation, with no thresholds
+    static List<RecordedEvent> record(IOOperation operation) throws IOException {
+        Path dump = Files.createTempFile("oric-dsk", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(DSK_OPEN).withThreshold(Duration.ZERO);
+            recording.enable(TRACK_DECODE).withThreshold(Duration.ZERO);
+            recording.enable(DSK_SAVE).withThreshold(Duration.ZERO);
+            recording.start();
+            operation.run();
+            recording.stop();
+            recording.dump(dump);
+            return RecordingFile.readAllEvents(dump).stream()
+                    .filter(e -> e.getEventType().getCategoryNames().contains(JfrSupport.CATEGORY))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void openDecodeAndSaveAreRecorded() throws IOException {
+        assumeTrue(JfrSupport.AVAILABLE);
+        int[] saved = new int[1];
+        List<RecordedEvent> events = record(() -> saved[0] = openDecodeAndSave());
+        File image = TestImages.file(IMAGE);
+
+        List<RecordedEvent> opens = named(events, DSK_OPEN);
+        assertEquals(1, opens.size());
+        RecordedEvent open = opens.get(0);
+        assertEquals(image.getName(), open.getString("fileName"));
+        assertEquals(FileType.MFMDSK.name(), open.getString("fileType"));
+        assertEquals(TRACKS, open.getInt("tracks"));
+        assertEquals(1, open.getInt("sides"));
+        assertEquals(image.length() - Constants.SECTOR_SIZE, open.getLong("bytes"));
+
+        List<RecordedEvent> decodes = named(events, TRACK_DECODE);
+        assertEquals(TRACKS, decodes.size());
+        BitSet tracks = new BitSet();
+        for (RecordedEvent decode : decodes) {
+            tracks.set(decode.getInt("track"));
+            assertEquals(17, decode.getInt("sectors"));
+            assertEquals(0, decode.getInt("crcErrors"));
+            assertEquals(Constants.MFM_TRACK_SIZE, decode.getLong("bytes"));
+        }
+        assertEquals(TRACKS, tracks.cardinality());
+        assertEquals(TRACKS, tracks.length());
+
+        List<RecordedEvent> saves = named(events, DSK_SAVE);
+        assertEquals(1, saves.size());
+        RecordedEvent save = saves.get(0);
+        assertEquals(TRACKS, save.getInt("tracks"));
+        assertEquals(1, save.getInt("sides"));
+        assertEquals(TRACKS, save.getInt("tracksWritten"));
+        assertEquals(saved[0], save.getLong("bytes"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.grelobites.oric.dsk.metrics;
+
+import com.grelobites.oric.dsk.Constants;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JmxDskMetricsTest {
+
+    @Test
+    public void metricsCountOperationsAndLatencies() {
+        JmxDskMetrics metrics = new JmxDskMetrics();
+        for (int i = 0; i < 100; i++) {
+            //Started 1 ms ago, but for the last one (1 s ago)
+            metrics.trackDecoded(Constants.MFM_TRACK_SIZE, 17 * Constants.SECTOR_SIZE, i == 0 ? 1 : 0,
+                    System.nanoTime() - (i < 99 ? 1000000 : 1000000000));
+        }
+        metrics.diskOpened(1024, System.nanoTime());
+        metrics.diskSaved(2048, System.nanoTime());
+        metrics.backgroundTaskQueued();
+        metrics.backgroundTaskQueued();
+        metrics.backgroundTaskFinished();
+        metrics.archiveListChanged(7);
+
+        assertEquals(1, metrics.getDisksOpened());
+        assertEquals(1, metrics.getDisksSaved());
+        assertEquals(100L * 17 * Constants.SECTOR_SIZE + 1024, metrics.getBytesDecoded());
+        assertEquals(100L * Constants.MFM_TRACK_SIZE, metrics.getMfmBytesParsed());
+        assertEquals(2048, metrics.getBytesEncoded());
+        assertEquals(1, metrics.getCrcFailures());
+        assertEquals(1, metrics.getBackgroundQueueDepth());
+        assertEquals(7, metrics.getArchiveListSize());
+
+        LatencySummary decode = metrics.getDecodeLatency();
+        assertEquals(100, decode.getCount());
+        assertTrue(decode.getP50Millis() >= 1 && decode.getP50Millis() < 10);
+        assertTrue(decode.getP99Millis() < 10);
+        assertTrue(decode.getMaxMillis() >= 1000);
+        assertEquals(0, metrics.getCatalogLatency().getCount());
+
+        metrics.reset();
+        assertEquals(0, metrics.getDecodeLatency().getCount());
+        assertEquals(1, metrics.getBackgroundQueueDepth());
+    }
+}
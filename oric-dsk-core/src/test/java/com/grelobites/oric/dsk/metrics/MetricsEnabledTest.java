@@ -0,0 +1,65 @@
+package com.grelobites.oric.dsk.metrics;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.util.DskUtil;
+import com.grelobites.oric.dsk.util.MfmDskWriter;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * The metrics in use are chosen once per JVM, so this runs in its own surefire
+ * execution, with -Doric.dsk.metrics=true
+ */
+public class MetricsEnabledTest {
+    private static final String OBJECT_NAME = "com.grelobites.oric.dsk:type=DskMetrics";
+    //Both xenon images hold the same 21 tracks of 17 sectors, as MFM and as plain image
+    private static final int TRACKS = 21;
+    private static final long SECTOR_BYTES = TRACKS * 17L * Constants.SECTOR_SIZE;
+
+    private static long attribute(String name) throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        return (Long) server.getAttribute(new ObjectName(OBJECT_NAME), name);
+    }
+
+    @Test
+    public void metricsAreRegisteredAsAnMBean() throws Exception {
+        assertTrue(DskMetrics.get() instanceof JmxDskMetrics);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName(OBJECT_NAME)));
+    }
+
+    @Test
+    public void openAndSaveUpdateTheCounters() throws Exception {
+        long opened = attribute("DisksOpened");
+        long decoded = attribute("BytesDecoded");
+        long parsed = attribute("MfmBytesParsed");
+        long saved = attribute("DisksSaved");
+        long encoded = attribute("BytesEncoded");
+
+        Disk disk = DskUtil.diskFromDskFile(TestImages.file(TestImages.XENON_NEW));
+        for (int track = 0; track < disk.getTrackCount(); track++) {
+            disk.copySector(track, 1);
+        }
+        assertEquals(opened + 1, attribute("DisksOpened"));
+        assertEquals(decoded + SECTOR_BYTES, attribute("BytesDecoded"));
+        assertEquals(parsed + TRACKS * (long) Constants.MFM_TRACK_SIZE, attribute("MfmBytesParsed"));
+
+        DskUtil.diskFromDskFile(TestImages.file(TestImages.XENON_OLD));
+        assertEquals(opened + 2, attribute("DisksOpened"));
+        assertEquals(decoded + 2 * SECTOR_BYTES, attribute("BytesDecoded"));
+        assertEquals(parsed + TRACKS * (long) Constants.MFM_TRACK_SIZE, attribute("MfmBytesParsed"));
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new MfmDskWriter().write(disk, os);
+        assertEquals(saved + 1, attribute("DisksSaved"));
+        assertEquals(encoded + os.size(), attribute("BytesEncoded"));
+    }
+}
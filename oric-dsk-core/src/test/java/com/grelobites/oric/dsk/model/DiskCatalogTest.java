@@ -0,0 +1,113 @@
+package com.grelobites.oric.dsk.model;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.sedoric.SedoricDirectory;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import com.grelobites.oric.dsk.util.ArchiveUtil;
+import com.grelobites.oric.dsk.util.DskUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DiskCatalogTest {
+    //Descriptor sector of the first entry in the first directory sector
+    private static final int FIRST_DESCRIPTOR_SECTOR_OFFSET = 0x10 + 0x0d;
+
+    private static void assertCatalogMatchesArchives(DiskCatalog catalog, List<SedoricArchive> archives,
+                                                     boolean nominalSizes) {
+        assertTrue(archives.size() > 0);
+        assertEquals(archives.size(), catalog.getEntries().size());
+        for (int i = 0; i < archives.size(); i++) {
+            CatalogEntry entry = catalog.getEntries().get(i);
+            SedoricArchive archive = archives.get(i);
+            assertEquals(archive.getName(), entry.getName());
+            assertEquals(archive.getExtension(), entry.getExtension());
+            if (!nominalSizes) {
+                assertEquals(archive.getSize(), entry.getSize());
+            }
+            assertEquals(archive.getLoadAddress(), entry.getLoadAddress());
+            assertEquals(archive.getExecAddress(), entry.getExecAddress());
+            assertEquals(archive.isProtectedAttribute(), entry.isProtectedAttribute());
+            assertTrue(Arrays.equals(archive.getData(), entry.getArchive().getData()));
+        }
+    }
+
+    @Test
+    public void sedoricCatalogMatchesArchives() throws IOException {
+        DiskCatalog catalog = DiskCatalog.fromFile(TestImages.file(TestImages.BUGGY_BOY));
+        assertFalse(catalog.getFormat() == DiskFormat.ORICDOS);
+        assertCatalogMatchesArchives(catalog,
+                ArchiveUtil.getArchivesFromDisk(TestImages.mappedDisk(TestImages.BUGGY_BOY)), false);
+        for (CatalogEntry entry : catalog.getEntries()) {
+            assertFalse(entry.isProtectedAttribute());
+        }
+    }
+
+    @Test
+    public void oricDosCatalogMatchesArchives() throws IOException {
+        DiskCatalog catalog = DiskCatalog.fromFile(TestImages.file(TestImages.ORIC_DOS));
+        assertEquals(DiskFormat.ORICDOS, catalog.getFormat());
+        //Sizes of files with a header are the nominal ones, not the sector payloads
+        assertCatalogMatchesArchives(catalog,
+                ArchiveUtil.getArchivesFromDisk(TestImages.mappedDisk(TestImages.ORIC_DOS)), true);
+    }
+
+    @Test
+    public void protectedAttributeSurvivesExport() throws IOException {
+        SedoricFileSystem fileSystem = TestImages.fileSystem(TestImages.BUGGY_BOY);
+        fileSystem.getArchiveList().get(0).setProtectedAttribute(true);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        fileSystem.exportFileSystem(os);
+
+        Disk exported = DskUtil.diskFromDskStream(new ByteArrayInputStream(os.toByteArray()));
+        List<CatalogEntry> entries = DiskCatalog.fromDisk(exported).getEntries();
+        assertEquals(fileSystem.getArchiveList().size(), entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(i == 0, entries.get(i).isProtectedAttribute());
+        }
+        assertTrue(ArchiveUtil.getArchivesFromDisk(exported).get(0).isProtectedAttribute());
+    }
+
+    @Test
+    public void damagedDescriptorsAreLeftOut() throws IOException {
+        Disk source = TestImages.disk(TestImages.BUGGY_BOY).toFlatDisk();
+        int entries = DiskCatalog.fromDisk(source).getEntries().size();
+        SedoricDirectory first = SedoricDirectory.fromDisk(source).get(0);
+
+        //Descriptor pointing to a sector outside the track
+        Disk flat = TestImages.disk(TestImages.BUGGY_BOY).toFlatDisk();
+        flat.getSectorBufferFromEncodedTrack(Constants.SEDORIC_DIRECTORY_TRACK, Constants.SEDORIC_DIRECTORY_SECTOR)
+                .put(FIRST_DESCRIPTOR_SECTOR_OFFSET, (byte) 0x1f);
+        DiskCatalog catalog = DiskCatalog.fromDisk(flat);
+        assertEquals(entries - 1, catalog.getEntries().size());
+
+        //Descriptor sector missing from its track, as in damaged MFM images
+        DiskGeometry geometry = source.getGeometry();
+        SectorCoordinates descriptor = first.getDescriptorLocation();
+        int descriptorTrack = geometry.decodeTrack(descriptor.getTrack());
+        Track[] tracks = new Track[source.getTrackCount()];
+        for (int track = 0; track < tracks.length; track++) {
+            byte[][] sectors = new byte[geometry.getTrackGeometry(track).getSectorCount()][];
+            for (int sector = 0; sector < sectors.length; sector++) {
+                sectors[sector] = source.copySector(track, sector + 1);
+            }
+            if (track == descriptorTrack) {
+                sectors[descriptor.getSector() - 1] = null;
+            }
+            tracks[track] = new Track(sectors);
+        }
+        catalog = DiskCatalog.fromDisk(new Disk(tracks, geometry));
+        assertEquals(entries - 1, catalog.getEntries().size());
+        assertFalse(catalog.getEntries().stream().anyMatch(e -> e.getName().equals(first.getName())));
+    }
+}
@@ -0,0 +1,73 @@
+package com.grelobites.oric.dsk.model;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.util.ArchiveUtil;
+import com.grelobites.oric.dsk.util.DskUtil;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DiskTest {
+
+    @Test
+    public void flatDiskKeepsSectors() throws IOException {
+        Disk disk = TestImages.mappedDisk(TestImages.BUGGY_BOY);
+        Disk flatDisk = disk.toFlatDisk();
+        assertTrue(flatDisk.isFlat());
+
+        List<SedoricArchive> archives = ArchiveUtil.getArchivesFromDisk(disk);
+        List<SedoricArchive> flatArchives = ArchiveUtil.getArchivesFromDisk(flatDisk);
+        assertEquals(archives.size(), flatArchives.size());
+        for (int i = 0; i < archives.size(); i++) {
+            assertTrue(Arrays.equals(archives.get(i).getData(), flatArchives.get(i).getData()));
+        }
+    }
+
+    private static void assertSectorWrites(Disk disk) {
+        byte[] original = disk.copySector(3, 2);
+        byte[] copy = disk.copySector(3, 2);
+        Arrays.fill(copy, (byte) 0x5a);
+        assertArrayEquals(original, disk.copySector(3, 2));
+
+        disk.writeSector(3, 2, copy);
+        assertArrayEquals(copy, disk.copySector(3, 2));
+        assertEquals(0x5a, disk.getSectorBuffer(3, 2).get(0));
+        assertFalse(Arrays.equals(copy, disk.copySector(3, 3)));
+    }
+
+    @Test
+    public void sectorCopiesAreIndependentAndWritesUpdateTheDisk() throws IOException {
+        assertSectorWrites(TestImages.disk(TestImages.BUGGY_BOY));
+        assertSectorWrites(TestImages.disk(TestImages.BUGGY_BOY).toFlatDisk());
+    }
+
+    @Test
+    public void plainImagesAreViewsOverTheirBuffer() throws IOException {
+        byte[] image = TestImages.bytes(TestImages.XENON_OLD);
+        Disk disk = DskUtil.diskFromDskBuffer(ByteBuffer.wrap(image));
+        assertTrue(disk.isFlat());
+        image[Constants.SECTOR_SIZE] ^= 0x5a;
+        assertEquals(image[Constants.SECTOR_SIZE], disk.getSectorBuffer(0, 1).get(0));
+        assertTrue(TestImages.mappedDisk(TestImages.XENON_OLD).getSectorBuffer(0, 1).isDirect());
+
+        //Truncated images are copied, with the missing sectors zeroed
+        Disk truncated = DskUtil.diskFromDskBuffer(ByteBuffer.wrap(
+                Arrays.copyOf(image, image.length - Constants.SECTOR_SIZE)));
+        DiskGeometry geometry = truncated.getGeometry();
+        int lastTrack = geometry.getTrackCount() - 1;
+        int lastSector = geometry.getTrackGeometry(lastTrack).getSectorCount();
+        assertArrayEquals(new byte[Constants.SECTOR_SIZE], truncated.copySector(lastTrack, lastSector));
+        assertArrayEquals(disk.copySector(lastTrack, lastSector - 1),
+                truncated.copySector(lastTrack, lastSector - 1));
+    }
+}
@@ -0,0 +1,118 @@
+package com.grelobites.oric.dsk.model;
+
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.sedoric.SedoricDescriptor;
+import com.grelobites.oric.dsk.sedoric.SedoricDirectory;
+import com.grelobites.oric.dsk.util.TapWriter;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SectorDataViewTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SectorDataViewTest.class);
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] chunk = new byte[100];
+        int count;
+        while ((count = stream.read(chunk)) >= 0) {
+            bos.write(chunk, 0, count);
+        }
+        return bos.toByteArray();
+    }
+
+    @Test
+    public void archiveViewsMatchSectorContents() throws IOException {
+        Disk disk = TestImages.disk(TestImages.XENON_OLD);
+        for (Disk source : Arrays.asList(disk, disk.toFlatDisk())) {
+            for (SedoricDirectory directory : SedoricDirectory.fromDisk(source)) {
+                SedoricDescriptor descriptor = SedoricDescriptor.forSector(
+                        directory.getDescriptorLocation().getTrack(),
+                        directory.getDescriptorLocation().getSector(), source);
+                ByteArrayOutputStream expected = new ByteArrayOutputStream();
+                for (SectorCoordinates coordinates : descriptor.getFileSectors()) {
+                    expected.write(source.copySectorFromEncodedTrack(coordinates));
+                }
+                SedoricArchive archive = directory.getArchive(source);
+                SectorDataView view = archive.getDataView();
+                assertEquals(expected.size(), view.length());
+                assertTrue(Arrays.equals(expected.toByteArray(), readAll(view.openStream())));
+
+                ByteBuffer channelData = ByteBuffer.allocate(view.length() + 1);
+                try (ReadableByteChannel channel = view.openChannel()) {
+                    while (channel.read(channelData) >= 0) {
+                        assertTrue(channelData.hasRemaining());
+                    }
+                }
+                assertEquals(view.length(), channelData.position());
+                assertTrue(Arrays.equals(expected.toByteArray(),
+                        Arrays.copyOf(channelData.array(), view.length())));
+
+                ByteArrayOutputStream buffers = new ByteArrayOutputStream();
+                for (ByteBuffer buffer : view.getBuffers()) {
+                    assertTrue(buffer.isReadOnly());
+                    byte[] segment = new byte[buffer.remaining()];
+                    buffer.get(segment);
+                    buffers.write(segment);
+                }
+                assertTrue(Arrays.equals(expected.toByteArray(), buffers.toByteArray()));
+
+                ByteArrayOutputStream written = new ByteArrayOutputStream();
+                view.writeTo(written, archive.getSize());
+                assertTrue(Arrays.equals(Arrays.copyOf(expected.toByteArray(), archive.getSize()),
+                        written.toByteArray()));
+                assertTrue(Arrays.equals(expected.toByteArray(), archive.getData()));
+            }
+        }
+    }
+
+    @Test
+    public void shortViewsAreNotTruncatedSilently() throws IOException {
+        SectorDataView view = new SectorDataView(ByteBuffer.wrap(new byte[256]), ByteBuffer.wrap(new byte[100]));
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        try {
+            view.writeTo(written, 400);
+            fail("Wrote past the end of the view");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(0, written.size());
+        }
+
+        SedoricArchive archive = new SedoricArchive("SHORT", "BIN", view);
+        archive.setSize(view.length() + 1);
+        try {
+            new TapWriter(written).write(archive);
+            fail("Exported past the end of the archive data");
+        } catch (IndexOutOfBoundsException e) {
+            LOGGER.debug("Export rejected as expected");
+        }
+    }
+
+    @Test
+    public void copiedArchivesReleaseTheirView() {
+        byte[] image = new byte[1024];
+        SectorDataView view = new SectorDataView(ByteBuffer.wrap(image, 256, 256));
+        SedoricArchive archive = new SedoricArchive("VIEW", "BIN", view);
+        assertSame(view, archive.getDataView());
+
+        byte[] data = archive.getData();
+        assertEquals(256, data.length);
+        ByteBuffer[] buffers = archive.getDataView().getBuffers();
+        assertEquals(1, buffers.length);
+        assertEquals(data.length, buffers[0].remaining());
+        assertNotSame(view, archive.getDataView());
+    }
+}
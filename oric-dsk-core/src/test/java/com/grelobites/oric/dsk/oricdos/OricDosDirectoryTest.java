@@ -0,0 +1,49 @@
+package com.grelobites.oric.dsk.oricdos;
+
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.util.Util;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OricDosDirectoryTest {
+    //Its chain holds fewer bytes than its header declares
+    private static final String SHORT_CHAIN_FILE = "AUTHR";
+
+    @Test
+    public void archivesIncludeTheLastSectorOfTheirChain() throws IOException {
+        Disk disk = TestImages.disk(TestImages.ORIC_DOS);
+        List<OricDosDirectory> directories = OricDosDirectory.fromDisk(disk);
+        assertTrue(directories.size() > 0);
+        for (OricDosDirectory directory : directories) {
+            SedoricArchive archive = directory.getArchive(disk).get();
+            byte[] data = archive.getData();
+            assertEquals(archive.getSize(), data.length);
+            if (!directory.getName().equals(SHORT_CHAIN_FILE)) {
+                assertEquals(directory.getName(), directory.getCatalogEntry(disk).get().getSize(),
+                        archive.getSize());
+            }
+            SectorCoordinates first = directory.getFirstSector();
+            SectorCoordinates lastSector = directory.getLastSector();
+            if (lastSector.getTrack() != first.getTrack() || lastSector.getSector() != first.getSector()) {
+                ByteBuffer sector = disk.getSectorBufferFromEncodedTrack(lastSector);
+                int count = Util.asUnsignedByte(sector.get(2));
+                byte[] payload = new byte[count];
+                for (int i = 0; i < count; i++) {
+                    payload[i] = sector.get(3 + i);
+                }
+                assertTrue(directory.getName(), Arrays.equals(payload,
+                        Arrays.copyOfRange(data, data.length - count, data.length)));
+            }
+        }
+    }
+}
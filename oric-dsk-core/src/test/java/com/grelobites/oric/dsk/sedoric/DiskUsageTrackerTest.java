@@ -0,0 +1,95 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.ComplexDiskGeometry;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class DiskUsageTrackerTest {
+
+    private static List<SedoricArchive> archives() {
+        List<SedoricArchive> archives = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            archives.add(new SedoricArchive("FILE" + i, "BIN", new byte[i * 700 + 1]));
+        }
+        archives.add(new SedoricArchive("BIG", "BIN", new byte[32000]));
+        return archives;
+    }
+
+    //Same tracks as the default geometry, so usage gets replayed on a bitmap
+    private static DiskGeometry complexGeometry() {
+        DiskGeometry simple = Constants.DEFAULT_DISK_GEOMETRY;
+        ComplexDiskGeometry.Builder builder = ComplexDiskGeometry.newBuilder()
+                .withTrackCount(simple.getTrackCount())
+                .withSideCount(simple.getSideCount());
+        for (int track = 0; track < simple.getTrackCount() * simple.getSideCount(); track++) {
+            builder.withTrackGeometry(track, simple.getTrackGeometry(track));
+        }
+        return builder.build();
+    }
+
+    private static int usedBytes(List<SedoricArchive> archives, DiskGeometry geometry) {
+        return new DiskUsageTracker(archives, geometry, true, new FirstFreeAllocationStrategy())
+                .getUsedBytes();
+    }
+
+    @Test
+    public void diskUsageDeltasMatchReplayedAllocation() {
+        List<SedoricArchive> archives = archives();
+        DiskGeometry simple = Constants.DEFAULT_DISK_GEOMETRY;
+
+        List<SedoricArchive> tracked = new ArrayList<>();
+        DiskUsageTracker incremental = new DiskUsageTracker(tracked, simple, true,
+                new FirstFreeAllocationStrategy());
+        incremental.getUsedBytes();
+        tracked.addAll(archives.subList(0, 10));
+        incremental.archivesAdded(0, archives.subList(0, 10));
+        tracked.addAll(archives.subList(10, archives.size()));
+        incremental.archivesAdded(10, archives.subList(10, archives.size()));
+        assertEquals(usedBytes(archives, complexGeometry()), incremental.getUsedBytes());
+
+        SedoricArchive removed = tracked.remove(3);
+        incremental.archivesRemoved(Collections.singletonList(removed));
+        assertEquals(usedBytes(tracked, simple), incremental.getUsedBytes());
+    }
+
+    //The file that does not fit is counted once, whatever part of it got placed
+    @Test
+    public void filesPastTheDiskCapacityAreCountedOnce() {
+        List<SedoricArchive> archives = archives();
+        archives.add(new SedoricArchive("HUGE", "BIN", new byte[Constants.DEFAULT_DISK_GEOMETRY.capacity()]));
+        archives.add(new SedoricArchive("AFTER", "BIN", new byte[1000]));
+        assertEquals(usedBytes(archives, Constants.DEFAULT_DISK_GEOMETRY),
+                usedBytes(archives, complexGeometry()));
+    }
+
+    @Test
+    public void fileSystemKeepsItsUsageUpToDate() {
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        fileSystem.setDiskGeometry(complexGeometry());
+        int emptyBytes = fileSystem.getUsedBytes();
+        List<SedoricArchive> archives = archives();
+        fileSystem.addArchives(archives.subList(0, 10));
+        for (SedoricArchive archive : archives.subList(10, archives.size())) {
+            fileSystem.addArchive(archive);
+        }
+        assertEquals(usedBytes(archives, complexGeometry()), fileSystem.getUsedBytes());
+
+        fileSystem.removeArchive(archives.get(3));
+        assertEquals(usedBytes(new ArrayList<>(fileSystem.getArchiveList()), complexGeometry()),
+                fileSystem.getUsedBytes());
+
+        fileSystem.setDiskGeometry(Constants.DEFAULT_DISK_GEOMETRY);
+        assertEquals(usedBytes(new ArrayList<>(fileSystem.getArchiveList()), Constants.DEFAULT_DISK_GEOMETRY),
+                fileSystem.getUsedBytes());
+
+        fileSystem.clear();
+        assertEquals(emptyBytes, fileSystem.getUsedBytes());
+    }
+}
@@ -0,0 +1,260 @@
+package com.grelobites.oric.dsk.sedoric;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SimpleDiskGeometry;
+import com.grelobites.oric.dsk.model.TrackGeometry;
+import com.grelobites.oric.dsk.util.ArchiveUtil;
+import com.grelobites.oric.dsk.util.DskUtil;
+import com.grelobites.oric.dsk.util.MfmDskWriter;
+import com.grelobites.oric.dsk.util.ProgressMonitor;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SedoricFileSystemTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SedoricFileSystemTest.class);
+
+    private static List<SedoricArchive> exportedArchives(ByteArrayOutputStream os) throws IOException {
+        Disk exported = DskUtil.diskFromDskStream(new ByteArrayInputStream(os.toByteArray()));
+        return ArchiveUtil.getArchivesFromDisk(exported);
+    }
+
+    //Bitmaps of 80 track double sided disks span two sectors
+    @Test
+    public void fullDiskBitmapSurvivesRoundTrip() throws IOException {
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        fileSystem.setDiskGeometry(SimpleDiskGeometry.newBuilder()
+                .withSideCount(2)
+                .withTrackCount(80)
+                .withTrackGeometry(Constants.DEFAULT_DISK_GEOMETRY.getTrackGeometry(0))
+                .build());
+        for (int i = 0; i < 10; i++) {
+            byte[] data = new byte[60000];
+            Arrays.fill(data, (byte) i);
+            fileSystem.addArchive(new SedoricArchive("LARGE" + i, "BIN", data));
+        }
+        //Then small files up to the last sectors of the disk
+        for (int i = 0; fileSystem.getUsedBytes() + 4 * Constants.SECTOR_SIZE <= fileSystem.getTotalBytes(); i++) {
+            fileSystem.addArchive(new SedoricArchive("SMALL" + i, "BIN", new byte[Constants.SECTOR_SIZE]));
+        }
+        TestImages.assertBitmapMatchesAllocation(fileSystem.toDisk(), true);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        fileSystem.exportFileSystem(os);
+        Disk exported = DskUtil.diskFromDskStream(new ByteArrayInputStream(os.toByteArray()));
+        TestImages.assertBitmapMatchesAllocation(exported, true);
+        TestImages.assertSameArchives(fileSystem.getArchiveList(), ArchiveUtil.getArchivesFromDisk(exported));
+    }
+
+    @Test
+    public void exportedImageKeepsArchives() throws IOException {
+        SedoricFileSystem fileSystem = TestImages.fileSystem(TestImages.BUGGY_BOY);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        fileSystem.exportFileSystem(os);
+
+        TestImages.assertSameArchives(fileSystem.getArchiveList(), exportedArchives(os));
+    }
+
+    @Test
+    public void monitoredOperationsReportProgressAndCancel() throws IOException {
+        List<Long> steps = new ArrayList<>();
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        fileSystem.openDsk(TestImages.file(TestImages.BUGGY_BOY), new ProgressMonitor() {
+            @Override
+            public void progress(long done, long total) {
+                steps.add(done);
+                assertTrue(done <= total);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        });
+        assertEquals(fileSystem.getArchiveList().size(), steps.get(steps.size() - 1).intValue());
+
+        ProgressMonitor cancelAfterFirstTrack = new ProgressMonitor() {
+            private boolean cancelled;
+
+            @Override
+            public void progress(long done, long total) {
+                cancelled = done > 0;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return cancelled;
+            }
+        };
+        try {
+            new MfmDskWriter().write(fileSystem.toDisk(), new ByteArrayOutputStream(), cancelAfterFirstTrack);
+            fail("Write should have been cancelled");
+        } catch (CancellationException e) {
+            LOGGER.debug("Write cancelled as expected");
+        }
+    }
+
+    //Opened images are saved over their own file, which gets truncated first
+    @Test
+    public void openedImagesCanBeSavedOver() throws IOException {
+        File image = File.createTempFile("saved", ".dsk");
+        try {
+            Files.copy(TestImages.file(TestImages.BUGGY_BOY).toPath(), image.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            SedoricFileSystem fileSystem = new SedoricFileSystem();
+            fileSystem.openDsk(image);
+            try (OutputStream os = new FileOutputStream(image)) {
+                fileSystem.exportFileSystem(os);
+            }
+            TestImages.assertSameArchives(TestImages.fileSystem(TestImages.BUGGY_BOY).getArchiveList(),
+                    ArchiveUtil.getArchivesFromDisk(DskUtil.diskFromDskFile(image)));
+        } finally {
+            image.delete();
+        }
+    }
+
+    @Test
+    public void snapshotsAreDetachedAndLaidOutPerFile() throws IOException {
+        SedoricFileSystem fileSystem = TestImages.fileSystem(TestImages.BUGGY_BOY);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        fileSystem.exportFileSystem(expected);
+
+        SedoricFileSystem snapshot = fileSystem.snapshot();
+        fileSystem.getArchiveList().get(0).setName("RENAMED");
+        fileSystem.removeArchive(fileSystem.getArchiveList().get(1));
+        fileSystem.getDiskGeometry().setTrackCount(fileSystem.getDiskGeometry().getTrackCount() + 1);
+        fileSystem.setName("CHANGED");
+
+        List<Long> steps = new ArrayList<>();
+        Disk disk = snapshot.toDisk(new ProgressMonitor() {
+            @Override
+            public void progress(long done, long total) {
+                steps.add(done);
+                assertEquals(snapshot.getArchiveList().size(), total);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        });
+        assertEquals(snapshot.getArchiveList().size(), steps.size());
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        new MfmDskWriter().write(disk, actual);
+        assertTrue(Arrays.equals(expected.toByteArray(), actual.toByteArray()));
+
+        try {
+            snapshot.toDisk(new ProgressMonitor() {
+                @Override
+                public void progress(long done, long total) {
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return true;
+                }
+            });
+            fail("Layout should have been cancelled");
+        } catch (CancellationException e) {
+            LOGGER.debug("Layout cancelled as expected");
+        }
+    }
+
+    @Test
+    public void nearDirectoryLayoutKeepsArchivesAndLoadsFaster() throws IOException {
+        SedoricFileSystem fileSystem = TestImages.fileSystem(TestImages.BUGGY_BOY);
+        LayoutReport firstFree = fileSystem.planLayout(new FirstFreeAllocationStrategy());
+        fileSystem.setAllocationStrategy(new NearDirectoryAllocationStrategy());
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        LayoutReport nearDirectory = fileSystem.exportFileSystem(os);
+        assertTrue(nearDirectory.getTotalLoadTime() < firstFree.getTotalLoadTime());
+        SectorCoordinates descriptor = nearDirectory.getFiles().get(0).getSectors().get(0);
+        assertEquals(Constants.SEDORIC_DIRECTORY_TRACK, descriptor.getTrack());
+
+        TestImages.assertSameArchives(fileSystem.getArchiveList(), exportedArchives(os));
+    }
+
+    @Test
+    public void interleavedImageKeepsArchives() throws IOException {
+        for (int interleave = 1; interleave < 17; interleave++) {
+            boolean[] slots = new boolean[17];
+            for (int sector = 1; sector <= 17; sector++) {
+                slots[TrackGeometry.sectorSlot(sector, 17, interleave, 5, 3)] = true;
+            }
+            for (boolean slot : slots) {
+                assertTrue(slot);
+            }
+        }
+
+        SedoricFileSystem fileSystem = TestImages.fileSystem(TestImages.BUGGY_BOY);
+        double sequential = fileSystem.planLayout(fileSystem.getAllocationStrategy()).getTotalLoadTime();
+        InterleaveEstimate fastest = fileSystem.fastestInterleave();
+        assertTrue(fastest.getLoadTime() <= sequential);
+
+        fileSystem.setInterleave(3);
+        fileSystem.setSkew(4);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        fileSystem.exportFileSystem(os);
+        TestImages.assertSameArchives(fileSystem.getArchiveList(), exportedArchives(os));
+    }
+
+    @Test
+    public void plannedLayoutsMatchExportedLayouts() throws IOException {
+        SedoricFileSystem fileSystem = TestImages.fileSystem(TestImages.BUGGY_BOY);
+        fileSystem.setBootable(true);
+        List<AllocationStrategy> strategies = Arrays.asList(new FirstFreeAllocationStrategy(),
+                new NearDirectoryAllocationStrategy());
+        for (AllocationStrategy strategy : strategies) {
+            LayoutReport planned = fileSystem.planLayout(strategy);
+            fileSystem.setAllocationStrategy(strategy);
+            LayoutReport exported = fileSystem.exportFileSystem(new ByteArrayOutputStream());
+            assertEquals(exported.getFiles().size(), planned.getFiles().size());
+            for (int i = 0; i < exported.getFiles().size(); i++) {
+                List<SectorCoordinates> expected = exported.getFiles().get(i).getSectors();
+                List<SectorCoordinates> actual = planned.getFiles().get(i).getSectors();
+                assertEquals(expected.size(), actual.size());
+                for (int j = 0; j < expected.size(); j++) {
+                    assertEquals(expected.get(j).getTrack(), actual.get(j).getTrack());
+                    assertEquals(expected.get(j).getSector(), actual.get(j).getSector());
+                }
+            }
+            assertEquals(exported.getTotalLoadTime(), planned.getTotalLoadTime(), 0);
+        }
+        assertSame(strategies.get(1), fileSystem.fastestAllocationStrategy(strategies));
+    }
+
+    @Test
+    public void unknownStrategyNamesAreRejected() {
+        assertEquals(NearDirectoryAllocationStrategy.NAME, AllocationStrategy.byName(
+                NearDirectoryAllocationStrategy.NAME, LoadTimeModel.DEFAULT).getName());
+        try {
+            AllocationStrategy.byName("nearest", LoadTimeModel.DEFAULT);
+            fail("Unknown strategy name accepted");
+        } catch (IllegalArgumentException e) {
+            for (String name : AllocationStrategy.NAMES) {
+                assertTrue(e.getMessage().contains(name));
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ArchiveNameRegistryTest {
+
+    private static Pair<String, String> linearArchiveName(String name, List<SedoricArchive> archives) {
+        Pair<String, String> candidate = ArchiveUtil.getBestName(name);
+        int index = 0;
+        while (ArchiveUtil.isNameInUse(candidate, archives)) {
+            candidate = ArchiveUtil.getBestNameWithSuffix(name, String.format("%02d", index++));
+        }
+        return candidate;
+    }
+
+    @Test
+    public void nameRegistryMatchesLinearNaming() {
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        List<SedoricArchive> reference = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String name = i % 3 == 0 ? "NONAMED.BAS" : "LONGNAMEDFILE.BIN";
+            Pair<String, String> expected = linearArchiveName(name, reference);
+            Pair<String, String> actual = fileSystem.getNameRegistry().calculateArchiveName(name);
+            assertEquals(expected.left() + "." + expected.right(), actual.left() + "." + actual.right());
+            SedoricArchive archive = new SedoricArchive(actual.left(), actual.right(), new byte[1]);
+            reference.add(archive);
+            fileSystem.addArchive(archive);
+        }
+        SedoricArchive removed = fileSystem.getArchiveList().get(10);
+        fileSystem.removeArchive(removed);
+        reference.remove(removed);
+        Pair<String, String> reused = fileSystem.getNameRegistry().calculateArchiveName("LONGNAMEDFILE.BIN");
+        assertEquals(removed.getName(), reused.left());
+        assertEquals(linearArchiveName("LONGNAMEDFILE.BIN", reference).left(), reused.left());
+    }
+
+    @Test
+    public void bulkAddRenamesLikeSingleAdds() throws IOException {
+        File dskFile = TestImages.file(TestImages.BUGGY_BOY);
+        SedoricFileSystem fileSystem = TestImages.fileSystem(TestImages.BUGGY_BOY);
+        ArchiveUtil.addArchivesFromDsk(dskFile, fileSystem);
+
+        SedoricFileSystem sequential = new SedoricFileSystem();
+        for (int i = 0; i < 2; i++) {
+            for (SedoricArchive archive : ArchiveUtil.getArchivesFromDisk(DskUtil.diskFromDskFile(dskFile))) {
+                sequential.addArchive(ArchiveUtil.updateArchiveName(archive, sequential.getNameRegistry()));
+            }
+        }
+        assertEquals(sequential.getArchiveList().size(), fileSystem.getArchiveList().size());
+        for (int i = 0; i < sequential.getArchiveList().size(); i++) {
+            SedoricArchive archive = fileSystem.getArchiveList().get(i);
+            assertEquals(sequential.getArchiveList().get(i).getName(), archive.getName());
+            assertEquals(sequential.getArchiveList().get(i).getExtension(), archive.getExtension());
+            assertFalse(fileSystem.getNameRegistry().isNameInUse(archive.getName(), archive.getExtension(), archive));
+        }
+    }
+
+    @Test
+    public void releasedNamesOnlyRewindTheirOwnCursor() {
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        ArchiveNameRegistry registry = fileSystem.getNameRegistry();
+        for (int i = 0; i < 20; i++) {
+            for (String name : new String[]{"NONAMED.BAS", "OTHER.BIN"}) {
+                Pair<String, String> next = registry.calculateArchiveName(name);
+                fileSystem.addArchive(new SedoricArchive(next.left(), next.right(), new byte[1]));
+            }
+        }
+        int nonamedCursor = registry.nextSuffix("NONAMED.BAS");
+        assertEquals(18, registry.nextSuffix("OTHER.BIN"));
+
+        SedoricArchive released = fileSystem.getArchiveList().stream()
+                .filter(a -> a.getName().equals("OTHER03"))
+                .findFirst().get();
+        fileSystem.removeArchive(released);
+        assertEquals(3, registry.nextSuffix("OTHER.BIN"));
+        assertEquals(nonamedCursor, registry.nextSuffix("NONAMED.BAS"));
+        assertEquals("OTHER03", registry.calculateArchiveName("OTHER.BIN").left());
+    }
+
+    @Test
+    public void randomRemovalsKeepLinearNaming() {
+        Random random = new Random(7);
+        String[] names = {"NONAMED.BAS", "LONGNAMEDFILE.BIN", "LONGNAMEXY.BIN", "A.COM"};
+        SedoricFileSystem fileSystem = new SedoricFileSystem();
+        List<SedoricArchive> reference = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            if (!reference.isEmpty() && random.nextInt(3) == 0) {
+                SedoricArchive removed = reference.remove(random.nextInt(reference.size()));
+                fileSystem.removeArchive(removed);
+            } else {
+                String name = names[random.nextInt(names.length)];
+                Pair<String, String> expected = linearArchiveName(name, reference);
+                Pair<String, String> actual = fileSystem.getNameRegistry().calculateArchiveName(name);
+                assertEquals(expected.left() + "." + expected.right(), actual.left() + "." + actual.right());
+                SedoricArchive archive = new SedoricArchive(actual.left(), actual.right(), new byte[1]);
+                reference.add(archive);
+                fileSystem.addArchive(archive);
+            }
+        }
+    }
+}
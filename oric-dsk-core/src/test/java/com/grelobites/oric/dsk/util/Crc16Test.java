@@ -0,0 +1,81 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.TestImages;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class Crc16Test {
+    //CRC-16/CCITT-FALSE check value
+    private static final byte[] CHECK_INPUT = "123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final int CHECK_VALUE = 0x29B1;
+    private static final byte[] ID_MARK = {(byte) 0xA1, (byte) 0xA1, (byte) 0xA1, (byte) 0xFE};
+    private static final byte[] DATA_MARK = {(byte) 0xA1, (byte) 0xA1, (byte) 0xA1, (byte) 0xFB};
+
+    private static int indexOf(byte[] data, byte[] mark, int from) {
+        for (int i = from; i <= data.length - mark.length; i++) {
+            boolean found = true;
+            for (int j = 0; j < mark.length && found; j++) {
+                found = data[i + j] == mark[j];
+            }
+            if (found) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int storedCrc(byte[] data, int offset) {
+        return (Util.asUnsignedByte(data[offset]) << 8) | Util.asUnsignedByte(data[offset + 1]);
+    }
+
+    @Test
+    public void matchesTheCheckValue() {
+        assertEquals(CHECK_VALUE, Crc16.update(Crc16.INITIAL_VALUE, CHECK_INPUT, 0, CHECK_INPUT.length));
+        assertEquals(CHECK_VALUE, Crc16.update(Crc16.INITIAL_VALUE,
+                ByteBuffer.wrap(CHECK_INPUT), 0, CHECK_INPUT.length));
+        assertEquals(Crc16.INITIAL_VALUE, new Crc16().update(CHECK_INPUT, 0, 0).getValue());
+
+        int crc = Crc16.INITIAL_VALUE;
+        for (byte b : CHECK_INPUT) {
+            crc = Crc16.update(crc, b);
+        }
+        assertEquals(CHECK_VALUE, crc);
+        assertEquals(CHECK_VALUE, new Crc16()
+                .update(CHECK_INPUT, 0, 3)
+                .update(ByteBuffer.wrap(CHECK_INPUT), 3, CHECK_INPUT.length - 3)
+                .getValue());
+    }
+
+    @Test
+    public void seedsMatchTheAddressMarks() {
+        assertEquals(Crc16.update(Crc16.INITIAL_VALUE, ID_MARK, 0, ID_MARK.length), Crc16.ID_MARK_SEED);
+        assertEquals(Crc16.update(Crc16.INITIAL_VALUE, DATA_MARK, 0, DATA_MARK.length), Crc16.DATA_MARK_SEED);
+    }
+
+    //BuggyBoy.dsk only holds F7 F7 placeholders, so the CRCs come from an image written by a controller
+    @Test
+    public void matchesTheCrcsOfARealImage() throws IOException {
+        byte[] image = TestImages.bytes(TestImages.ORIC_DOS);
+        int id = indexOf(image, ID_MARK, 0);
+        assertTrue(id > 0);
+        int idCrc = storedCrc(image, id + 8);
+        assertEquals(0xFA0C, idCrc);
+        assertEquals(idCrc, Crc16.update(Crc16.ID_MARK_SEED, image, id + 4, 4));
+
+        int data = indexOf(image, DATA_MARK, id);
+        int sectorSize = 128 << image[id + 7];
+        int dataCrc = storedCrc(image, data + 4 + sectorSize);
+        assertEquals(0x9684, dataCrc);
+        assertEquals(dataCrc, Crc16.update(Crc16.DATA_MARK_SEED, image, data + 4, sectorSize));
+        assertEquals(dataCrc, Crc16.update(Crc16.INITIAL_VALUE, ByteBuffer.wrap(image), data, 4 + sectorSize));
+
+        byte[] placeholders = TestImages.bytes(TestImages.BUGGY_BOY);
+        assertEquals(0xF7F7, storedCrc(placeholders, indexOf(placeholders, ID_MARK, 0) + 8));
+    }
+}
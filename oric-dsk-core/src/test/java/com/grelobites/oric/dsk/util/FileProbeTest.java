@@ -0,0 +1,117 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.model.DiskFormat;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import com.grelobites.oric.dsk.sedoric.SedoricHeader;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileProbeTest {
+
+    private static byte[] withHeader(byte[] data) {
+        byte[] headerBytes = SedoricHeader.newBuilder()
+                .withLoadAddress(0x501)
+                .withExecAddress(0x502)
+                .withFlags(0x81)
+                .build().asByteArray();
+        byte[] contents = Arrays.copyOf(headerBytes, headerBytes.length + data.length);
+        System.arraycopy(data, 0, contents, headerBytes.length, data.length);
+        return contents;
+    }
+
+    @Test
+    public void formatDetectorsFindOricDos() throws IOException {
+        assertEquals(DiskFormat.ORICDOS, DskUtil.getDiskFormat(TestImages.disk(TestImages.ORIC_DOS)));
+    }
+
+    @Test
+    public void imagesAreDetectedFromTheirHeader() throws IOException {
+        for (String image : new String[]{TestImages.BUGGY_BOY, TestImages.BARBITORIC, TestImages.ORIC_DOS,
+                TestImages.XENON_NEW}) {
+            FileProbe probe = FileProbe.of(TestImages.file(image));
+            assertEquals(FileType.MFMDSK, probe.getFileType());
+            assertEquals(TestImages.file(image).length(), probe.getSize());
+        }
+        assertEquals(FileType.PLAINDSK, FileProbe.of(TestImages.file(TestImages.XENON_OLD)).getFileType());
+    }
+
+    @Test
+    public void signaturesWithoutAFullHeaderAreArchives() throws IOException {
+        File shortImage = File.createTempFile("probe", ".dsk");
+        File tapFile = File.createTempFile("probe", ".tap");
+        try {
+            byte[] signature = Constants.NEW_DSK_SIGNATURE.getBytes();
+            Files.write(shortImage.toPath(), Arrays.copyOf(signature, Constants.SECTOR_SIZE - 1));
+            assertEquals(FileType.ARCHIVE, FileProbe.of(shortImage).getFileType());
+
+            Files.write(tapFile.toPath(), new byte[]{0x16, 0x16, 0x16});
+            assertEquals(FileType.TAP, FileProbe.of(tapFile).getFileType());
+        } finally {
+            shortImage.delete();
+            tapFile.delete();
+        }
+    }
+
+    @Test
+    public void archivesGetTheHeaderAndTheWholeContents() throws IOException {
+        File archiveFile = File.createTempFile("probe", ".bin");
+        File shortFile = File.createTempFile("probe", ".bin");
+        try {
+            //Longer than the probed header
+            byte[] data = new byte[3 * Constants.SECTOR_SIZE + 5];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+            Files.write(archiveFile.toPath(), withHeader(data));
+            byte[] shortData = new byte[]{1, 2, 3, 4, 5};
+            Files.write(shortFile.toPath(), shortData);
+
+            FileProbe probe = FileProbe.of(archiveFile);
+            assertEquals(FileType.ARCHIVE, probe.getFileType());
+            assertTrue(probe.getSedoricHeader().isPresent());
+            SedoricArchive archive = ArchiveUtil.createArchiveFromProbe(probe, new ArchiveNameRegistry());
+            assertEquals(0x501, archive.getLoadAddress());
+            assertEquals(0x502, archive.getExecAddress());
+            assertTrue(archive.isExecutableAttribute());
+            assertTrue(Arrays.equals(data, archive.getData()));
+
+            probe = FileProbe.of(shortFile);
+            assertEquals(FileType.ARCHIVE, probe.getFileType());
+            assertFalse(probe.getSedoricHeader().isPresent());
+            assertTrue(Arrays.equals(shortData,
+                    ArchiveUtil.createArchiveFromFile(shortFile, new ArchiveNameRegistry()).getData()));
+        } finally {
+            archiveFile.delete();
+            shortFile.delete();
+        }
+    }
+
+    //Imported archives must not hold on to the file, which could not be removed on Windows
+    @Test
+    public void importedArchivesOutliveTheirFiles() throws IOException {
+        File image = File.createTempFile("probe", ".dsk");
+        try {
+            Files.copy(TestImages.file(TestImages.BUGGY_BOY).toPath(), image.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            SedoricFileSystem fileSystem = new SedoricFileSystem();
+            ArchiveUtil.addArchivesInFile(fileSystem, image);
+            assertTrue(image.delete());
+            TestImages.assertSameArchives(TestImages.fileSystem(TestImages.BUGGY_BOY).getArchiveList(),
+                    fileSystem.getArchiveList());
+        } finally {
+            image.delete();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.model.CrcStatus;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.DiskIntegrityReport;
+import com.grelobites.oric.dsk.model.IntegrityException;
+import com.grelobites.oric.dsk.model.SectorCoordinates;
+import com.grelobites.oric.dsk.model.SectorIntegrity;
+import com.grelobites.oric.dsk.model.TrackIntegrity;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MfmDskReaderTest {
+    private static final int DAMAGED_TRACK = 3;
+
+    private static Disk read(MfmDskReader reader, byte[] image) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(image);
+        return reader.fromDsk(buffer, DskHeader.fromByteBuffer(buffer));
+    }
+
+    @Test
+    public void mappedDiskMatchesStreamedDisk() throws IOException {
+        Disk mappedDisk = TestImages.mappedDisk(TestImages.BUGGY_BOY);
+        Disk streamDisk = TestImages.disk(TestImages.BUGGY_BOY);
+
+        List<SedoricArchive> mappedArchives = ArchiveUtil.getArchivesFromDisk(mappedDisk);
+        List<SedoricArchive> streamArchives = ArchiveUtil.getArchivesFromDisk(streamDisk);
+        assertTrue(mappedArchives.size() > 0);
+        assertEquals(streamArchives.size(), mappedArchives.size());
+        for (int i = 0; i < mappedArchives.size(); i++) {
+            assertEquals(streamArchives.get(i).getName(), mappedArchives.get(i).getName());
+            assertTrue(Arrays.equals(streamArchives.get(i).getData(), mappedArchives.get(i).getData()));
+        }
+        assertEquals(streamDisk.getGeometry().capacity(), mappedDisk.getGeometry().capacity());
+    }
+
+    @Test
+    public void mappedDiskDecodesTracksOnAccess() throws IOException {
+        Disk disk = TestImages.mappedDisk(TestImages.BUGGY_BOY);
+        for (int track = 0; track < disk.getTrackCount(); track++) {
+            assertFalse(disk.isTrackLoaded(track));
+        }
+
+        disk.copySector(5, 1);
+        for (int track = 0; track < disk.getTrackCount(); track++) {
+            assertEquals(track == 5, disk.isTrackLoaded(track));
+        }
+
+        ArchiveUtil.getArchivesFromDisk(disk);
+        int loaded = 0;
+        for (int track = 0; track < disk.getTrackCount(); track++) {
+            loaded += disk.isTrackLoaded(track) ? 1 : 0;
+        }
+        assertTrue(loaded > 1);
+        assertTrue(disk.toFlatDisk().isTrackLoaded(0));
+    }
+
+    @Test
+    public void parallelDecodingMatchesLazy() throws IOException {
+        byte[] image = TestImages.bytes(TestImages.ORIC_DOS);
+        Disk lazyDisk = read(new MfmDskReader(), image);
+        Disk parallelDisk = read(new MfmDskReader(1), image);
+
+        DiskGeometry lazyGeometry = lazyDisk.getGeometry();
+        DiskGeometry parallelGeometry = parallelDisk.getGeometry();
+        assertEquals(lazyGeometry.capacity(), parallelGeometry.capacity());
+        for (int track = 0; track < lazyDisk.getTrackCount(); track++) {
+            assertEquals(lazyGeometry.getTrackGeometry(track).toString(),
+                    parallelGeometry.getTrackGeometry(track).toString());
+            for (int sector = 1; sector <= lazyGeometry.getTrackGeometry(track).getSectorCount(); sector++) {
+                SectorCoordinates coordinates = new SectorCoordinates(track, sector);
+                assertTrue(Arrays.equals(lazyDisk.copySector(coordinates),
+                        parallelDisk.copySector(coordinates)));
+            }
+        }
+    }
+
+    @Test
+    public void integrityReportFlagsCrcErrors() throws IOException {
+        DiskIntegrityReport validReport = DskUtil.integrityReportFromDskFile(
+                TestImages.file(TestImages.ORIC_DOS));
+        assertTrue(validReport.isChecked());
+        assertTrue(validReport.isValid());
+        assertEquals(160, validReport.getTracks().size());
+
+        DiskIntegrityReport corruptedReport = DskUtil.integrityReportFromDskFile(
+                TestImages.file(TestImages.BARBITORIC));
+        assertFalse(corruptedReport.isValid());
+        SectorIntegrity sector = corruptedReport.getInvalidTracks().get(0).getSectors().stream()
+                .filter(s -> !s.isValid()).findFirst().get();
+        assertEquals(CrcStatus.VALID, sector.getIdStatus());
+        assertEquals(CrcStatus.INVALID, sector.getDataStatus());
+
+        try {
+            read(new MfmDskReader(MfmDskReader.NO_PARALLEL_DECODING, true),
+                    TestImages.bytes(TestImages.BARBITORIC));
+            fail("Expected CRC errors");
+        } catch (IntegrityException e) {
+            assertEquals(corruptedReport.getErrorCount(), e.getReport().getErrorCount());
+        }
+    }
+
+    @Test
+    public void integrityReportFlagsDamagedIdFields() throws IOException {
+        byte[] image = TestImages.bytes(TestImages.ORIC_DOS);
+        ByteBuffer track = ByteBuffer.wrap(image, Constants.SECTOR_SIZE + DAMAGED_TRACK * Constants.MFM_TRACK_SIZE,
+                Constants.MFM_TRACK_SIZE).slice();
+        image[Constants.SECTOR_SIZE + DAMAGED_TRACK * Constants.MFM_TRACK_SIZE +
+                MfmTrackParserTest.sizeCodeOffset(track, 2)] = (byte) 0xFF;
+        File file = File.createTempFile("damaged", ".dsk");
+        try {
+            Files.write(file.toPath(), image);
+            for (MfmDskReader reader : new MfmDskReader[]{new MfmDskReader(), new MfmDskReader(1)}) {
+                DiskIntegrityReport report = DskUtil.integrityReportFromDskFile(file, reader);
+                assertEquals(1, report.getErrorCount());
+                TrackIntegrity invalidTrack = report.getInvalidTracks().get(0);
+                assertEquals(DAMAGED_TRACK, invalidTrack.getTrack());
+                SectorIntegrity sector = invalidTrack.getSectors().stream()
+                        .filter(s -> !s.isValid()).findFirst().get();
+                assertEquals(2, sector.getSectorId());
+                assertEquals(CrcStatus.DAMAGED, sector.getIdStatus());
+                assertEquals(CrcStatus.MISSING, sector.getDataStatus());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+}
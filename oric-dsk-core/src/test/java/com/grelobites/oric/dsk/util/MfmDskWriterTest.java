@@ -0,0 +1,37 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.TestImages;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MfmDskWriterTest {
+
+    @Test
+    public void exportedImageHasValidCrcs() throws IOException {
+        SedoricFileSystem fileSystem = TestImages.fileSystem(TestImages.BUGGY_BOY);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        fileSystem.exportFileSystem(os);
+
+        ByteBuffer image = ByteBuffer.wrap(os.toByteArray());
+        DskHeader header = DskHeader.fromByteBuffer(image);
+        MfmTrackParser parser = new MfmTrackParser(true);
+        for (int track = 0; track < header.getTracks() * header.getSides(); track++) {
+            ByteBuffer encoded = image.slice();
+            ((Buffer) encoded).limit(Constants.MFM_TRACK_SIZE);
+            assertTrue(parser.parse(encoded).getSectorCount() > 0);
+            assertEquals(0, parser.getCrcErrorCount());
+            assertEquals(0, parser.getUncheckedCrcCount());
+            ((Buffer) image).position(image.position() + Constants.MFM_TRACK_SIZE);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.grelobites.oric.dsk.util;
+
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.model.Disk;
+import com.grelobites.oric.dsk.model.SimpleDiskGeometry;
+import com.grelobites.oric.dsk.model.TrackGeometry;
+import com.grelobites.oric.dsk.sedoric.DskHeader;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MfmTrackParserTest {
+    private static final int TRACKS = 2;
+
+    private static Disk fullTrackDisk(int sectorCount, int gap3) {
+        Disk disk = Disk.newFlatDisk(SimpleDiskGeometry.newBuilder()
+                .withSideCount(1)
+                .withTrackCount(TRACKS)
+                .withTrackGeometry(TrackGeometry.newBuilder()
+                        .withSectorSize(Constants.DEFAULT_SECTOR_SIZE)
+                        .withSectorCount(sectorCount)
+                        .withTrackLead(40).withGap2(22).withGap3(gap3)
+                        .build())
+                .build());
+        for (int track = 0; track < TRACKS; track++) {
+            for (int sector = 1; sector <= sectorCount; sector++) {
+                byte[] data = new byte[Constants.DEFAULT_SECTOR_SIZE];
+                Arrays.fill(data, (byte) (track * sectorCount + sector));
+                disk.writeSector(track, sector, data);
+            }
+        }
+        return disk;
+    }
+
+    private static ByteBuffer firstTrack(Disk disk) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new MfmDskWriter().write(disk, os);
+        ByteBuffer image = ByteBuffer.wrap(os.toByteArray());
+        DskHeader.fromByteBuffer(image);
+        ByteBuffer encoded = image.slice();
+        ((Buffer) encoded).limit(Constants.MFM_TRACK_SIZE);
+        return encoded;
+    }
+
+    //Offset of the size code in the ID field of the sector
+    static int sizeCodeOffset(ByteBuffer track, int sectorId) {
+        for (int i = 0; i < track.limit() - 8; i++) {
+            if (track.get(i) == (byte) 0xA1 && track.get(i + 1) == (byte) 0xFE &&
+                    track.get(i + 4) == (byte) sectorId) {
+                return i + 5;
+            }
+        }
+        throw new IllegalArgumentException("No ID field for sector " + sectorId);
+    }
+
+    private static void assertParsersDecodeFullTracks(int sectorCount, int gap3) throws IOException {
+        Disk disk = fullTrackDisk(sectorCount, gap3);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new MfmDskWriter().write(disk, os);
+
+        ByteBuffer image = ByteBuffer.wrap(os.toByteArray());
+        DskHeader.fromByteBuffer(image);
+        MfmTrackParser parser = new MfmTrackParser(true);
+        LegacyMfmTrackParser legacyParser = new LegacyMfmTrackParser();
+        for (int track = 0; track < TRACKS; track++) {
+            ByteBuffer encoded = image.slice();
+            ((Buffer) encoded).limit(Constants.MFM_TRACK_SIZE);
+            TrackGeometry geometry = parser.parse(encoded);
+            TrackGeometry legacyGeometry = legacyParser.parse(encoded);
+            assertEquals(sectorCount, geometry.getSectorCount());
+            assertEquals(legacyGeometry.getSectorCount(), geometry.getSectorCount());
+            assertEquals(legacyGeometry.getSectorSize(), geometry.getSectorSize());
+            assertEquals(0, parser.getCrcErrorCount());
+
+            byte[][] sectors = parser.getSectors();
+            byte[][] legacySectors = legacyParser.getSectors();
+            assertEquals(sectorCount, sectors.length);
+            assertEquals(legacySectors.length, sectors.length);
+            for (int sector = 1; sector <= sectorCount; sector++) {
+                assertArrayEquals(legacySectors[sector - 1], sectors[sector - 1]);
+                assertArrayEquals(disk.copySector(track, sector), sectors[sector - 1]);
+            }
+            ((Buffer) image).position(image.position() + Constants.MFM_TRACK_SIZE);
+        }
+    }
+
+    @Test
+    public void decodesFull18SectorTracks() throws IOException {
+        assertParsersDecodeFullTracks(18, 20);
+    }
+
+    @Test
+    public void decodesFull19SectorTracks() throws IOException {
+        assertParsersDecodeFullTracks(Constants.MAX_SECTORS_PER_TRACK, 12);
+    }
+
+    @Test
+    public void skipsIdFieldsWithUnknownSizeCodes() throws IOException {
+        Disk disk = fullTrackDisk(17, 24);
+        ByteBuffer track = firstTrack(disk);
+        //Would give a zero and a negative sector size
+        track.put(sizeCodeOffset(track, 3), (byte) 24);
+        track.put(sizeCodeOffset(track, 9), (byte) 0xFF);
+
+        MfmTrackParser parser = new MfmTrackParser();
+        TrackGeometry geometry = parser.parse(track);
+        assertEquals(15, geometry.getSectorCount());
+        assertEquals(Constants.DEFAULT_SECTOR_SIZE, geometry.getSectorSize());
+        byte[][] sectors = parser.getSectors();
+        assertEquals(15, sectors.length);
+        int index = 0;
+        for (int sector = 1; sector <= 17; sector++) {
+            assertEquals(sector != 3 && sector != 9, parser.isSectorPresent(sector));
+            if (parser.isSectorPresent(sector)) {
+                assertArrayEquals(disk.copySector(0, sector), sectors[index++]);
+            }
+        }
+    }
+}
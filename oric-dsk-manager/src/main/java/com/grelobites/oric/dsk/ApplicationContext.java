@@ -1,49 +1,64 @@
 package com.grelobites.oric.dsk;
 
-import com.grelobites.oric.dsk.model.Archive;
+import com.grelobites.oric.dsk.metrics.DskMetrics;
+import com.grelobites.oric.dsk.model.ArchiveOperationException;
+import com.grelobites.oric.dsk.model.Disk;
 import com.grelobites.oric.dsk.model.DiskGeometry;
-import com.grelobites.oric.dsk.model.SimpleDiskGeometry;
 import com.grelobites.oric.dsk.sedoric.SedoricArchive;
 import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
 import com.grelobites.oric.dsk.util.ArchiveUtil;
 import com.grelobites.oric.dsk.util.LocaleUtil;
+import com.grelobites.oric.dsk.util.MfmDskWriter;
 import com.grelobites.oric.dsk.util.OperationResult;
+import com.grelobites.oric.dsk.view.model.ObservableDiskGeometry;
+import com.grelobites.oric.dsk.view.model.ObservableSedoricArchive;
+import com.grelobites.oric.dsk.view.model.ObservableSedoricFileSystem;
 import com.grelobites.oric.dsk.view.util.DialogUtil;
 import com.grelobites.oric.dsk.view.util.DirectoryAwareFileChooser;
+import com.grelobites.oric.dsk.view.util.ProgressTask;
 import javafx.application.Platform;
-import javafx.beans.binding.Bindings;
-import javafx.beans.binding.IntegerBinding;
-import javafx.beans.binding.NumberBinding;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ProgressIndicator;
 import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 import static com.grelobites.oric.dsk.Constants.DEFAULT_DISK_GEOMETRY;
 
 public class ApplicationContext {
     private static final Logger LOGGER = LoggerFactory.getLogger(ApplicationContext.class);
     private Stage applicationStage;
-    private final ObservableList<SedoricArchive> archiveList;
-    private ReadOnlyObjectProperty<SedoricArchive> selectedArchive;
+    private final ObservableList<ObservableSedoricArchive> archiveList;
+    private ReadOnlyObjectProperty<ObservableSedoricArchive> selectedArchive;
     private BooleanProperty archiveSelected;
     private StringProperty diskUsageDetail;
     private DoubleProperty diskUsage;
     private BooleanProperty generationAllowed;
     private IntegerProperty backgroundTaskCount;
+    private final List<ProgressTask<?>> runningTasks = new ArrayList<>();
+    private final DoubleProperty taskProgress;
     private DirectoryAwareFileChooser fileChooser;
-    private SedoricFileSystem fileSystem;
-    private ObjectProperty<DiskGeometry> diskGeometry;
+    private ObservableSedoricFileSystem fileSystem;
+    private ObjectProperty<ObservableDiskGeometry> diskGeometry;
 
     private final ExecutorService executorService = Executors.newFixedThreadPool(5, r -> {
         Thread t = new Thread(r);
@@ -53,16 +68,19 @@ public class ApplicationContext {
     });
 
     public ApplicationContext() {
-        this.archiveList = FXCollections.observableArrayList(Archive::getObservables);
+        this.archiveList = FXCollections.observableArrayList(ObservableSedoricArchive::getObservables);
         this.archiveSelected = new SimpleBooleanProperty(false);
         this.diskUsage = new SimpleDoubleProperty(0);
         this.diskUsageDetail = new SimpleStringProperty();
         this.backgroundTaskCount = new SimpleIntegerProperty();
-        this.diskGeometry = new SimpleObjectProperty<>(DEFAULT_DISK_GEOMETRY);
-        this.fileSystem = new SedoricFileSystem(this);
+        this.taskProgress = new SimpleDoubleProperty(ProgressIndicator.INDETERMINATE_PROGRESS);
+        this.diskGeometry = new SimpleObjectProperty<>(ObservableDiskGeometry.of(DEFAULT_DISK_GEOMETRY));
+        this.fileSystem = new ObservableSedoricFileSystem(this);
         this.generationAllowed = new SimpleBooleanProperty(true);
         this.generationAllowed.bind(backgroundTaskCount.isEqualTo(0)
                 .and(diskUsage.lessThanOrEqualTo(1.0)));
+        //Registers the metrics MBean upfront, when enabled
+        DskMetrics.get();
     }
 
     public boolean isGenerationAllowed() {
@@ -77,7 +95,7 @@ public class ApplicationContext {
         this.generationAllowed.set(generationAllowed);
     }
 
-    public ObservableList<SedoricArchive> getArchiveList() {
+    public ObservableList<ObservableSedoricArchive> getArchiveList() {
         return archiveList;
     }
 
@@ -89,7 +107,7 @@ public class ApplicationContext {
         this.archiveSelected.set(archiveSelected);
     }
 
-    public SedoricFileSystem getFileSystem() {
+    public ObservableSedoricFileSystem getFileSystem() {
         return fileSystem;
     }
 
@@ -135,16 +153,25 @@ public class ApplicationContext {
         return backgroundTaskCount;
     }
 
+    //Counted from now until the task ends, even if it gets cancelled or rejected before running
     public Future<OperationResult> addBackgroundTask(Callable<OperationResult> task) {
         Platform.runLater(() -> backgroundTaskCount.set(backgroundTaskCount.get() + 1));
-        return executorService.submit(new BackgroundTask(task, backgroundTaskCount));
+        DskMetrics.get().backgroundTaskQueued();
+        BackgroundTask backgroundTask = new BackgroundTask(task, backgroundTaskCount);
+        try {
+            executorService.execute(backgroundTask);
+        } catch (RejectedExecutionException e) {
+            backgroundTask.cancel(false);
+            throw e;
+        }
+        return backgroundTask;
     }
 
-    public ReadOnlyObjectProperty<SedoricArchive> selectedArchiveProperty() {
+    public ReadOnlyObjectProperty<ObservableSedoricArchive> selectedArchiveProperty() {
         return selectedArchive;
     }
 
-    public void setSelectedArchiveProperty(ReadOnlyObjectProperty<SedoricArchive> selectedInstallableProperty) {
+    public void setSelectedArchiveProperty(ReadOnlyObjectProperty<ObservableSedoricArchive> selectedInstallableProperty) {
         selectedArchive = selectedInstallableProperty;
         archiveSelected.bind(selectedArchive.isNotNull());
     }
@@ -230,21 +257,116 @@ public class ApplicationContext {
         return result.orElse(ButtonType.CLOSE) == ButtonType.OK;
     }
 
-    public void mergeFromFile(File file) throws IOException {
-        ArchiveUtil.addArchivesInFile(this, file);
+    //Names are resolved in the background against the ones in use when starting
+    public void mergeFromFiles(List<File> files) {
+        SedoricFileSystem merged = new SedoricFileSystem();
+        archiveList.forEach(merged.getNameRegistry()::add);
+        runTask(new ProgressTask<>(LocaleUtil.i18n("mergeFileMenuEntry"), monitor -> {
+                    for (int i = 0; i < files.size(); i++) {
+                        monitor.checkCancelled();
+                        ArchiveUtil.addArchivesInFile(merged, files.get(i));
+                        monitor.progress(i + 1, files.size());
+                    }
+                    return merged.getArchiveList();
+                }), fileSystem::addArchives,
+                "archiveAddError", "archiveAddErrorHeader");
     }
 
-    public void openDsk(File dskFile) throws IOException {
+    public void openDsk(File dskFile) {
         if (archiveList.size() == 0 || confirmArchiveDeletion()) {
-            getArchiveList().clear();
-            try (InputStream is = new FileInputStream(dskFile)) {
-                fileSystem.openDsk(is);
-            }
+            runTask(new ProgressTask<>(LocaleUtil.i18n("openDskMenuEntry"), monitor -> {
+                        SedoricFileSystem opened = new SedoricFileSystem();
+                        opened.openDsk(dskFile, monitor);
+                        return opened;
+                    }), fileSystem::load,
+                    "archiveOperationError", "archiveOperationErrorHeader");
+        }
+    }
+
+    //A snapshot of the file system is taken on the FX thread, then laid out and encoded
+    //in the background. The target file is only replaced once the whole image is written
+    public void saveDsk(File dskFile) throws IOException {
+        SedoricFileSystem snapshot = fileSystem.snapshot();
+        MfmDskWriter writer = new MfmDskWriter(snapshot.getInterleave(), snapshot.getSkew());
+        runTask(new ProgressTask<>(LocaleUtil.i18n("saveDskMenuEntry"), monitor -> {
+                    Path target = dskFile.toPath().toAbsolutePath();
+                    Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+                    try {
+                        Disk disk = snapshot.toDisk(monitor);
+                        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                            writer.write(disk, os, monitor);
+                        }
+                        monitor.checkCancelled();
+                        moveReplacing(temporary, target);
+                    } finally {
+                        Files.deleteIfExists(temporary);
+                    }
+                    return dskFile;
+                }), file -> LOGGER.info("Saved Dsk to {}", file),
+                "archiveOperationError", "archiveOperationErrorHeader");
+    }
+
+    private static void moveReplacing(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public DoubleProperty taskProgressProperty() {
+        return taskProgress;
+    }
+
+    //Results are published on the FX thread, only if the task completes
+    public <T> void runTask(ProgressTask<T> task, Consumer<T> publisher,
+                            String errorTitleKey, String errorHeaderKey) {
+        backgroundTaskCount.set(backgroundTaskCount.get() + 1);
+        DskMetrics.get().backgroundTaskQueued();
+        runningTasks.add(task);
+        taskProgress.bind(task.progressProperty());
+        task.setOnSucceeded(e -> {
+            taskFinished(task);
+            publisher.accept(task.getValue());
+        });
+        task.setOnCancelled(e -> {
+            LOGGER.info("Cancelled task {}", task.getTitle());
+            taskFinished(task);
+        });
+        task.setOnFailed(e -> {
+            taskFinished(task);
+            Throwable cause = task.getException();
+            LOGGER.error("Running task " + task.getTitle(), cause);
+            DialogUtil.buildErrorAlert(LocaleUtil.i18n(errorTitleKey),
+                    LocaleUtil.i18n(errorHeaderKey),
+                    LocaleUtil.i18n(cause instanceof ArchiveOperationException ?
+                            ((ArchiveOperationException) cause).getMessageKey() :
+                            "archiveOperationGenericError"))
+                    .showAndWait();
+        });
+        try {
+            executorService.submit(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Unable to run task {}", task.getTitle(), e);
+            //Goes through the cancelled handler, so the task stops being counted
+            task.cancel();
+        }
+    }
+
+    private void taskFinished(ProgressTask<?> task) {
+        runningTasks.remove(task);
+        backgroundTaskCount.set(backgroundTaskCount.get() - 1);
+        DskMetrics.get().backgroundTaskFinished();
+        taskProgress.unbind();
+        if (runningTasks.isEmpty()) {
+            taskProgress.set(ProgressIndicator.INDETERMINATE_PROGRESS);
+        } else {
+            taskProgress.bind(runningTasks.get(runningTasks.size() - 1).progressProperty());
         }
     }
 
-    public void saveDsk(OutputStream stream) throws IOException {
-        getFileSystem().exportFileSystem(stream);
+    public void cancelTasks() {
+        new ArrayList<>(runningTasks).forEach(ProgressTask::cancel);
     }
 
     public void clear() {
@@ -252,40 +374,40 @@ public class ApplicationContext {
         setDiskGeometry(Constants.DEFAULT_DISK_GEOMETRY);
     }
 
-    public DiskGeometry getDiskGeometry() {
+    public ObservableDiskGeometry getDiskGeometry() {
         return diskGeometry.get();
     }
 
-    public ObjectProperty<DiskGeometry> diskGeometryProperty() {
+    public ObjectProperty<ObservableDiskGeometry> diskGeometryProperty() {
         return diskGeometry;
     }
 
     public void setDiskGeometry(DiskGeometry diskGeometry) {
-        this.diskGeometry.set(diskGeometry);
+        this.diskGeometry.set(ObservableDiskGeometry.of(diskGeometry));
     }
 
-    class BackgroundTask implements Callable<OperationResult> {
+    class BackgroundTask extends FutureTask<OperationResult> {
         private IntegerProperty backgroundTaskCount;
-        private Callable<OperationResult> task;
 
         public BackgroundTask(Callable<OperationResult> task, IntegerProperty backgroundTaskCount) {
-            this.backgroundTaskCount = backgroundTaskCount;
-            this.task = task;
-        }
-
-        @Override
-        public OperationResult call() throws Exception {
-            final OperationResult result = task.call();
-            Platform.runLater(() -> {
-                backgroundTaskCount.set(backgroundTaskCount.get() - 1);
+            super(() -> {
+                OperationResult result = task.call();
                 if (result.isError()) {
-                    DialogUtil.buildErrorAlert(result.getContext(),
+                    Platform.runLater(() -> DialogUtil.buildErrorAlert(result.getContext(),
                             result.getMessage(),
                             result.getDetail())
-                            .showAndWait();
+                            .showAndWait());
                 }
+                return result;
             });
-            return result;
+            this.backgroundTaskCount = backgroundTaskCount;
+        }
+
+        //Called once the task completes, fails or gets cancelled, even if it never ran
+        @Override
+        protected void done() {
+            DskMetrics.get().backgroundTaskFinished();
+            Platform.runLater(() -> backgroundTaskCount.set(backgroundTaskCount.get() - 1));
         }
     }
 }
@@ -1,13 +1,14 @@
 package com.grelobites.oric.dsk;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Locale;
 import java.util.Optional;
 
 import com.grelobites.oric.dsk.util.LocaleUtil;
 import com.grelobites.oric.dsk.view.MainAppController;
+import com.grelobites.oric.dsk.view.ViewConstants;
 import com.grelobites.oric.dsk.view.util.DialogUtil;
 import com.grelobites.oric.dsk.view.util.DirectoryAwareFileChooser;
 import de.codecentric.centerdevice.MenuToolkit;
@@ -196,7 +197,7 @@ public class MainApp extends Application {
             final File fsFile = chooser.showOpenDialog(scene.getWindow());
             try {
                 if (fsFile != null) {
-                    applicationContext.mergeFromFile(fsFile);
+                    applicationContext.mergeFromFiles(Collections.singletonList(fsFile));
                 }
             } catch (Exception e) {
                 LOGGER.error("Merging from file " +  fsFile, e);
@@ -223,9 +224,7 @@ public class MainApp extends Application {
             final File fsFile = chooser.showSaveDialog(scene.getWindow());
             try {
                 if (fsFile != null) {
-                    try (FileOutputStream fos = new FileOutputStream(fsFile)) {
-                        applicationContext.saveDsk(fos);
-                    }
+                    applicationContext.saveDsk(fsFile);
                 }
             } catch (Exception e) {
                 LOGGER.error("Saving Dsk to " +  fsFile, e);
@@ -267,7 +266,7 @@ public class MainApp extends Application {
         if (aboutStage == null) {
             aboutStage = new Stage();
             Scene aboutScene = new Scene(getAboutPane());
-            aboutScene.getStylesheets().add(Constants.getThemeResourceUrl());
+            aboutScene.getStylesheets().add(ViewConstants.getThemeResourceUrl());
             aboutStage.setScene(aboutScene);
             aboutStage.setTitle(LocaleUtil.i18n("aboutTitle"));
             aboutStage.initModality(Modality.APPLICATION_MODAL);
@@ -351,7 +350,7 @@ public class MainApp extends Application {
             }
             populateMenuBar(menuBar, scene, applicationContext);
             mainPane.setCenter(getApplicationPane());
-            mainPane.getStylesheets().add(Constants.getThemeResourceUrl());
+            mainPane.getStylesheets().add(ViewConstants.getThemeResourceUrl());
 
             primaryStage.setScene(scene);
             applicationContext.setApplicationStage(primaryStage);
@@ -58,20 +58,17 @@ public class ArchiveView {
         });
     }
 
-    private boolean isNameAlreadyInUse(long id, String name, String extension, int userArea) {
-        return applicationContext.getArchiveList().filtered(a ->
-                a.getId() != id &&
-                a.getName().equals(name) &&
-                a.getExtension().equals(extension)).size() > 0;
+    private boolean isNameAlreadyInUse(SedoricArchive archive, String name, String extension) {
+        return applicationContext.getFileSystem().getNameRegistry()
+                .isNameInUse(name, extension, archive);
     }
 
     private ChangeListener<String> nameChangeListener = (observable, oldValue, newValue) -> {
         if (currentArchive != null) {
-            if (isNameAlreadyInUse(currentArchive.getId(), newValue, currentArchive.getExtension(),
-                        0)) {
-                name.getStyleClass().add(Constants.TEXT_ERROR_STYLE);
+            if (isNameAlreadyInUse(currentArchive, newValue, currentArchive.getExtension())) {
+                name.getStyleClass().add(ViewConstants.TEXT_ERROR_STYLE);
             } else {
-                name.getStyleClass().removeAll(Constants.TEXT_ERROR_STYLE);
+                name.getStyleClass().removeAll(ViewConstants.TEXT_ERROR_STYLE);
                 currentArchive.setName(newValue);
             }
         }
@@ -81,9 +78,9 @@ public class ArchiveView {
         if (currentArchive != null) {
             Optional<Integer> addressValue = Util.decodeAddress(newValue);
             if (!addressValue.isPresent()) {
-                loadAddress.getStyleClass().add(Constants.TEXT_ERROR_STYLE);
+                loadAddress.getStyleClass().add(ViewConstants.TEXT_ERROR_STYLE);
             } else {
-                loadAddress.getStyleClass().removeAll(Constants.TEXT_ERROR_STYLE);
+                loadAddress.getStyleClass().removeAll(ViewConstants.TEXT_ERROR_STYLE);
                 currentArchive.setLoadAddress(addressValue.get());
             }
         }
@@ -93,9 +90,9 @@ public class ArchiveView {
         if (currentArchive != null) {
             Optional<Integer> addressValue = Util.decodeAddress(newValue);
             if (!addressValue.isPresent()) {
-                execAddress.getStyleClass().add(Constants.TEXT_ERROR_STYLE);
+                execAddress.getStyleClass().add(ViewConstants.TEXT_ERROR_STYLE);
             } else {
-                execAddress.getStyleClass().removeAll(Constants.TEXT_ERROR_STYLE);
+                execAddress.getStyleClass().removeAll(ViewConstants.TEXT_ERROR_STYLE);
                 currentArchive.setExecAddress(addressValue.get());
             }
         }
@@ -103,11 +100,10 @@ public class ArchiveView {
 
     private ChangeListener<String> extensionChangeListener = (observable, oldValue, newValue) -> {
         if (currentArchive != null) {
-            if (isNameAlreadyInUse(currentArchive.getId(), currentArchive.getName(),
-                    newValue, 0)) {
-                extension.getStyleClass().add(Constants.TEXT_ERROR_STYLE);
+            if (isNameAlreadyInUse(currentArchive, currentArchive.getName(), newValue)) {
+                extension.getStyleClass().add(ViewConstants.TEXT_ERROR_STYLE);
             } else {
-                extension.getStyleClass().removeAll(Constants.TEXT_ERROR_STYLE);
+                extension.getStyleClass().removeAll(ViewConstants.TEXT_ERROR_STYLE);
                 currentArchive.setExtension(newValue);
             }
         }
@@ -176,17 +172,17 @@ public class ArchiveView {
 
     private void resetValues() {
         name.setText(Constants.EMPTY_STRING);
-        name.getStyleClass().removeAll(Constants.TEXT_ERROR_STYLE);
+        name.getStyleClass().removeAll(ViewConstants.TEXT_ERROR_STYLE);
         extension.setText(Constants.EMPTY_STRING);
-        extension.getStyleClass().removeAll(Constants.TEXT_ERROR_STYLE);
+        extension.getStyleClass().removeAll(ViewConstants.TEXT_ERROR_STYLE);
         size.setText(Constants.NO_VALUE);
         protectedAttribute.setSelected(false);
         executableAttribute.setSelected(false);
         blockAttribute.setSelected(false);
         loadAddress.setText(Constants.EMPTY_STRING);
-        loadAddress.getStyleClass().removeAll(Constants.TEXT_ERROR_STYLE);
+        loadAddress.getStyleClass().removeAll(ViewConstants.TEXT_ERROR_STYLE);
         execAddress.setText(Constants.EMPTY_STRING);
-        execAddress.getStyleClass().removeAll(Constants.TEXT_ERROR_STYLE);
+        execAddress.getStyleClass().removeAll(ViewConstants.TEXT_ERROR_STYLE);
     }
 
     private void unbindFromCurrentArchive() {
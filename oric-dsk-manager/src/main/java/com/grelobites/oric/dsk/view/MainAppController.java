@@ -2,16 +2,14 @@ package com.grelobites.oric.dsk.view;
 
 import com.grelobites.oric.dsk.Constants;
 import com.grelobites.oric.dsk.ApplicationContext;
-import com.grelobites.oric.dsk.model.Archive;
-import com.grelobites.oric.dsk.model.ArchiveOperationException;
 import com.grelobites.oric.dsk.model.ComplexDiskGeometry;
-import com.grelobites.oric.dsk.model.DiskGeometry;
-import com.grelobites.oric.dsk.sedoric.SedoricArchive;
-import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
 import com.grelobites.oric.dsk.util.ArchiveUtil;
 import com.grelobites.oric.dsk.util.LocaleUtil;
 import com.grelobites.oric.dsk.util.Util;
 import com.grelobites.oric.dsk.view.util.DialogUtil;
+import com.grelobites.oric.dsk.view.model.ObservableDiskGeometry;
+import com.grelobites.oric.dsk.view.model.ObservableSedoricArchive;
+import com.grelobites.oric.dsk.view.model.ObservableSedoricFileSystem;
 import com.grelobites.oric.dsk.view.util.DirectoryAwareFileChooser;
 import javafx.beans.binding.Bindings;
 import javafx.fxml.FXML;
@@ -25,7 +23,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
@@ -41,14 +38,14 @@ public class MainAppController {
     private Pane archiveInformationPane;
 
     @FXML
-    private TableView<SedoricArchive> archiveTable;
+    private TableView<ObservableSedoricArchive> archiveTable;
 
 
     @FXML
-    private TableColumn<Archive, String> archiveNameColumn;
+    private TableColumn<ObservableSedoricArchive, String> archiveNameColumn;
 
     @FXML
-    private TableColumn<Archive, Number> archiveSizeColumn;
+    private TableColumn<ObservableSedoricArchive, Number> archiveSizeColumn;
 
     @FXML
     private Button createDskButton;
@@ -120,31 +117,12 @@ public class MainAppController {
         return applicationContext;
     }
 
-    private SedoricFileSystem getFileSystem() {
+    private ObservableSedoricFileSystem getFileSystem() {
         return applicationContext.getFileSystem();
     }
 
     private void addArchivesFromFiles(List<File> files) {
-        try {
-            for (File file : files) {
-                ArchiveUtil.addArchivesInFile(applicationContext, file);
-            }
-        } catch (ArchiveOperationException aoe) {
-            LOGGER.error("Adding archives", aoe);
-            DialogUtil.buildErrorAlert(
-                    LocaleUtil.i18n("archiveAddError"),
-                    LocaleUtil.i18n("archiveAddErrorHeader"),
-                    LocaleUtil.i18n(aoe.getMessageKey()))
-                    .showAndWait();
-
-        } catch (Exception e) {
-            LOGGER.error("Adding archives", e);
-            DialogUtil.buildErrorAlert(
-                    LocaleUtil.i18n("archiveAddError"),
-                    LocaleUtil.i18n("archiveAddErrorHeader"),
-                    LocaleUtil.i18n("archiveAddGenericError"))
-                    .showAndWait();
-        }
+        applicationContext.mergeFromFiles(files);
     }
 
     @FXML
@@ -160,6 +138,9 @@ public class MainAppController {
 
         operationInProgressIndicator.visibleProperty().bind(
                 applicationContext.backgroundTaskCountProperty().greaterThan(0));
+        operationInProgressIndicator.progressProperty().bind(applicationContext.taskProgressProperty());
+        operationInProgressIndicator.setTooltip(new Tooltip(LocaleUtil.i18n("cancelOperationTooltip")));
+        operationInProgressIndicator.setOnMouseClicked(e -> applicationContext.cancelTasks());
 
         archiveView = new ArchiveView(applicationContext, archiveName, archiveExtension, archiveSize,
                 archiveProtectedAttribute, archiveExecutableAttribute, archiveBlockAttribute,
@@ -168,7 +149,7 @@ public class MainAppController {
         onArchiveSelection(null, null);
 
         archiveTable.setRowFactory(rf -> {
-            TableRow<SedoricArchive> row = new TableRow<>();
+            TableRow<ObservableSedoricArchive> row = new TableRow<>();
             row.setOnDragDetected(event -> {
                 if (!row.isEmpty()) {
                     Integer index = row.getIndex();
@@ -224,13 +205,13 @@ public class MainAppController {
         archiveTable.setOnDragEntered(event -> {
             if (event.getGestureSource() == null &&
                     event.getDragboard().hasFiles()) {
-                archiveTable.getStyleClass().add(Constants.RED_BACKGROUND_STYLE);
+                archiveTable.getStyleClass().add(ViewConstants.RED_BACKGROUND_STYLE);
             }
             event.consume();
         });
 
         archiveTable.setOnDragExited(event -> {
-            archiveTable.getStyleClass().remove(Constants.RED_BACKGROUND_STYLE);
+            archiveTable.getStyleClass().remove(ViewConstants.RED_BACKGROUND_STYLE);
             event.consume();
         });
 
@@ -254,10 +235,15 @@ public class MainAppController {
             chooser.setInitialFileName("oric_" + Constants.currentVersion() + ".dsk");
             final File saveFile = chooser.showSaveDialog(createDskButton.getScene().getWindow());
             if (saveFile != null) {
-                try (FileOutputStream fos = new FileOutputStream(saveFile)) {
-                    applicationContext.saveDsk(fos);
-                } catch (IOException e) {
+                try {
+                    applicationContext.saveDsk(saveFile);
+                } catch (Exception e) {
                     LOGGER.error("Creating Dsk", e);
+                    DialogUtil.buildErrorAlert(
+                            LocaleUtil.i18n("archiveOperationError"),
+                            LocaleUtil.i18n("archiveOperationErrorHeader"),
+                            LocaleUtil.i18n("archiveOperationGenericError"))
+                            .showAndWait();
                 }
             }
         });
@@ -276,7 +262,7 @@ public class MainAppController {
         });
 
         removeSelectedArchiveButton.setOnAction(c -> {
-            Optional<SedoricArchive> selectedInstallable = Optional.of(archiveTable.getSelectionModel().getSelectedItem());
+            Optional<ObservableSedoricArchive> selectedInstallable = Optional.of(archiveTable.getSelectionModel().getSelectedItem());
             selectedInstallable.ifPresent(index -> getFileSystem()
                     .removeArchive(selectedInstallable.get()));
         });
@@ -300,10 +286,10 @@ public class MainAppController {
         diskUsage.progressProperty().addListener(
                 (observable, oldValue, newValue) -> {
                     LOGGER.debug("Changing bar style on disk usage change to " + newValue.doubleValue());
-                    diskUsage.getStyleClass().removeAll(Constants.BLUE_BAR_STYLE, Constants.RED_BAR_STYLE);
+                    diskUsage.getStyleClass().removeAll(ViewConstants.BLUE_BAR_STYLE, ViewConstants.RED_BAR_STYLE);
                     diskUsage.getStyleClass().add(
                             (newValue.doubleValue() > 1.0 ?
-                                    Constants.RED_BAR_STYLE : Constants.BLUE_BAR_STYLE));
+                                    ViewConstants.RED_BAR_STYLE : ViewConstants.BLUE_BAR_STYLE));
 
                 });
 
@@ -337,7 +323,7 @@ public class MainAppController {
     }
 
     private void bindToContextDiskGeometry() {
-        DiskGeometry geometry = applicationContext.getDiskGeometry();
+        ObservableDiskGeometry geometry = applicationContext.getDiskGeometry();
         LOGGER.debug("bindToContextDiskGeometry with geometry " + geometry);
         trackCount.getValueFactory().setValue(geometry.getTrackCount());
         geometry.trackCountProperty().bind(trackCount.valueProperty());
@@ -349,13 +335,13 @@ public class MainAppController {
         }
         //If the Disk Geometry is complex we cannot change the number of sides/tracks
         //without compromising the stability of the format
-        boolean disable = applicationContext.getDiskGeometry() instanceof ComplexDiskGeometry;
+        boolean disable = geometry.getDelegate() instanceof ComplexDiskGeometry;
         trackCount.setDisable(disable);
         sideCount.setDisable(disable);
         sectorCount.setDisable(disable);
     }
 
-    private void onArchiveSelection(SedoricArchive oldArchive, SedoricArchive newArchive) {
+    private void onArchiveSelection(ObservableSedoricArchive oldArchive, ObservableSedoricArchive newArchive) {
         LOGGER.debug("onArchiveSelection oldArchive=" + oldArchive + ", newArchive=" + newArchive);
         archiveView.bindToArchive(newArchive);
         archiveInformationPane.setDisable(newArchive == null);
@@ -0,0 +1,20 @@
+package com.grelobites.oric.dsk.view;
+
+public class ViewConstants {
+    public static final String TEXT_ERROR_STYLE = "red-text";
+    public static final String RED_BACKGROUND_STYLE = "red-background";
+    public static final String NORMAL_BACKGROUND_STYLE = "normal-background";
+    public static final String RED_BAR_STYLE = "red-bar";
+    public static final String BLUE_BAR_STYLE = "blue-bar";
+
+    private static final String THEME_RESOURCE = "theme.css";
+    private static String THEME_RESOURCE_URL;
+
+    public static String getThemeResourceUrl() {
+        if (THEME_RESOURCE_URL == null) {
+            THEME_RESOURCE_URL = ViewConstants.class.getResource(THEME_RESOURCE)
+                    .toExternalForm();
+        }
+        return THEME_RESOURCE_URL;
+    }
+}
@@ -0,0 +1,118 @@
+package com.grelobites.oric.dsk.view.model;
+
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.model.TrackGeometry;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.IntegerBinding;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+public class ObservableDiskGeometry implements DiskGeometry {
+    private final DiskGeometry delegate;
+    private final IntegerProperty trackCount;
+    private final IntegerProperty sideCount;
+    private final IntegerProperty sectorCount;
+    private final IntegerBinding capacityBinding;
+
+    public static ObservableDiskGeometry of(DiskGeometry geometry) {
+        return geometry instanceof ObservableDiskGeometry ?
+                (ObservableDiskGeometry) geometry :
+                new ObservableDiskGeometry(geometry);
+    }
+
+    public ObservableDiskGeometry(DiskGeometry delegate) {
+        this.delegate = delegate;
+        this.trackCount = new SimpleIntegerProperty(delegate.getTrackCount());
+        this.sideCount = new SimpleIntegerProperty(delegate.getSideCount());
+        this.trackCount.addListener((observable, oldValue, newValue) ->
+                delegate.setTrackCount(newValue.intValue()));
+        this.sideCount.addListener((observable, oldValue, newValue) ->
+                delegate.setSideCount(newValue.intValue()));
+        if (delegate.hasSectorCount()) {
+            this.sectorCount = new SimpleIntegerProperty(delegate.getSectorCount());
+            this.sectorCount.addListener((observable, oldValue, newValue) ->
+                    delegate.setSectorCount(newValue.intValue()));
+            this.capacityBinding = Bindings.createIntegerBinding(delegate::capacity,
+                    trackCount, sideCount, sectorCount);
+        } else {
+            this.sectorCount = null;
+            this.capacityBinding = Bindings.createIntegerBinding(delegate::capacity,
+                    trackCount, sideCount);
+        }
+    }
+
+    public DiskGeometry getDelegate() {
+        return delegate;
+    }
+
+    public IntegerBinding capacityBinding() {
+        return capacityBinding;
+    }
+
+    @Override
+    public int getTrackCount() {
+        return trackCount.get();
+    }
+
+    public IntegerProperty trackCountProperty() {
+        return trackCount;
+    }
+
+    @Override
+    public void setTrackCount(int trackCount) {
+        this.trackCount.set(trackCount);
+    }
+
+    @Override
+    public int getSideCount() {
+        return sideCount.get();
+    }
+
+    public IntegerProperty sideCountProperty() {
+        return sideCount;
+    }
+
+    @Override
+    public void setSideCount(int sideCount) {
+        this.sideCount.set(sideCount);
+    }
+
+    @Override
+    public int getSectorCount() {
+        return sectorCountProperty().get();
+    }
+
+    public IntegerProperty sectorCountProperty() {
+        if (sectorCount == null) {
+            throw new IllegalArgumentException("Sector count not supported");
+        }
+        return sectorCount;
+    }
+
+    @Override
+    public void setSectorCount(int sectorCount) {
+        sectorCountProperty().set(sectorCount);
+    }
+
+    @Override
+    public TrackGeometry getTrackGeometry(int track) {
+        return delegate.getTrackGeometry(track);
+    }
+
+    @Override
+    public boolean hasSectorCount() {
+        return delegate.hasSectorCount();
+    }
+
+    @Override
+    public int capacity() {
+        return capacityBinding.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ObservableDiskGeometry{" +
+                "delegate=" + delegate +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+package com.grelobites.oric.dsk.view.model;
+
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import javafx.beans.Observable;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+public class ObservableSedoricArchive extends SedoricArchive {
+    private final StringProperty name;
+    private final StringProperty extension;
+    private final IntegerProperty size;
+
+    public static ObservableSedoricArchive of(SedoricArchive archive) {
+        return archive instanceof ObservableSedoricArchive ?
+                (ObservableSedoricArchive) archive :
+                new ObservableSedoricArchive(archive);
+    }
+
+    public ObservableSedoricArchive(SedoricArchive source) {
+        super(source);
+        this.name = new SimpleStringProperty(source.getName());
+        this.extension = new SimpleStringProperty(source.getExtension());
+        this.size = new SimpleIntegerProperty(source.getSize());
+    }
+
+    @Override
+    public String getName() {
+        return name.get();
+    }
+
+    public StringProperty nameProperty() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name.set(name);
+    }
+
+    @Override
+    public String getExtension() {
+        return extension.get();
+    }
+
+    public StringProperty extensionProperty() {
+        return extension;
+    }
+
+    @Override
+    public void setExtension(String extension) {
+        this.extension.set(extension);
+    }
+
+    @Override
+    public int getSize() {
+        return size.get();
+    }
+
+    public IntegerProperty sizeProperty() {
+        return size;
+    }
+
+    @Override
+    public void setSize(int size) {
+        this.size.set(size);
+    }
+
+    public Observable[] getObservables() {
+        return new Observable[] {name, extension};
+    }
+}
@@ -0,0 +1,205 @@
+package com.grelobites.oric.dsk.view.model;
+
+import com.grelobites.oric.dsk.ApplicationContext;
+import com.grelobites.oric.dsk.Constants;
+import com.grelobites.oric.dsk.metrics.DskMetrics;
+import com.grelobites.oric.dsk.model.DiskGeometry;
+import com.grelobites.oric.dsk.sedoric.AllocationStrategy;
+import com.grelobites.oric.dsk.sedoric.DiskUsageTracker;
+import com.grelobites.oric.dsk.sedoric.SedoricArchive;
+import com.grelobites.oric.dsk.sedoric.SedoricFileSystem;
+import com.grelobites.oric.dsk.util.ArchiveNameRegistry;
+import com.grelobites.oric.dsk.util.ArchiveUtil;
+import com.grelobites.oric.dsk.util.LocaleUtil;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class ObservableSedoricFileSystem extends SedoricFileSystem {
+    private final ApplicationContext context;
+    private final DiskUsageTracker usageTracker;
+    private final StringProperty name;
+    private final StringProperty initString;
+    private final BooleanProperty bootable;
+
+    public ObservableSedoricFileSystem(ApplicationContext context) {
+        this.context = context;
+        this.name = new SimpleStringProperty(Constants.EMPTY_STRING);
+        this.initString = new SimpleStringProperty(Constants.EMPTY_STRING);
+        this.bootable = new SimpleBooleanProperty(true);
+        this.usageTracker = new DiskUsageTracker(context.getArchiveList(), context.getDiskGeometry(),
+                bootable.get(), getAllocationStrategy());
+        InvalidationListener capacityUpdater = e -> {
+            usageTracker.geometryChanged();
+            updateDiskUsage();
+        };
+        context.getArchiveList().addListener(this::onArchiveListChanged);
+        context.diskGeometryProperty().addListener((observable, oldValue, newValue) -> {
+            oldValue.capacityBinding().removeListener(capacityUpdater);
+            newValue.capacityBinding().addListener(capacityUpdater);
+            usageTracker.setGeometry(newValue);
+            updateDiskUsage();
+        });
+        bootable.addListener(e -> {
+            usageTracker.setBootable(bootable.get());
+            updateDiskUsage();
+        });
+        context.getDiskGeometry().capacityBinding().addListener(capacityUpdater);
+    }
+
+    private void onArchiveListChanged(ListChangeListener.Change<? extends ObservableSedoricArchive> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                usageTracker.archivesReordered();
+            } else if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    getNameRegistry().refresh(change.getList().get(i));
+                }
+            } else {
+                if (change.wasRemoved()) {
+                    change.getRemoved().forEach(getNameRegistry()::remove);
+                    usageTracker.archivesRemoved(change.getRemoved());
+                }
+                if (change.wasAdded()) {
+                    change.getAddedSubList().forEach(getNameRegistry()::add);
+                    usageTracker.archivesAdded(change.getFrom(), change.getAddedSubList());
+                }
+            }
+        }
+        DskMetrics.get().archiveListChanged(change.getList().size());
+        updateDiskUsage();
+    }
+
+    @Override
+    public String getName() {
+        return name.get();
+    }
+
+    public StringProperty nameProperty() {
+        return name;
+    }
+
+    @Override
+    public void setName(String name) {
+        this.name.set(name);
+    }
+
+    @Override
+    public String getInitString() {
+        return initString.get();
+    }
+
+    public StringProperty initStringProperty() {
+        return initString;
+    }
+
+    @Override
+    public void setInitString(String initString) {
+        this.initString.set(initString);
+    }
+
+    @Override
+    public boolean getBootable() {
+        return bootable.get();
+    }
+
+    public BooleanProperty bootableProperty() {
+        return bootable;
+    }
+
+    @Override
+    public void setBootable(boolean bootable) {
+        this.bootable.set(bootable);
+    }
+
+    @Override
+    public DiskGeometry getDiskGeometry() {
+        return context.getDiskGeometry();
+    }
+
+    @Override
+    public void setDiskGeometry(DiskGeometry geometry) {
+        context.setDiskGeometry(geometry);
+    }
+
+    @Override
+    public ObservableList<ObservableSedoricArchive> getArchiveList() {
+        return context.getArchiveList();
+    }
+
+    @Override
+    public void addArchive(SedoricArchive archive) {
+        getArchiveList().add(ObservableSedoricArchive.of(archive));
+    }
+
+    //Single list change, so listeners and the table get updated once per batch. Names come
+    //resolved from the background task, so only the ones taken meanwhile get renamed here.
+    //The list listener indexes the added archives
+    @Override
+    public void addArchives(Collection<? extends SedoricArchive> archives) {
+        List<ObservableSedoricArchive> added = new ArrayList<>(archives.size());
+        ArchiveNameRegistry registry = getNameRegistry();
+        ArchiveNameRegistry batchRegistry = null;
+        for (SedoricArchive archive : archives) {
+            ObservableSedoricArchive observable = ObservableSedoricArchive.of(archive);
+            if ((batchRegistry != null ? batchRegistry : registry)
+                    .isNameInUse(observable.getName(), observable.getExtension())) {
+                if (batchRegistry == null) {
+                    batchRegistry = ArchiveNameRegistry.of(getArchiveList());
+                    added.forEach(batchRegistry::add);
+                }
+                ArchiveUtil.updateArchiveName(observable, batchRegistry);
+            }
+            if (batchRegistry != null) {
+                batchRegistry.add(observable);
+            }
+            added.add(observable);
+        }
+        getArchiveList().addAll(added);
+    }
+
+    //Replaces the current contents with a file system loaded off the FX thread
+    public void load(SedoricFileSystem source) {
+        setDiskGeometry(source.getDiskGeometry());
+        setName(source.getName());
+        setInitString(source.getInitString());
+        setPenColor(source.getPenColor());
+        setPaperColor(source.getPaperColor());
+        List<ObservableSedoricArchive> archives = new ArrayList<>(source.getArchiveList().size());
+        source.getArchiveList().forEach(archive -> archives.add(ObservableSedoricArchive.of(archive)));
+        getArchiveList().setAll(archives);
+    }
+
+    @Override
+    public void removeArchive(SedoricArchive archive) {
+        getArchiveList().remove(archive);
+    }
+
+    @Override
+    public void setAllocationStrategy(AllocationStrategy allocationStrategy) {
+        super.setAllocationStrategy(allocationStrategy);
+        usageTracker.setAllocationStrategy(allocationStrategy);
+        updateDiskUsage();
+    }
+
+    @Override
+    public int getUsedBytes() {
+        return usageTracker.getUsedBytes();
+    }
+
+    private void updateDiskUsage() {
+        int usedBytes = getUsedBytes();
+        int totalBytes = getTotalBytes();
+        context.setDiskUsage((1.0 * usedBytes) / totalBytes);
+        context.setDiskUsageDetail(String.format(LocaleUtil.i18n("dskUsageDetail"),
+                Math.max(0, totalBytes - usedBytes), totalBytes));
+    }
+}
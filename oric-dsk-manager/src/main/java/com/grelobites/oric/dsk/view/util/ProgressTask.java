@@ -0,0 +1,38 @@
+package com.grelobites.oric.dsk.view.util;
+
+import com.grelobites.oric.dsk.util.ProgressMonitor;
+import javafx.concurrent.Task;
+
+/*
+ * Background task for operations reporting through a ProgressMonitor. Cancelling
+ * the task makes the operation stop at its next check
+ */
+public class ProgressTask<T> extends Task<T> {
+
+    @FunctionalInterface
+    public interface Operation<T> {
+        T run(ProgressMonitor monitor) throws Exception;
+    }
+
+    private final Operation<T> operation;
+
+    public ProgressTask(String title, Operation<T> operation) {
+        this.operation = operation;
+        updateTitle(title);
+    }
+
+    @Override
+    protected T call() throws Exception {
+        return operation.run(new ProgressMonitor() {
+            @Override
+            public void progress(long done, long total) {
+                updateProgress(done, total);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return ProgressTask.this.isCancelled();
+            }
+        });
+    }
+}